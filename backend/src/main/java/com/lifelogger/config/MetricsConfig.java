@@ -0,0 +1,52 @@
+package com.lifelogger.config;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Additions to Spring Boot's built-in meters. Request latency
+ * ({@code http.server.requests}), repository method timings
+ * ({@code spring.data.repository.invocations}) and Mongo command durations
+ * ({@code mongodb.driver.commands}) are recorded by Boot; this tags requests
+ * with the controller method that handled them and counts the documents each
+ * Mongo command returned.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public ServerRequestObservationConvention handlerMethodObservationConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                return super.getLowCardinalityKeyValues(context).and(handler(context.getCarrier()));
+            }
+        };
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoDocumentMetrics(MeterRegistry meterRegistry) {
+        return settings -> settings.addCommandListener(new MongoDocumentMetrics(meterRegistry));
+    }
+
+    // e.g. handler=JournalController.getAllJournals
+    private static KeyValue handler(HttpServletRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod method) {
+            return KeyValue.of("handler", method.getBeanType().getSimpleName() + "." + method.getMethod().getName());
+        }
+        return KeyValue.of("handler", handler != null ? handler.getClass().getSimpleName() : "none");
+    }
+}
@@ -0,0 +1,15 @@
+package com.lifelogger.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.config.EnableMongoAuditing;
+
+/**
+ * Fills in {@code @CreatedDate}/{@code @LastModifiedDate} on save. The
+ * in-memory repositories of the {@code memory} profile set them themselves.
+ */
+@Configuration
+@Profile("!memory")
+@EnableMongoAuditing
+public class MongoConfig {
+}
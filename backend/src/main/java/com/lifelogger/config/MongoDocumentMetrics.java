@@ -0,0 +1,89 @@
+package com.lifelogger.config;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records {@code mongodb.driver.documents}, the number of documents each
+ * command returned or wrote, tagged by command and collection. Complements
+ * Boot's {@code mongodb.driver.commands} timer, which has the same tags.
+ */
+public class MongoDocumentMetrics implements CommandListener {
+
+    private final MeterRegistry meterRegistry;
+
+    // The collection is only in the command, and the count only in the reply
+    private final Map<Integer, String> collections = new ConcurrentHashMap<>();
+
+    public MongoDocumentMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        collections.put(event.getRequestId(), collectionOf(event.getCommand()));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        String collection = collections.remove(event.getRequestId());
+        long documents = documentsOf(event.getCommandName(), event.getResponse());
+        if (collection == null || documents < 0) {
+            return;
+        }
+        DistributionSummary.builder("mongodb.driver.documents")
+                .description("Documents returned or written by a Mongo command")
+                .tag("command", event.getCommandName())
+                .tag("collection", collection)
+                .register(meterRegistry)
+                .record(documents);
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        collections.remove(event.getRequestId());
+    }
+
+    private static String collectionOf(BsonDocument command) {
+        BsonValue first = command.isEmpty() ? null : command.get(command.getFirstKey());
+        if (first != null && first.isString()) {
+            return first.asString().getValue();
+        }
+        // getMore names its collection separately
+        BsonValue collection = command.get("collection");
+        return collection != null && collection.isString() ? collection.asString().getValue() : "none";
+    }
+
+    // -1 for commands that are not about documents, such as hello or createIndexes
+    private static long documentsOf(String commandName, BsonDocument response) {
+        if (response == null) {
+            return -1;
+        }
+        BsonValue cursor = response.get("cursor");
+        if (cursor != null && cursor.isDocument()) {
+            BsonValue batch = cursor.asDocument().containsKey("firstBatch")
+                    ? cursor.asDocument().get("firstBatch")
+                    : cursor.asDocument().get("nextBatch");
+            return batch != null && batch.isArray() ? batch.asArray().size() : -1;
+        }
+        if ("findAndModify".equals(commandName)) {
+            BsonValue value = response.get("value");
+            return value != null && value.isDocument() ? 1 : 0;
+        }
+        BsonValue values = response.get("values");
+        if (values != null && values.isArray()) {
+            return values.asArray().size();
+        }
+        BsonValue n = response.get("n");
+        return n != null && n.isNumber() ? n.asNumber().longValue() : -1;
+    }
+}
@@ -0,0 +1,183 @@
+package com.lifelogger.config;
+
+import com.lifelogger.handler.AnalyticsHandler;
+import com.lifelogger.handler.AuthHandler;
+import com.lifelogger.handler.HandlerSupport;
+import com.lifelogger.handler.JournalHandler;
+import com.lifelogger.handler.MicroMemoryHandler;
+import com.lifelogger.handler.PhotoHandler;
+import com.lifelogger.handler.PlaceHandler;
+import com.lifelogger.handler.TagHandler;
+import com.lifelogger.handler.TasteHandler;
+import com.lifelogger.handler.TimelineHandler;
+import com.lifelogger.model.EntryTypes;
+import com.lifelogger.service.PhotoStorage;
+import com.lifelogger.service.PhotoStorageMigration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.web.reactive.function.server.RequestPredicate;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.queryParam;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * The {@code /api/**} contract of the MVC controllers as WebFlux routes, used
+ * when the application runs with the reactive profile. Routes are matched in
+ * order, so {@code /{id}} comes after the fixed paths of each resource.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveRoutes {
+
+    private static final RequestPredicate PAGED = queryParam("limit", limit -> true);
+
+    @Autowired
+    private HandlerSupport support;
+
+    @Autowired
+    private PhotoStorage photoStorage;
+
+    @Autowired
+    private PhotoStorageMigration photoStorageMigration;
+
+    @Bean
+    public RouterFunction<ServerResponse> authRoutes(AuthHandler handler) {
+        return route().path("/api/auth", builder -> builder
+                        .POST("/register", handler::register)
+                        .POST("/login", handler::login))
+                .build();
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> journalRoutes(JournalHandler handler) {
+        return route().path("/api/journals", builder -> builder
+                        .POST("", handler::createJournal)
+                        .PUT("/{id}", handler::updateJournal)
+                        .DELETE("/{id}", handler::deleteJournal)
+                        .GET("", PAGED, handler::getJournalsPage)
+                        .GET("", handler::getAllJournals)
+                        .GET("/date/{date}", handler::getJournalsByDate)
+                        .GET("/search", handler::searchJournals)
+                        .GET("/filter/mood/{mood}", handler::filterByMood)
+                        .GET("/filter/tag/{tag}", handler::filterByTag)
+                        .GET("/filter/context/{context}", handler::filterByContext)
+                        .GET("/{id}", handler::getJournalById))
+                .filter(support.versioned(EntryTypes.JOURNAL))
+                .build();
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> microMemoryRoutes(MicroMemoryHandler handler) {
+        return route().path("/api/memories", builder -> builder
+                        .POST("", handler::createMicroMemory)
+                        .DELETE("/{id}", handler::deleteMicroMemory)
+                        .GET("", PAGED, handler::getMicroMemoriesPage)
+                        .GET("", handler::getAllMicroMemories)
+                        .GET("/filter/mood/{mood}", handler::filterByMood)
+                        .GET("/filter/tag/{tag}", handler::filterByTag))
+                .filter(support.versioned(EntryTypes.MEMORY))
+                .build();
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> tasteRoutes(TasteHandler handler) {
+        return route().path("/api/tastes", builder -> builder
+                        .POST("", handler::createTaste)
+                        .PUT("/{id}", handler::updateTaste)
+                        .DELETE("/{id}", handler::deleteTaste)
+                        .GET("", PAGED, handler::getTastesPage)
+                        .GET("", handler::getAllTastes)
+                        .GET("/filter/type/{type}", handler::filterByType)
+                        .GET("/sort/rating", handler::sortByRating)
+                        .GET("/search", handler::searchTastes)
+                        .GET("/filter/tag/{tag}", handler::filterByTag)
+                        .GET("/{id}", handler::getTasteById))
+                .filter(support.versioned(EntryTypes.TASTE))
+                .build();
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> placeRoutes(PlaceHandler handler) {
+        return route().path("/api/places", builder -> builder
+                        .POST("", handler::createPlace)
+                        .PUT("/{id}", handler::updatePlace)
+                        .DELETE("/{id}", handler::deletePlace)
+                        .GET("", PAGED, handler::getPlacesPage)
+                        .GET("", handler::getAllPlaces)
+                        .GET("/filter/status/{status}", handler::filterByStatus)
+                        .GET("/filter/type/{type}", handler::filterByType)
+                        .GET("/filter/tag/{tag}", handler::filterByTag)
+                        .GET("/clusters", handler::getClusters)
+                        .GET("/near", handler::findNear)
+                        .GET("/within", handler::findWithin)
+                        .GET("/{id}", handler::getPlaceById))
+                .filter(support.versioned(EntryTypes.PLACE))
+                .build();
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> photoRoutes(PhotoHandler handler) {
+        return route().path("/api/photos", builder -> builder
+                        .POST("", handler::uploadPhoto)
+                        .DELETE("/{id}", handler::deletePhoto)
+                        .GET("", PAGED, handler::getPhotosPage)
+                        .GET("", handler::getAllPhotos)
+                        .GET("/filter/mood/{mood}", handler::filterByMood)
+                        .GET("/filter/tag/{tag}", handler::filterByTag)
+                        .GET("/{id}", handler::getPhotoById))
+                .filter(support.versioned(EntryTypes.PHOTO))
+                .build();
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> timelineRoutes(TimelineHandler timeline, AnalyticsHandler analytics,
+                                                         TagHandler tags) {
+        return route()
+                .GET("/api/timeline", support.versioned(EntryTypes.JOURNAL, EntryTypes.MEMORY, EntryTypes.TASTE,
+                        EntryTypes.PLACE, EntryTypes.PHOTO).apply(timeline::getTimeline))
+                .GET("/api/analytics/moods/daily", analytics::getDailyMoods)
+                .GET("/api/analytics/moods/distribution", analytics::getMoodDistribution)
+                .GET("/api/tags", tags::getTags)
+                .build();
+    }
+
+    /**
+     * Uploaded files, including links from before the sharded layout. Range
+     * requests and zero-copy writes come from WebFlux's resource handling.
+     */
+    @Bean
+    public RouterFunction<ServerResponse> photoFileRoutes() {
+        CacheControl immutable = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+        return RouterFunctions.resources(this::photoFile,
+                (resource, headers) -> headers.setCacheControl(immutable));
+    }
+
+    private Mono<Resource> photoFile(ServerRequest request) {
+        String url = request.path();
+        if (!url.startsWith(PhotoStorage.URL_PREFIX)) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> {
+            Path file = photoStorage.resolve(url);
+            if (!Files.isRegularFile(file) && photoStorage.isFlat(url)) {
+                file = photoStorageMigration.findRelocated(url).orElse(file);
+            }
+            return Files.isRegularFile(file) ? (Resource) new FileSystemResource(file) : null;
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,60 @@
+package com.lifelogger.config;
+
+import com.lifelogger.model.EntryTypes;
+import com.lifelogger.security.AuthenticatedUser;
+import com.lifelogger.service.CollectionVersionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Tags GET responses of the collection endpoints with a weak ETag built from
+ * the caller's collection versions, and answers a matching
+ * {@code If-None-Match} with {@code 304 Not Modified} before the controller
+ * runs, so polling an unchanged collection costs no Mongo query.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class VersionedReadsConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private CollectionVersionService collectionVersionService;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        versioned(registry, "/api/journals", EntryTypes.JOURNAL);
+        versioned(registry, "/api/memories", EntryTypes.MEMORY);
+        versioned(registry, "/api/tastes", EntryTypes.TASTE);
+        versioned(registry, "/api/places", EntryTypes.PLACE);
+        versioned(registry, "/api/photos", EntryTypes.PHOTO);
+        versioned(registry, "/api/timeline", EntryTypes.JOURNAL, EntryTypes.MEMORY, EntryTypes.TASTE,
+                EntryTypes.PLACE, EntryTypes.PHOTO);
+    }
+
+    private void versioned(InterceptorRegistry registry, String path, String... types) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                if (!HttpMethod.GET.matches(request.getMethod())) {
+                    return true;
+                }
+                Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+                if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser user)) {
+                    return true;
+                }
+                String etag = collectionVersionService.etag(user.getId(), types);
+                // Sets the ETag header, and the 304 status if the client's copy is current
+                return !new ServletWebRequest(request, response).checkNotModified(etag);
+            }
+        }).addPathPatterns(path, path + "/**");
+    }
+}
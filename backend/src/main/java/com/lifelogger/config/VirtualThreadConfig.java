@@ -0,0 +1,38 @@
+package com.lifelogger.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+/**
+ * Spring Boot only switches Tomcat, the application task executor and
+ * {@code TimelineService} to virtual threads on Java 21 or later, and silently
+ * keeps platform threads otherwise. Says at startup which one the virtual
+ * profile actually got.
+ */
+@Configuration
+@ConditionalOnProperty("spring.threads.virtual.enabled")
+public class VirtualThreadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    @Autowired
+    private Environment environment;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reportThreading() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            logger.info("Handling requests on virtual threads");
+        } else {
+            logger.warn("spring.threads.virtual.enabled is set but Java {} has no virtual threads; "
+                    + "requests are handled on platform threads (Java 21 or later is required)",
+                    Runtime.version().feature());
+        }
+    }
+}
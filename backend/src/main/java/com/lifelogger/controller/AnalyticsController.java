@@ -0,0 +1,52 @@
+package com.lifelogger.controller;
+
+import com.lifelogger.dto.MoodPoint;
+import com.lifelogger.service.MoodAnalyticsService;
+import com.lifelogger.util.AuthUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    @Autowired
+    private MoodAnalyticsService moodAnalyticsService;
+
+    @Autowired
+    private AuthUtil authUtil;
+
+    @GetMapping("/moods/daily")
+    public ResponseEntity<List<MoodPoint>> getDailyMoods(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String type,
+            Authentication authentication) {
+        String userId = authUtil.getUserId(authentication);
+        List<MoodPoint> points = moodAnalyticsService.getDailyMoods(userId, from, to, type);
+        return ResponseEntity.ok(points);
+    }
+
+    @GetMapping("/moods/distribution")
+    public ResponseEntity<List<MoodPoint>> getMoodDistribution(
+            @RequestParam(defaultValue = "month") String period,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String type,
+            Authentication authentication) {
+        String userId = authUtil.getUserId(authentication);
+        List<MoodPoint> points = moodAnalyticsService.getMoodDistribution(userId, period, from, to, type);
+        return ResponseEntity.ok(points);
+    }
+}
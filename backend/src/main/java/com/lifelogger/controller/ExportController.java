@@ -0,0 +1,36 @@
+package com.lifelogger.controller;
+
+import com.lifelogger.service.ExportService;
+import com.lifelogger.util.AuthUtil;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/export")
+public class ExportController {
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private AuthUtil authUtil;
+
+    @GetMapping
+    public WebAsyncTask<Void> exportAccount(Authentication authentication, HttpServletResponse response) {
+        String userId = authUtil.getUserId(authentication);
+        WebAsyncTask<Void> task = exportService.exportAccount(userId, response);
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("life-logger-export.zip").build().toString());
+        return task;
+    }
+}
@@ -0,0 +1,38 @@
+package com.lifelogger.controller;
+
+import com.lifelogger.dto.ImportResult;
+import com.lifelogger.service.ImportService;
+import com.lifelogger.util.AuthUtil;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/import")
+public class ImportController {
+
+    @Autowired
+    private ImportService importService;
+
+    @Autowired
+    private AuthUtil authUtil;
+
+    @PostMapping(value = "/{type}", consumes = { "application/x-ndjson", "text/plain" })
+    public ResponseEntity<ImportResult> importRecords(
+            @PathVariable String type,
+            HttpServletRequest request,
+            Authentication authentication) throws IOException {
+        String userId = authUtil.getUserId(authentication);
+        ImportResult result = importService.importRecords(type, request.getInputStream(), userId);
+        return ResponseEntity.ok(result);
+    }
+}
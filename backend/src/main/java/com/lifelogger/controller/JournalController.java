@@ -1,23 +1,25 @@
 package com.lifelogger.controller;
 
+import com.lifelogger.dto.CursorPage;
 import com.lifelogger.model.Journal;
 import com.lifelogger.model.Mood;
 import com.lifelogger.service.JournalService;
+import com.lifelogger.util.AuthUtil;
+import com.lifelogger.util.Projection;
+import com.lifelogger.util.Projections;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
-import com.lifelogger.repository.UserRepository;
-import com.lifelogger.model.User;
-
 import java.time.LocalDate;
 import java.util.List;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/journals")
 public class JournalController {
 
@@ -25,18 +27,14 @@ public class JournalController {
     private JournalService journalService;
 
     @Autowired
-    private UserRepository userRepository;
+    private AuthUtil authUtil;
 
-    private String getUserId(Authentication authentication) {
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        User user = userRepository.findByUsername(userDetails.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return user.getId();
-    }
+    @Autowired
+    private Projections projections;
 
     @PostMapping
     public ResponseEntity<Journal> createJournal(@Valid @RequestBody Journal journal, Authentication authentication) {
-        String userId = getUserId(authentication);
+        String userId = authUtil.getUserId(authentication);
         Journal created = journalService.createJournal(journal, userId);
         return ResponseEntity.ok(created);
     }
@@ -46,28 +44,51 @@ public class JournalController {
             @PathVariable String id,
             @Valid @RequestBody Journal journal,
             Authentication authentication) {
-        String userId = getUserId(authentication);
+        String userId = authUtil.getUserId(authentication);
         Journal updated = journalService.updateJournal(id, journal, userId);
         return ResponseEntity.ok(updated);
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteJournal(@PathVariable String id, Authentication authentication) {
-        String userId = getUserId(authentication);
+        String userId = authUtil.getUserId(authentication);
         journalService.softDeleteJournal(id, userId);
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping
-    public ResponseEntity<List<Journal>> getAllJournals(Authentication authentication) {
-        String userId = getUserId(authentication);
+    public ResponseEntity<List<?>> getAllJournals(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view,
+            Authentication authentication) {
+        String userId = authUtil.getUserId(authentication);
+        Projection projection = projections.of(Journal.class, fields, view);
+        if (projection != null) {
+            return ResponseEntity.ok(journalService.getAllJournals(userId, projection));
+        }
         List<Journal> journals = journalService.getAllJournals(userId);
         return ResponseEntity.ok(journals);
     }
 
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorPage<?>> getJournalsPage(
+            @RequestParam Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view,
+            Authentication authentication) {
+        String userId = authUtil.getUserId(authentication);
+        Projection projection = projections.of(Journal.class, fields, view);
+        if (projection != null) {
+            return ResponseEntity.ok(journalService.getJournalsPage(userId, limit, after, projection));
+        }
+        CursorPage<Journal> page = journalService.getJournalsPage(userId, limit, after);
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Journal> getJournalById(@PathVariable String id, Authentication authentication) {
-        String userId = getUserId(authentication);
+        String userId = authUtil.getUserId(authentication);
         Journal journal = journalService.getJournalById(id, userId);
         return ResponseEntity.ok(journal);
     }
@@ -76,7 +97,7 @@ public class JournalController {
     public ResponseEntity<List<Journal>> getJournalsByDate(
             @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
             Authentication authentication) {
-        String userId = getUserId(authentication);
+        String userId = authUtil.getUserId(authentication);
         List<Journal> journals = journalService.getJournalsByDate(userId, date);
         return ResponseEntity.ok(journals);
     }
@@ -85,7 +106,7 @@ public class JournalController {
     public ResponseEntity<List<Journal>> searchJournals(
             @RequestParam String q,
             Authentication authentication) {
-        String userId = getUserId(authentication);
+        String userId = authUtil.getUserId(authentication);
         List<Journal> journals = journalService.searchJournals(userId, q);
         return ResponseEntity.ok(journals);
     }
@@ -94,7 +115,7 @@ public class JournalController {
     public ResponseEntity<List<Journal>> filterByMood(
             @PathVariable Mood mood,
             Authentication authentication) {
-        String userId = getUserId(authentication);
+        String userId = authUtil.getUserId(authentication);
         List<Journal> journals = journalService.filterByMood(userId, mood);
         return ResponseEntity.ok(journals);
     }
@@ -103,7 +124,7 @@ public class JournalController {
     public ResponseEntity<List<Journal>> filterByTag(
             @PathVariable String tag,
             Authentication authentication) {
-        String userId = getUserId(authentication);
+        String userId = authUtil.getUserId(authentication);
         List<Journal> journals = journalService.filterByTag(userId, tag);
         return ResponseEntity.ok(journals);
     }
@@ -112,7 +133,7 @@ public class JournalController {
     public ResponseEntity<List<Journal>> filterByContext(
             @PathVariable String context,
             Authentication authentication) {
-        String userId = getUserId(authentication);
+        String userId = authUtil.getUserId(authentication);
         List<Journal> journals = journalService.filterByContext(userId, context);
         return ResponseEntity.ok(journals);
     }
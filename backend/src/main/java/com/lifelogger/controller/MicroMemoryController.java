@@ -1,11 +1,15 @@
 package com.lifelogger.controller;
 
+import com.lifelogger.dto.CursorPage;
 import com.lifelogger.model.MicroMemory;
 import com.lifelogger.model.Mood;
 import com.lifelogger.service.MicroMemoryService;
 import com.lifelogger.util.AuthUtil;
+import com.lifelogger.util.Projection;
+import com.lifelogger.util.Projections;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -13,6 +17,7 @@ import org.springframework.web.bind.annotation.*;
 import java.util.List;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/memories")
 public class MicroMemoryController {
 
@@ -22,6 +27,9 @@ public class MicroMemoryController {
     @Autowired
     private AuthUtil authUtil;
 
+    @Autowired
+    private Projections projections;
+
     @PostMapping
     public ResponseEntity<MicroMemory> createMicroMemory(
             @Valid @RequestBody MicroMemory microMemory,
@@ -39,12 +47,35 @@ public class MicroMemoryController {
     }
 
     @GetMapping
-    public ResponseEntity<List<MicroMemory>> getAllMicroMemories(Authentication authentication) {
+    public ResponseEntity<List<?>> getAllMicroMemories(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view,
+            Authentication authentication) {
         String userId = authUtil.getUserId(authentication);
+        Projection projection = projections.of(MicroMemory.class, fields, view);
+        if (projection != null) {
+            return ResponseEntity.ok(microMemoryService.getAllMicroMemories(userId, projection));
+        }
         List<MicroMemory> memories = microMemoryService.getAllMicroMemories(userId);
         return ResponseEntity.ok(memories);
     }
 
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorPage<?>> getMicroMemoriesPage(
+            @RequestParam Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view,
+            Authentication authentication) {
+        String userId = authUtil.getUserId(authentication);
+        Projection projection = projections.of(MicroMemory.class, fields, view);
+        if (projection != null) {
+            return ResponseEntity.ok(microMemoryService.getMicroMemoriesPage(userId, limit, after, projection));
+        }
+        CursorPage<MicroMemory> page = microMemoryService.getMicroMemoriesPage(userId, limit, after);
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/filter/mood/{mood}")
     public ResponseEntity<List<MicroMemory>> filterByMood(
             @PathVariable Mood mood,
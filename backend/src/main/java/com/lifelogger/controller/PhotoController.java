@@ -1,11 +1,15 @@
 package com.lifelogger.controller;
 
 import com.lifelogger.model.Mood;
+import com.lifelogger.dto.CursorPage;
 import com.lifelogger.model.Photo;
 import com.lifelogger.service.PhotoService;
 import com.lifelogger.util.AuthUtil;
+import com.lifelogger.util.Projection;
+import com.lifelogger.util.Projections;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -15,6 +19,7 @@ import java.io.IOException;
 import java.util.List;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/photos")
 public class PhotoController {
 
@@ -24,6 +29,9 @@ public class PhotoController {
     @Autowired
     private AuthUtil authUtil;
 
+    @Autowired
+    private Projections projections;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -47,12 +55,35 @@ public class PhotoController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Photo>> getAllPhotos(Authentication authentication) {
+    public ResponseEntity<List<?>> getAllPhotos(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view,
+            Authentication authentication) {
         String userId = authUtil.getUserId(authentication);
+        Projection projection = projections.of(Photo.class, fields, view);
+        if (projection != null) {
+            return ResponseEntity.ok(photoService.getAllPhotos(userId, projection));
+        }
         List<Photo> photos = photoService.getAllPhotos(userId);
         return ResponseEntity.ok(photos);
     }
 
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorPage<?>> getPhotosPage(
+            @RequestParam Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view,
+            Authentication authentication) {
+        String userId = authUtil.getUserId(authentication);
+        Projection projection = projections.of(Photo.class, fields, view);
+        if (projection != null) {
+            return ResponseEntity.ok(photoService.getPhotosPage(userId, limit, after, projection));
+        }
+        CursorPage<Photo> page = photoService.getPhotosPage(userId, limit, after);
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Photo> getPhotoById(@PathVariable String id, Authentication authentication) {
         String userId = authUtil.getUserId(authentication);
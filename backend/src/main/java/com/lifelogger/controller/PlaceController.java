@@ -1,12 +1,19 @@
 package com.lifelogger.controller;
 
+import com.lifelogger.dto.CursorPage;
+import com.lifelogger.dto.NearbyPlace;
+import com.lifelogger.dto.PlaceCluster;
 import com.lifelogger.model.Place;
 import com.lifelogger.model.PlaceStatus;
 import com.lifelogger.model.PlaceType;
+import com.lifelogger.service.PlaceClusterService;
 import com.lifelogger.service.PlaceService;
 import com.lifelogger.util.AuthUtil;
+import com.lifelogger.util.Projection;
+import com.lifelogger.util.Projections;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -14,15 +21,22 @@ import org.springframework.web.bind.annotation.*;
 import java.util.List;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/places")
 public class PlaceController {
 
     @Autowired
     private PlaceService placeService;
 
+    @Autowired
+    private PlaceClusterService placeClusterService;
+
     @Autowired
     private AuthUtil authUtil;
 
+    @Autowired
+    private Projections projections;
+
     @PostMapping
     public ResponseEntity<Place> createPlace(@Valid @RequestBody Place place, Authentication authentication) {
         String userId = authUtil.getUserId(authentication);
@@ -48,12 +62,35 @@ public class PlaceController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Place>> getAllPlaces(Authentication authentication) {
+    public ResponseEntity<List<?>> getAllPlaces(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view,
+            Authentication authentication) {
         String userId = authUtil.getUserId(authentication);
+        Projection projection = projections.of(Place.class, fields, view);
+        if (projection != null) {
+            return ResponseEntity.ok(placeService.getAllPlaces(userId, projection));
+        }
         List<Place> places = placeService.getAllPlaces(userId);
         return ResponseEntity.ok(places);
     }
 
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorPage<?>> getPlacesPage(
+            @RequestParam Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view,
+            Authentication authentication) {
+        String userId = authUtil.getUserId(authentication);
+        Projection projection = projections.of(Place.class, fields, view);
+        if (projection != null) {
+            return ResponseEntity.ok(placeService.getPlacesPage(userId, limit, after, projection));
+        }
+        CursorPage<Place> page = placeService.getPlacesPage(userId, limit, after);
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Place> getPlaceById(@PathVariable String id, Authentication authentication) {
         String userId = authUtil.getUserId(authentication);
@@ -88,4 +125,52 @@ public class PlaceController {
         return ResponseEntity.ok(places);
     }
 
+    @GetMapping("/clusters")
+    public ResponseEntity<List<PlaceCluster>> getClusters(
+            @RequestParam double minLat,
+            @RequestParam double minLng,
+            @RequestParam double maxLat,
+            @RequestParam double maxLng,
+            @RequestParam int zoom,
+            Authentication authentication) {
+        String userId = authUtil.getUserId(authentication);
+        List<PlaceCluster> clusters = placeClusterService.getClusters(userId, minLat, minLng, maxLat, maxLng, zoom);
+        return ResponseEntity.ok(clusters);
+    }
+
+    @GetMapping("/near")
+    public ResponseEntity<List<NearbyPlace>> findNear(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "5000") double radius,
+            @RequestParam(required = false) Integer limit,
+            Authentication authentication) {
+        String userId = authUtil.getUserId(authentication);
+        List<NearbyPlace> places = placeService.findNear(userId, lat, lng, radius, limit);
+        return ResponseEntity.ok(places);
+    }
+
+    @GetMapping(value = "/within", params = { "minLat", "minLng", "maxLat", "maxLng" })
+    public ResponseEntity<List<Place>> findWithinBox(
+            @RequestParam double minLat,
+            @RequestParam double minLng,
+            @RequestParam double maxLat,
+            @RequestParam double maxLng,
+            @RequestParam(required = false) Integer limit,
+            Authentication authentication) {
+        String userId = authUtil.getUserId(authentication);
+        List<Place> places = placeService.findWithinBox(userId, minLat, minLng, maxLat, maxLng, limit);
+        return ResponseEntity.ok(places);
+    }
+
+    @GetMapping(value = "/within", params = "polygon")
+    public ResponseEntity<List<Place>> findWithinPolygon(
+            @RequestParam String polygon,
+            @RequestParam(required = false) Integer limit,
+            Authentication authentication) {
+        String userId = authUtil.getUserId(authentication);
+        List<Place> places = placeService.findWithinPolygon(userId, PlaceService.parseVertices(polygon), limit);
+        return ResponseEntity.ok(places);
+    }
+
 }
@@ -0,0 +1,37 @@
+package com.lifelogger.controller;
+
+import com.lifelogger.dto.TagUsage;
+import com.lifelogger.service.TagService;
+import com.lifelogger.util.AuthUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/tags")
+public class TagController {
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private AuthUtil authUtil;
+
+    @GetMapping
+    public ResponseEntity<List<TagUsage>> getTags(
+            @RequestParam(required = false) String prefix,
+            @RequestParam(required = false) Integer limit,
+            Authentication authentication) {
+        String userId = authUtil.getUserId(authentication);
+        List<TagUsage> tags = tagService.getTags(userId, prefix, limit);
+        return ResponseEntity.ok(tags);
+    }
+}
@@ -1,11 +1,15 @@
 package com.lifelogger.controller;
 
+import com.lifelogger.dto.CursorPage;
 import com.lifelogger.model.Taste;
 import com.lifelogger.model.TasteType;
 import com.lifelogger.service.TasteService;
 import com.lifelogger.util.AuthUtil;
+import com.lifelogger.util.Projection;
+import com.lifelogger.util.Projections;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -13,6 +17,7 @@ import org.springframework.web.bind.annotation.*;
 import java.util.List;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/api/tastes")
 public class TasteController {
 
@@ -22,6 +27,9 @@ public class TasteController {
     @Autowired
     private AuthUtil authUtil;
 
+    @Autowired
+    private Projections projections;
+
     @PostMapping
     public ResponseEntity<Taste> createTaste(@Valid @RequestBody Taste taste, Authentication authentication) {
         String userId = authUtil.getUserId(authentication);
@@ -47,12 +55,35 @@ public class TasteController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Taste>> getAllTastes(Authentication authentication) {
+    public ResponseEntity<List<?>> getAllTastes(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view,
+            Authentication authentication) {
         String userId = authUtil.getUserId(authentication);
+        Projection projection = projections.of(Taste.class, fields, view);
+        if (projection != null) {
+            return ResponseEntity.ok(tasteService.getAllTastes(userId, projection));
+        }
         List<Taste> tastes = tasteService.getAllTastes(userId);
         return ResponseEntity.ok(tastes);
     }
 
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorPage<?>> getTastesPage(
+            @RequestParam Integer limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String view,
+            Authentication authentication) {
+        String userId = authUtil.getUserId(authentication);
+        Projection projection = projections.of(Taste.class, fields, view);
+        if (projection != null) {
+            return ResponseEntity.ok(tasteService.getTastesPage(userId, limit, after, projection));
+        }
+        CursorPage<Taste> page = tasteService.getTastesPage(userId, limit, after);
+        return ResponseEntity.ok(page);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Taste> getTasteById(@PathVariable String id, Authentication authentication) {
         String userId = authUtil.getUserId(authentication);
@@ -0,0 +1,41 @@
+package com.lifelogger.controller;
+
+import com.lifelogger.dto.CursorPage;
+import com.lifelogger.dto.TimelineItem;
+import com.lifelogger.service.TimelineService;
+import com.lifelogger.util.AuthUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/api/timeline")
+public class TimelineController {
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private AuthUtil authUtil;
+
+    @GetMapping
+    public ResponseEntity<CursorPage<TimelineItem>> getTimeline(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String after,
+            Authentication authentication) {
+        String userId = authUtil.getUserId(authentication);
+        CursorPage<TimelineItem> page = timelineService.getTimeline(userId, from, to, limit, after);
+        return ResponseEntity.ok(page);
+    }
+}
@@ -0,0 +1,41 @@
+package com.lifelogger.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResult {
+
+    private int received;
+    private int inserted;
+    private int failed;
+    private List<RecordResult> results = new ArrayList<>();
+
+    public void addInserted(int line, String id) {
+        received++;
+        inserted++;
+        results.add(new RecordResult(line, id, null));
+    }
+
+    public void addFailed(int line, String error) {
+        received++;
+        failed++;
+        results.add(new RecordResult(line, null, error));
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RecordResult {
+
+        private int line;
+        private String id;
+        private String error;
+    }
+}
@@ -0,0 +1,23 @@
+package com.lifelogger.dto;
+
+import com.lifelogger.model.Mood;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Mood counts for one day, or for the period (week, month, year) starting on
+ * {@code date}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MoodPoint {
+
+    private LocalDate date;
+    private Map<Mood, Integer> counts;
+    private int total;
+}
@@ -0,0 +1,16 @@
+package com.lifelogger.dto;
+
+import com.lifelogger.model.Place;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyPlace {
+
+    private Place place;
+    // Metres from the query point
+    private double distance;
+}
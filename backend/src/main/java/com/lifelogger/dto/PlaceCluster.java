@@ -0,0 +1,23 @@
+package com.lifelogger.dto;
+
+import com.lifelogger.model.PlaceStatus;
+import com.lifelogger.model.PlaceType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlaceCluster {
+
+    // Centroid of the places in the cluster
+    private double latitude;
+    private double longitude;
+    private int count;
+    // Most common type and status among the places, null if none of them has one
+    private PlaceType type;
+    private PlaceStatus status;
+    // Set when the cluster is a single place
+    private String placeId;
+}
@@ -0,0 +1,17 @@
+package com.lifelogger.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TagUsage {
+
+    private String tag;
+    private int total;
+    private Map<String, Integer> counts;
+}
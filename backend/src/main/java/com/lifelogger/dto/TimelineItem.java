@@ -0,0 +1,22 @@
+package com.lifelogger.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the merged timeline: the entity itself, its kind
+ * ({@code journal}, {@code memory}, {@code taste}, {@code place} or
+ * {@code photo}) and the moment it is ordered by.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimelineItem {
+
+    private String type;
+    private LocalDateTime at;
+    private Object item;
+}
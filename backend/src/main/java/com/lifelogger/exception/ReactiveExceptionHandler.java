@@ -0,0 +1,58 @@
+package com.lifelogger.exception;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebExceptionHandler;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Method;
+
+/**
+ * Answers errors from the functional routes with the status and body that
+ * {@link GlobalExceptionHandler} gives the MVC controllers, by calling the
+ * same handler method. Ordered ahead of Boot's default error handler.
+ */
+@Component
+@Order(-2)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveExceptionHandler implements WebExceptionHandler {
+
+    private final ExceptionHandlerMethodResolver resolver =
+            new ExceptionHandlerMethodResolver(GlobalExceptionHandler.class);
+
+    @Autowired
+    private GlobalExceptionHandler globalExceptionHandler;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public Mono<Void> handle(ServerWebExchange exchange, Throwable ex) {
+        ServerHttpResponse response = exchange.getResponse();
+        Method method = resolver.resolveMethodByThrowable(ex);
+        if (response.isCommitted() || method == null) {
+            return Mono.error(ex);
+        }
+
+        ResponseEntity<?> entity = (ResponseEntity<?>) ReflectionUtils.invokeMethod(method, globalExceptionHandler, ex);
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(entity.getBody());
+        } catch (JsonProcessingException e) {
+            return Mono.error(ex);
+        }
+        response.setStatusCode(entity.getStatusCode());
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+}
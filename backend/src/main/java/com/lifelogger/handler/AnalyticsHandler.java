@@ -0,0 +1,39 @@
+package com.lifelogger.handler;
+
+import com.lifelogger.service.MoodAnalyticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class AnalyticsHandler {
+
+    @Autowired
+    private MoodAnalyticsService moodAnalyticsService;
+
+    @Autowired
+    private HandlerSupport support;
+
+    public Mono<ServerResponse> getDailyMoods(ServerRequest request) {
+        LocalDate from = support.param(request, "from", LocalDate::parse, null);
+        LocalDate to = support.param(request, "to", LocalDate::parse, null);
+        String type = request.queryParam("type").orElse(null);
+        return support.ok(support.userId(request).flatMap(userId -> support.blocking(
+                () -> moodAnalyticsService.getDailyMoods(userId, from, to, type))));
+    }
+
+    public Mono<ServerResponse> getMoodDistribution(ServerRequest request) {
+        String period = request.queryParam("period").orElse("month");
+        LocalDate from = support.param(request, "from", LocalDate::parse, null);
+        LocalDate to = support.param(request, "to", LocalDate::parse, null);
+        String type = request.queryParam("type").orElse(null);
+        return support.ok(support.userId(request).flatMap(userId -> support.blocking(
+                () -> moodAnalyticsService.getMoodDistribution(userId, period, from, to, type))));
+    }
+}
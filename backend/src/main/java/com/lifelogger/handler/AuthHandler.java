@@ -0,0 +1,33 @@
+package com.lifelogger.handler;
+
+import com.lifelogger.dto.LoginRequest;
+import com.lifelogger.dto.RegisterRequest;
+import com.lifelogger.service.AuthService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class AuthHandler {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private HandlerSupport support;
+
+    // BCrypt is deliberately slow, so both run off the event loop
+    public Mono<ServerResponse> register(ServerRequest request) {
+        return support.ok(support.validBody(request, RegisterRequest.class)
+                .flatMap(body -> support.blocking(() -> authService.register(body))));
+    }
+
+    public Mono<ServerResponse> login(ServerRequest request) {
+        return support.ok(support.validBody(request, LoginRequest.class)
+                .flatMap(body -> support.blocking(() -> authService.login(body))));
+    }
+}
@@ -0,0 +1,154 @@
+package com.lifelogger.handler;
+
+import com.lifelogger.service.CollectionVersionService;
+import com.lifelogger.util.AuthUtil;
+import com.lifelogger.util.PageLimits;
+import com.lifelogger.util.Projection;
+import com.lifelogger.util.Projections;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BindException;
+import org.springframework.validation.FieldError;
+import org.springframework.web.reactive.function.server.HandlerFilterFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+/**
+ * Plumbing shared by the reactive handlers: the caller's user id, request
+ * parameters, validated bodies, and moving blocking service calls off the
+ * event loop.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class HandlerSupport {
+
+    @Autowired
+    private AuthUtil authUtil;
+
+    @Autowired
+    private PageLimits pageLimits;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private Projections projections;
+
+    @Autowired
+    private CollectionVersionService collectionVersionService;
+
+    public Mono<String> userId(ServerRequest request) {
+        return request.principal().cast(Authentication.class).map(authUtil::getUserId);
+    }
+
+    public Limit listCap() {
+        return pageLimits.listCap();
+    }
+
+    /**
+     * Runs a call into the blocking service layer on the bounded elastic
+     * scheduler, so it never holds an event loop thread.
+     */
+    public <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<Void> blockingVoid(Runnable call) {
+        return Mono.<Void>fromRunnable(call).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public <T> Mono<T> validBody(ServerRequest request, Class<T> type) {
+        return request.bodyToMono(type)
+                .switchIfEmpty(Mono.error(() -> new ServerWebInputException("Request body is missing")))
+                .flatMap(body -> {
+                    Set<ConstraintViolation<T>> violations = validator.validate(body);
+                    if (violations.isEmpty()) {
+                        return Mono.just(body);
+                    }
+                    BindException errors = new BindException(body, type.getSimpleName());
+                    for (ConstraintViolation<T> violation : violations) {
+                        errors.addError(new FieldError(type.getSimpleName(), violation.getPropertyPath().toString(),
+                                violation.getMessage()));
+                    }
+                    return Mono.error(errors);
+                });
+    }
+
+    public String requiredParam(ServerRequest request, String name) {
+        return request.queryParam(name)
+                .orElseThrow(() -> new ServerWebInputException("Required parameter '" + name + "' is missing"));
+    }
+
+    public <T> T param(ServerRequest request, String name, Function<String, T> parser, T defaultValue) {
+        return request.queryParam(name).map(parser).orElse(defaultValue);
+    }
+
+    public Integer limit(ServerRequest request) {
+        return param(request, "limit", Integer::valueOf, null);
+    }
+
+    /**
+     * The projection asked for with {@code fields} and {@code view}, or
+     * {@code null} for whole documents.
+     */
+    public Projection projection(ServerRequest request, Class<?> type) {
+        return projections.of(type, request.queryParam("fields").orElse(null),
+                request.queryParam("view").orElse(null));
+    }
+
+    /**
+     * Tags GET responses with a weak ETag built from the caller's versions of
+     * {@code types}, and answers a matching {@code If-None-Match} with
+     * {@code 304 Not Modified} without calling the handler.
+     */
+    public HandlerFilterFunction<ServerResponse, ServerResponse> versioned(String... types) {
+        return (request, next) -> {
+            if (!HttpMethod.GET.equals(request.method())) {
+                return next.handle(request);
+            }
+            // checkNotModified also sets the ETag header of the response the handler writes
+            return userId(request)
+                    .flatMap(userId -> blocking(() -> collectionVersionService.etag(userId, types)))
+                    .filter(etag -> request.exchange().checkNotModified(etag))
+                    .flatMap(etag -> ServerResponse.status(HttpStatus.NOT_MODIFIED).build())
+                    .switchIfEmpty(Mono.defer(() -> next.handle(request)));
+        };
+    }
+
+    public Mono<ServerResponse> ok(Mono<?> body) {
+        return body.flatMap(value -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(value));
+    }
+
+    /**
+     * Streams the results as a JSON array, or as NDJSON when the client asks for
+     * it, writing each document as the driver delivers it. Demand from the
+     * connection flows back to the Mongo cursor, so slow clients are not
+     * buffered in memory.
+     */
+    public <T> Mono<ServerResponse> stream(ServerRequest request, Flux<T> items, Class<T> type) {
+        MediaType mediaType = request.headers().accept().contains(MediaType.APPLICATION_NDJSON)
+                ? MediaType.APPLICATION_NDJSON
+                : MediaType.APPLICATION_JSON;
+        return ServerResponse.ok().contentType(mediaType).body(items, type);
+    }
+
+    public Mono<ServerResponse> noContent(Mono<Void> done) {
+        return done.then(ServerResponse.noContent().build());
+    }
+}
@@ -0,0 +1,117 @@
+package com.lifelogger.handler;
+
+import com.lifelogger.exception.ResourceNotFoundException;
+import com.lifelogger.model.Journal;
+import com.lifelogger.model.Mood;
+import com.lifelogger.repository.ReactiveJournalRepository;
+import com.lifelogger.service.JournalService;
+import com.lifelogger.util.Projection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class JournalHandler {
+
+    @Autowired
+    private ReactiveJournalRepository journalRepository;
+
+    @Autowired
+    private JournalService journalService;
+
+    @Autowired
+    private HandlerSupport support;
+
+    public Mono<ServerResponse> createJournal(ServerRequest request) {
+        return support.ok(support.userId(request).zipWith(support.validBody(request, Journal.class))
+                .flatMap(args -> support.blocking(() -> journalService.createJournal(args.getT2(), args.getT1()))));
+    }
+
+    public Mono<ServerResponse> updateJournal(ServerRequest request) {
+        String id = request.pathVariable("id");
+        return support.ok(support.userId(request).zipWith(support.validBody(request, Journal.class))
+                .flatMap(args -> support.blocking(() -> journalService.updateJournal(id, args.getT2(), args.getT1()))));
+    }
+
+    public Mono<ServerResponse> deleteJournal(ServerRequest request) {
+        String id = request.pathVariable("id");
+        return support.noContent(support.userId(request)
+                .flatMap(userId -> support.blockingVoid(() -> journalService.softDeleteJournal(id, userId))));
+    }
+
+    public Mono<ServerResponse> getAllJournals(ServerRequest request) {
+        Projection projection = support.projection(request, Journal.class);
+        if (projection != null) {
+            return support.ok(support.userId(request)
+                    .flatMap(userId -> support.blocking(() -> journalService.getAllJournals(userId, projection))));
+        }
+        return support.userId(request).flatMap(userId -> support.stream(request,
+                journalRepository.findByUserIdAndIsDeletedFalseOrderByDateDescTimeDesc(userId, support.listCap()),
+                Journal.class));
+    }
+
+    public Mono<ServerResponse> getJournalsPage(ServerRequest request) {
+        Integer limit = support.limit(request);
+        String after = request.queryParam("after").orElse(null);
+        Projection projection = support.projection(request, Journal.class);
+        if (projection != null) {
+            return support.ok(support.userId(request)
+                    .flatMap(userId -> support.blocking(
+                            () -> journalService.getJournalsPage(userId, limit, after, projection))));
+        }
+        return support.ok(support.userId(request)
+                .flatMap(userId -> support.blocking(() -> journalService.getJournalsPage(userId, limit, after))));
+    }
+
+    public Mono<ServerResponse> getJournalById(ServerRequest request) {
+        String id = request.pathVariable("id");
+        return support.ok(support.userId(request).flatMap(userId -> journalRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Journal", "id", id)))
+                .flatMap(journal -> {
+                    if (!journal.getUserId().equals(userId)) {
+                        return Mono.error(new IllegalArgumentException(
+                                "You don't have permission to view this journal"));
+                    }
+                    if (journal.isDeleted()) {
+                        return Mono.error(new ResourceNotFoundException("Journal", "id", id));
+                    }
+                    return Mono.just(journal);
+                })));
+    }
+
+    public Mono<ServerResponse> getJournalsByDate(ServerRequest request) {
+        LocalDate date = LocalDate.parse(request.pathVariable("date"));
+        return support.userId(request).flatMap(userId -> support.stream(request,
+                journalRepository.findByUserIdAndDateAndIsDeletedFalse(userId, date), Journal.class));
+    }
+
+    public Mono<ServerResponse> searchJournals(ServerRequest request) {
+        String q = support.requiredParam(request, "q");
+        return support.ok(support.userId(request)
+                .flatMap(userId -> support.blocking(() -> journalService.searchJournals(userId, q))));
+    }
+
+    public Mono<ServerResponse> filterByMood(ServerRequest request) {
+        Mood mood = Mood.valueOf(request.pathVariable("mood"));
+        return support.userId(request).flatMap(userId -> support.stream(request,
+                journalRepository.findByUserIdAndMoodAndIsDeletedFalse(userId, mood), Journal.class));
+    }
+
+    public Mono<ServerResponse> filterByTag(ServerRequest request) {
+        String tag = request.pathVariable("tag");
+        return support.userId(request).flatMap(userId -> support.stream(request,
+                journalRepository.findByUserIdAndTagsContainingAndIsDeletedFalse(userId, tag), Journal.class));
+    }
+
+    public Mono<ServerResponse> filterByContext(ServerRequest request) {
+        String context = request.pathVariable("context");
+        return support.userId(request).flatMap(userId -> support.stream(request,
+                journalRepository.findByUserIdAndContextAndIsDeletedFalse(userId, context), Journal.class));
+    }
+}
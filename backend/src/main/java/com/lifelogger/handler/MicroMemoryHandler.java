@@ -0,0 +1,78 @@
+package com.lifelogger.handler;
+
+import com.lifelogger.model.MicroMemory;
+import com.lifelogger.model.Mood;
+import com.lifelogger.repository.ReactiveMicroMemoryRepository;
+import com.lifelogger.service.MicroMemoryService;
+import com.lifelogger.util.Projection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class MicroMemoryHandler {
+
+    @Autowired
+    private ReactiveMicroMemoryRepository microMemoryRepository;
+
+    @Autowired
+    private MicroMemoryService microMemoryService;
+
+    @Autowired
+    private HandlerSupport support;
+
+    public Mono<ServerResponse> createMicroMemory(ServerRequest request) {
+        return support.ok(support.userId(request).zipWith(support.validBody(request, MicroMemory.class))
+                .flatMap(args -> support.blocking(
+                        () -> microMemoryService.createMicroMemory(args.getT2(), args.getT1()))));
+    }
+
+    public Mono<ServerResponse> deleteMicroMemory(ServerRequest request) {
+        String id = request.pathVariable("id");
+        return support.noContent(support.userId(request)
+                .flatMap(userId -> support.blockingVoid(() -> microMemoryService.deleteMicroMemory(id, userId))));
+    }
+
+    public Mono<ServerResponse> getAllMicroMemories(ServerRequest request) {
+        Projection projection = support.projection(request, MicroMemory.class);
+        if (projection != null) {
+            return support.ok(support.userId(request)
+                    .flatMap(userId -> support.blocking(
+                            () -> microMemoryService.getAllMicroMemories(userId, projection))));
+        }
+        return support.userId(request).flatMap(userId -> support.stream(request,
+                microMemoryRepository.findByUserIdOrderByTimestampDesc(userId, support.listCap()),
+                MicroMemory.class));
+    }
+
+    public Mono<ServerResponse> getMicroMemoriesPage(ServerRequest request) {
+        Integer limit = support.limit(request);
+        String after = request.queryParam("after").orElse(null);
+        Projection projection = support.projection(request, MicroMemory.class);
+        if (projection != null) {
+            return support.ok(support.userId(request)
+                    .flatMap(userId -> support.blocking(
+                            () -> microMemoryService.getMicroMemoriesPage(userId, limit, after, projection))));
+        }
+        return support.ok(support.userId(request)
+                .flatMap(userId -> support.blocking(
+                        () -> microMemoryService.getMicroMemoriesPage(userId, limit, after))));
+    }
+
+    public Mono<ServerResponse> filterByMood(ServerRequest request) {
+        Mood mood = Mood.valueOf(request.pathVariable("mood"));
+        return support.userId(request).flatMap(userId -> support.stream(request,
+                microMemoryRepository.findByUserIdAndMoodOrderByTimestampDesc(userId, mood), MicroMemory.class));
+    }
+
+    public Mono<ServerResponse> filterByTag(ServerRequest request) {
+        String tag = request.pathVariable("tag");
+        return support.userId(request).flatMap(userId -> support.stream(request,
+                microMemoryRepository.findByUserIdAndTagsContainingOrderByTimestampDesc(userId, tag),
+                MicroMemory.class));
+    }
+}
@@ -0,0 +1,126 @@
+package com.lifelogger.handler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lifelogger.exception.ResourceNotFoundException;
+import com.lifelogger.model.Mood;
+import com.lifelogger.model.Photo;
+import com.lifelogger.repository.ReactivePhotoRepository;
+import com.lifelogger.service.PhotoService;
+import com.lifelogger.util.Projection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.http.codec.multipart.FormFieldPart;
+import org.springframework.http.codec.multipart.Part;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class PhotoHandler {
+
+    @Autowired
+    private ReactivePhotoRepository photoRepository;
+
+    @Autowired
+    private PhotoService photoService;
+
+    @Autowired
+    private HandlerSupport support;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public Mono<ServerResponse> uploadPhoto(ServerRequest request) {
+        return support.ok(support.userId(request).zipWith(request.multipartData()).flatMap(args -> {
+            Part file = args.getT2().getFirst("file");
+            Part metadata = args.getT2().getFirst("metadata");
+            if (!(file instanceof FilePart filePart) || !(metadata instanceof FormFieldPart metadataPart)) {
+                return Mono.error(new ServerWebInputException("Parts 'file' and 'metadata' are required"));
+            }
+            // Spooled to disk without blocking, then hashed and stored by the blocking service
+            return support.blocking(() -> Files.createTempFile("photo-upload-", ".tmp"))
+                    .flatMap(spooled -> filePart.transferTo(spooled)
+                            .then(support.blocking(() -> {
+                                Photo photo = objectMapper.readValue(metadataPart.value(), Photo.class);
+                                try (InputStream content = Files.newInputStream(spooled)) {
+                                    return photoService.uploadPhoto(content, filePart.filename(), photo, args.getT1());
+                                }
+                            }))
+                            .doFinally(signal -> deleteQuietly(spooled)));
+        }));
+    }
+
+    public Mono<ServerResponse> deletePhoto(ServerRequest request) {
+        String id = request.pathVariable("id");
+        return support.noContent(support.userId(request)
+                .flatMap(userId -> support.blockingVoid(() -> {
+                    try {
+                        photoService.deletePhoto(id, userId);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })));
+    }
+
+    public Mono<ServerResponse> getAllPhotos(ServerRequest request) {
+        Projection projection = support.projection(request, Photo.class);
+        if (projection != null) {
+            return support.ok(support.userId(request)
+                    .flatMap(userId -> support.blocking(() -> photoService.getAllPhotos(userId, projection))));
+        }
+        return support.userId(request).flatMap(userId -> support.stream(request,
+                photoRepository.findByUserIdOrderByDateUploadedDesc(userId, support.listCap()), Photo.class));
+    }
+
+    public Mono<ServerResponse> getPhotosPage(ServerRequest request) {
+        Integer limit = support.limit(request);
+        String after = request.queryParam("after").orElse(null);
+        Projection projection = support.projection(request, Photo.class);
+        if (projection != null) {
+            return support.ok(support.userId(request)
+                    .flatMap(userId -> support.blocking(
+                            () -> photoService.getPhotosPage(userId, limit, after, projection))));
+        }
+        return support.ok(support.userId(request)
+                .flatMap(userId -> support.blocking(() -> photoService.getPhotosPage(userId, limit, after))));
+    }
+
+    public Mono<ServerResponse> getPhotoById(ServerRequest request) {
+        String id = request.pathVariable("id");
+        return support.ok(support.userId(request).flatMap(userId -> photoRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Photo", "id", id)))
+                .flatMap(photo -> photo.getUserId().equals(userId)
+                        ? Mono.just(photo)
+                        : Mono.error(new IllegalArgumentException("You don't have permission to view this photo")))));
+    }
+
+    public Mono<ServerResponse> filterByMood(ServerRequest request) {
+        Mood mood = Mood.valueOf(request.pathVariable("mood"));
+        return support.userId(request).flatMap(userId -> support.stream(request,
+                photoRepository.findByUserIdAndMoodOrderByDateUploadedDesc(userId, mood), Photo.class));
+    }
+
+    public Mono<ServerResponse> filterByTag(ServerRequest request) {
+        String tag = request.pathVariable("tag");
+        return support.userId(request).flatMap(userId -> support.stream(request,
+                photoRepository.findByUserIdAndTagsContainingOrderByDateUploadedDesc(userId, tag), Photo.class));
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Left in the temp directory
+        }
+    }
+}
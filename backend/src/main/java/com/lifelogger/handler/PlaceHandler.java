@@ -0,0 +1,134 @@
+package com.lifelogger.handler;
+
+import com.lifelogger.exception.ResourceNotFoundException;
+import com.lifelogger.model.Place;
+import com.lifelogger.model.PlaceStatus;
+import com.lifelogger.model.PlaceType;
+import com.lifelogger.repository.ReactivePlaceRepository;
+import com.lifelogger.service.PlaceClusterService;
+import com.lifelogger.service.PlaceService;
+import com.lifelogger.util.Projection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class PlaceHandler {
+
+    @Autowired
+    private ReactivePlaceRepository placeRepository;
+
+    @Autowired
+    private PlaceService placeService;
+
+    @Autowired
+    private PlaceClusterService placeClusterService;
+
+    @Autowired
+    private HandlerSupport support;
+
+    public Mono<ServerResponse> createPlace(ServerRequest request) {
+        return support.ok(support.userId(request).zipWith(support.validBody(request, Place.class))
+                .flatMap(args -> support.blocking(() -> placeService.createPlace(args.getT2(), args.getT1()))));
+    }
+
+    public Mono<ServerResponse> updatePlace(ServerRequest request) {
+        String id = request.pathVariable("id");
+        return support.ok(support.userId(request).zipWith(support.validBody(request, Place.class))
+                .flatMap(args -> support.blocking(() -> placeService.updatePlace(id, args.getT2(), args.getT1()))));
+    }
+
+    public Mono<ServerResponse> deletePlace(ServerRequest request) {
+        String id = request.pathVariable("id");
+        return support.noContent(support.userId(request)
+                .flatMap(userId -> support.blockingVoid(() -> placeService.deletePlace(id, userId))));
+    }
+
+    public Mono<ServerResponse> getAllPlaces(ServerRequest request) {
+        Projection projection = support.projection(request, Place.class);
+        if (projection != null) {
+            return support.ok(support.userId(request)
+                    .flatMap(userId -> support.blocking(() -> placeService.getAllPlaces(userId, projection))));
+        }
+        return support.userId(request).flatMap(userId -> support.stream(request,
+                placeRepository.findByUserIdOrderByDateVisitedDesc(userId, support.listCap()), Place.class));
+    }
+
+    public Mono<ServerResponse> getPlacesPage(ServerRequest request) {
+        Integer limit = support.limit(request);
+        String after = request.queryParam("after").orElse(null);
+        Projection projection = support.projection(request, Place.class);
+        if (projection != null) {
+            return support.ok(support.userId(request)
+                    .flatMap(userId -> support.blocking(
+                            () -> placeService.getPlacesPage(userId, limit, after, projection))));
+        }
+        return support.ok(support.userId(request)
+                .flatMap(userId -> support.blocking(() -> placeService.getPlacesPage(userId, limit, after))));
+    }
+
+    public Mono<ServerResponse> getPlaceById(ServerRequest request) {
+        String id = request.pathVariable("id");
+        return support.ok(support.userId(request).flatMap(userId -> placeRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Place", "id", id)))
+                .flatMap(place -> place.getUserId().equals(userId)
+                        ? Mono.just(place)
+                        : Mono.error(new IllegalArgumentException("You don't have permission to view this place")))));
+    }
+
+    public Mono<ServerResponse> filterByStatus(ServerRequest request) {
+        PlaceStatus status = PlaceStatus.valueOf(request.pathVariable("status"));
+        return support.userId(request).flatMap(userId -> support.stream(request,
+                placeRepository.findByUserIdAndStatus(userId, status), Place.class));
+    }
+
+    public Mono<ServerResponse> filterByType(ServerRequest request) {
+        PlaceType type = PlaceType.valueOf(request.pathVariable("type"));
+        return support.userId(request).flatMap(userId -> support.stream(request,
+                placeRepository.findByUserIdAndType(userId, type), Place.class));
+    }
+
+    public Mono<ServerResponse> filterByTag(ServerRequest request) {
+        String tag = request.pathVariable("tag");
+        return support.userId(request).flatMap(userId -> support.stream(request,
+                placeRepository.findByUserIdAndTagsContaining(userId, tag), Place.class));
+    }
+
+    public Mono<ServerResponse> getClusters(ServerRequest request) {
+        double minLat = Double.parseDouble(support.requiredParam(request, "minLat"));
+        double minLng = Double.parseDouble(support.requiredParam(request, "minLng"));
+        double maxLat = Double.parseDouble(support.requiredParam(request, "maxLat"));
+        double maxLng = Double.parseDouble(support.requiredParam(request, "maxLng"));
+        int zoom = Integer.parseInt(support.requiredParam(request, "zoom"));
+        return support.ok(support.userId(request).flatMap(userId -> support.blocking(
+                () -> placeClusterService.getClusters(userId, minLat, minLng, maxLat, maxLng, zoom))));
+    }
+
+    public Mono<ServerResponse> findNear(ServerRequest request) {
+        double lat = Double.parseDouble(support.requiredParam(request, "lat"));
+        double lng = Double.parseDouble(support.requiredParam(request, "lng"));
+        double radius = support.param(request, "radius", Double::valueOf, 5000.0);
+        Integer limit = support.limit(request);
+        return support.ok(support.userId(request).flatMap(userId -> support.blocking(
+                () -> placeService.findNear(userId, lat, lng, radius, limit))));
+    }
+
+    public Mono<ServerResponse> findWithin(ServerRequest request) {
+        Integer limit = support.limit(request);
+        if (request.queryParam("polygon").isPresent()) {
+            String polygon = request.queryParam("polygon").get();
+            return support.ok(support.userId(request).flatMap(userId -> support.blocking(
+                    () -> placeService.findWithinPolygon(userId, PlaceService.parseVertices(polygon), limit))));
+        }
+        double minLat = Double.parseDouble(support.requiredParam(request, "minLat"));
+        double minLng = Double.parseDouble(support.requiredParam(request, "minLng"));
+        double maxLat = Double.parseDouble(support.requiredParam(request, "maxLat"));
+        double maxLng = Double.parseDouble(support.requiredParam(request, "maxLng"));
+        return support.ok(support.userId(request).flatMap(userId -> support.blocking(
+                () -> placeService.findWithinBox(userId, minLat, minLng, maxLat, maxLng, limit))));
+    }
+}
@@ -0,0 +1,27 @@
+package com.lifelogger.handler;
+
+import com.lifelogger.service.TagService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class TagHandler {
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private HandlerSupport support;
+
+    public Mono<ServerResponse> getTags(ServerRequest request) {
+        String prefix = request.queryParam("prefix").orElse(null);
+        Integer limit = support.limit(request);
+        return support.ok(support.userId(request).flatMap(userId -> support.blocking(
+                () -> tagService.getTags(userId, prefix, limit))));
+    }
+}
@@ -0,0 +1,100 @@
+package com.lifelogger.handler;
+
+import com.lifelogger.exception.ResourceNotFoundException;
+import com.lifelogger.model.Taste;
+import com.lifelogger.model.TasteType;
+import com.lifelogger.repository.ReactiveTasteRepository;
+import com.lifelogger.service.TasteService;
+import com.lifelogger.util.Projection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class TasteHandler {
+
+    @Autowired
+    private ReactiveTasteRepository tasteRepository;
+
+    @Autowired
+    private TasteService tasteService;
+
+    @Autowired
+    private HandlerSupport support;
+
+    public Mono<ServerResponse> createTaste(ServerRequest request) {
+        return support.ok(support.userId(request).zipWith(support.validBody(request, Taste.class))
+                .flatMap(args -> support.blocking(() -> tasteService.createTaste(args.getT2(), args.getT1()))));
+    }
+
+    public Mono<ServerResponse> updateTaste(ServerRequest request) {
+        String id = request.pathVariable("id");
+        return support.ok(support.userId(request).zipWith(support.validBody(request, Taste.class))
+                .flatMap(args -> support.blocking(() -> tasteService.updateTaste(id, args.getT2(), args.getT1()))));
+    }
+
+    public Mono<ServerResponse> deleteTaste(ServerRequest request) {
+        String id = request.pathVariable("id");
+        return support.noContent(support.userId(request)
+                .flatMap(userId -> support.blockingVoid(() -> tasteService.deleteTaste(id, userId))));
+    }
+
+    public Mono<ServerResponse> getAllTastes(ServerRequest request) {
+        Projection projection = support.projection(request, Taste.class);
+        if (projection != null) {
+            return support.ok(support.userId(request)
+                    .flatMap(userId -> support.blocking(() -> tasteService.getAllTastes(userId, projection))));
+        }
+        return support.userId(request).flatMap(userId -> support.stream(request,
+                tasteRepository.findByUserIdOrderByDateConsumedDesc(userId, support.listCap()), Taste.class));
+    }
+
+    public Mono<ServerResponse> getTastesPage(ServerRequest request) {
+        Integer limit = support.limit(request);
+        String after = request.queryParam("after").orElse(null);
+        Projection projection = support.projection(request, Taste.class);
+        if (projection != null) {
+            return support.ok(support.userId(request)
+                    .flatMap(userId -> support.blocking(
+                            () -> tasteService.getTastesPage(userId, limit, after, projection))));
+        }
+        return support.ok(support.userId(request)
+                .flatMap(userId -> support.blocking(() -> tasteService.getTastesPage(userId, limit, after))));
+    }
+
+    public Mono<ServerResponse> getTasteById(ServerRequest request) {
+        String id = request.pathVariable("id");
+        return support.ok(support.userId(request).flatMap(userId -> tasteRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Taste", "id", id)))
+                .flatMap(taste -> taste.getUserId().equals(userId)
+                        ? Mono.just(taste)
+                        : Mono.error(new IllegalArgumentException("You don't have permission to view this item")))));
+    }
+
+    public Mono<ServerResponse> filterByType(ServerRequest request) {
+        TasteType type = TasteType.valueOf(request.pathVariable("type"));
+        return support.userId(request).flatMap(userId -> support.stream(request,
+                tasteRepository.findByUserIdAndTypeOrderByDateConsumedDesc(userId, type), Taste.class));
+    }
+
+    public Mono<ServerResponse> sortByRating(ServerRequest request) {
+        return support.userId(request).flatMap(userId -> support.stream(request,
+                tasteRepository.findByUserIdOrderByRatingDesc(userId), Taste.class));
+    }
+
+    public Mono<ServerResponse> searchTastes(ServerRequest request) {
+        String q = support.requiredParam(request, "q");
+        return support.userId(request).flatMap(userId -> support.stream(request,
+                tasteRepository.searchByTitleOrNote(userId, q), Taste.class));
+    }
+
+    public Mono<ServerResponse> filterByTag(ServerRequest request) {
+        String tag = request.pathVariable("tag");
+        return support.userId(request).flatMap(userId -> support.stream(request,
+                tasteRepository.findByUserIdAndTagsContaining(userId, tag), Taste.class));
+    }
+}
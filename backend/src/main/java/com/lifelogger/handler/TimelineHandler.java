@@ -0,0 +1,31 @@
+package com.lifelogger.handler;
+
+import com.lifelogger.service.TimelineService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class TimelineHandler {
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private HandlerSupport support;
+
+    public Mono<ServerResponse> getTimeline(ServerRequest request) {
+        LocalDate from = support.param(request, "from", LocalDate::parse, null);
+        LocalDate to = support.param(request, "to", LocalDate::parse, null);
+        Integer limit = support.limit(request);
+        String after = request.queryParam("after").orElse(null);
+        return support.ok(support.userId(request).flatMap(userId -> support.blocking(
+                () -> timelineService.getTimeline(userId, from, to, limit, after))));
+    }
+}
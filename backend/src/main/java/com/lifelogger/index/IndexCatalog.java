@@ -0,0 +1,63 @@
+package com.lifelogger.index;
+
+import com.lifelogger.model.Journal;
+import com.lifelogger.model.MicroMemory;
+import com.lifelogger.model.MoodRollup;
+import com.lifelogger.model.Photo;
+import com.lifelogger.model.Place;
+import com.lifelogger.model.TagCount;
+import com.lifelogger.model.Taste;
+import com.lifelogger.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.util.TypeInformation;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The set of indexes the application expects, as declared by the
+ * {@code @Indexed}/{@code @CompoundIndex} annotations on the models, grouped by
+ * collection.
+ */
+@Component
+@Profile("!memory")
+public class IndexCatalog {
+
+    static final List<Class<?>> ENTITIES = List.of(
+            User.class, Journal.class, MicroMemory.class, Taste.class, Place.class, Photo.class, MoodRollup.class,
+            TagCount.class);
+
+    /**
+     * Indexes that a declared index has replaced, by collection, which are
+     * dropped once their replacement exists.
+     */
+    static final Map<String, List<String>> RETIRED = Map.of(
+            "journals", List.of("userId_isDeleted_date_time_id", "userId_isDeleted_mood", "userId_isDeleted_tags",
+                    "userId_isDeleted_context", "userId_searchTerms"));
+
+    @Autowired
+    private MongoMappingContext mappingContext;
+
+    public Map<String, List<IndexDefinition>> declaredIndexes() {
+        MongoPersistentEntityIndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        Map<String, List<IndexDefinition>> indexes = new LinkedHashMap<>();
+        for (Class<?> entity : ENTITIES) {
+            for (MongoPersistentEntityIndexResolver.IndexDefinitionHolder holder
+                    : resolver.resolveIndexFor(TypeInformation.of(entity))) {
+                indexes.computeIfAbsent(holder.getCollection(), collection -> new ArrayList<>()).add(holder);
+            }
+        }
+        return indexes;
+    }
+
+    public static String nameOf(IndexDefinition index) {
+        return index.getIndexOptions().getString("name");
+    }
+}
@@ -0,0 +1,115 @@
+package com.lifelogger.index;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Brings the database in line with the {@link IndexCatalog} on startup: creates
+ * missing indexes, drops the ones they retire and warns about indexes that are
+ * not in the catalogue or have not served a single operation.
+ */
+@Component
+@Profile("!memory")
+public class IndexVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexVerifier.class);
+
+    private static final String ID_INDEX = "_id_";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private IndexCatalog indexCatalog;
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyIndexes() {
+        for (Map.Entry<String, List<IndexDefinition>> entry : indexCatalog.declaredIndexes().entrySet()) {
+            String collection = entry.getKey();
+            IndexOperations indexOps = mongoTemplate.indexOps(collection);
+
+            Set<String> existing = new HashSet<>();
+            for (IndexInfo info : indexOps.getIndexInfo()) {
+                existing.add(info.getName());
+            }
+
+            Set<String> declared = new HashSet<>();
+            Set<String> created = new HashSet<>();
+            boolean complete = true;
+            for (IndexDefinition index : entry.getValue()) {
+                String name = IndexCatalog.nameOf(index);
+                declared.add(name);
+                if (!existing.contains(name)) {
+                    logger.info("Creating missing index {} on {}", name, collection);
+                    try {
+                        indexOps.ensureIndex(index);
+                        created.add(name);
+                    } catch (DataAccessException e) {
+                        complete = false;
+                        logger.warn("Could not create index {} on {}: {}", name, collection, e.getMessage());
+                    }
+                }
+            }
+
+            // Only once every replacement is in place, so no query is left without an index
+            if (complete) {
+                for (String name : IndexCatalog.RETIRED.getOrDefault(collection, List.of())) {
+                    if (existing.remove(name)) {
+                        logger.info("Dropping retired index {} on {}", name, collection);
+                        try {
+                            indexOps.dropIndex(name);
+                        } catch (DataAccessException e) {
+                            logger.warn("Could not drop index {} on {}: {}", name, collection, e.getMessage());
+                        }
+                    }
+                }
+            }
+
+            for (String name : existing) {
+                if (!ID_INDEX.equals(name) && !declared.contains(name)) {
+                    logger.warn("Index {} on {} is not in the index catalogue", name, collection);
+                }
+            }
+
+            warnUnused(collection, created);
+        }
+    }
+
+    private void warnUnused(String collection, Set<String> created) {
+        try {
+            for (Document stats : mongoTemplate.getCollection(collection)
+                    .aggregate(List.of(new Document("$indexStats", new Document())))) {
+                String name = stats.getString("name");
+                Document accesses = stats.get("accesses", Document.class);
+                if (ID_INDEX.equals(name) || created.contains(name) || accesses == null) {
+                    continue;
+                }
+                Number ops = accesses.get("ops", Number.class);
+                if (ops != null && ops.longValue() == 0) {
+                    logger.warn("Index {} on {} has not been used since {}", name, collection, accesses.get("since"));
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.debug("Index usage statistics unavailable for {}: {}", collection, e.getMessage());
+        }
+    }
+}
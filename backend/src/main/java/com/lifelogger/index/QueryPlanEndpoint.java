@@ -0,0 +1,106 @@
+package com.lifelogger.index;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@code /actuator/queryplans}: runs {@code explain} for every repository query
+ * shape and flags plans that scan a whole collection or sort in memory.
+ */
+@Component
+@Profile("!memory")
+@Endpoint(id = "queryplans")
+public class QueryPlanEndpoint {
+
+    private static final String COLLSCAN = "COLLSCAN";
+    private static final String SORT = "SORT";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @ReadOperation
+    public Map<String, Object> queryPlans() {
+        QueryMapper queryMapper = new QueryMapper(mongoTemplate.getConverter());
+        List<QueryPlan> plans = new ArrayList<>();
+        int problems = 0;
+
+        for (QueryShapes.QueryShape shape : QueryShapes.all()) {
+            QueryPlan plan = explain(queryMapper, shape);
+            if (plan.collectionScan() || plan.inMemorySort() || plan.error() != null) {
+                problems++;
+            }
+            plans.add(plan);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("problems", problems);
+        report.put("queries", plans);
+        return report;
+    }
+
+    private QueryPlan explain(QueryMapper queryMapper, QueryShapes.QueryShape shape) {
+        String collection = mongoTemplate.getCollectionName(shape.entity());
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+                .getPersistentEntity(shape.entity());
+
+        Document find = new Document("find", collection)
+                .append("filter", queryMapper.getMappedObject(shape.query().getQueryObject(), entity));
+        Document sort = queryMapper.getMappedSort(shape.query().getSortObject(), entity);
+        if (!sort.isEmpty()) {
+            find.append("sort", sort);
+        }
+
+        try {
+            Document result = mongoTemplate.getDb().runCommand(
+                    new Document("explain", find).append("verbosity", "queryPlanner"));
+            Document winningPlan = result.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+
+            Set<String> stages = new LinkedHashSet<>();
+            Set<String> indexes = new LinkedHashSet<>();
+            collectStages(winningPlan, stages, indexes);
+            return new QueryPlan(shape.name(), collection, new ArrayList<>(stages), new ArrayList<>(indexes),
+                    stages.contains(COLLSCAN), stages.contains(SORT), null);
+        } catch (RuntimeException e) {
+            return new QueryPlan(shape.name(), collection, List.of(), List.of(), false, false, e.getMessage());
+        }
+    }
+
+    private static void collectStages(Object node, Set<String> stages, Set<String> indexes) {
+        if (node instanceof Document document) {
+            if (document.get("stage") instanceof String stage) {
+                stages.add(stage);
+            }
+            if (document.get("indexName") instanceof String indexName) {
+                indexes.add(indexName);
+            }
+            for (Map.Entry<String, Object> child : document.entrySet()) {
+                // The slot-based engine plan is an opaque string tree; its classic shape is under queryPlan
+                if (!"slotBasedPlan".equals(child.getKey())) {
+                    collectStages(child.getValue(), stages, indexes);
+                }
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object child : list) {
+                collectStages(child, stages, indexes);
+            }
+        }
+    }
+
+    public record QueryPlan(String query, String collection, List<String> stages, List<String> indexes,
+                            boolean collectionScan, boolean inMemorySort, String error) {
+    }
+}
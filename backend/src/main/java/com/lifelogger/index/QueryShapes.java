@@ -0,0 +1,176 @@
+package com.lifelogger.index;
+
+import com.lifelogger.model.Journal;
+import com.lifelogger.model.MicroMemory;
+import com.lifelogger.model.Mood;
+import com.lifelogger.model.MoodRollup;
+import com.lifelogger.model.Photo;
+import com.lifelogger.model.Place;
+import com.lifelogger.model.PlaceStatus;
+import com.lifelogger.model.PlaceType;
+import com.lifelogger.model.TagCount;
+import com.lifelogger.model.Taste;
+import com.lifelogger.model.TasteType;
+import com.lifelogger.model.User;
+import com.lifelogger.service.PhotoStorage;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.geo.GeoJsonPolygon;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.springframework.data.domain.Sort.Direction.ASC;
+import static org.springframework.data.domain.Sort.Direction.DESC;
+
+/**
+ * One representative query per repository method, mirroring the filter and
+ * sort that Spring Data derives for it. Keep in step with the repositories.
+ */
+final class QueryShapes {
+
+    private static final String USER_ID = "000000000000000000000000";
+
+    private QueryShapes() {
+    }
+
+    static List<QueryShape> all() {
+        return List.of(
+                shape("UserRepository.findByUsername", User.class,
+                        query(Criteria.where("username").is("sample"))),
+                shape("UserRepository.existsByEmail", User.class,
+                        query(Criteria.where("email").is("sample@example.com"))),
+
+                shape("JournalRepository.findByUserIdAndIsDeletedFalseOrderByDateDescTimeDesc", Journal.class,
+                        query(activeJournals()).with(Sort.by(DESC, "date", "time"))),
+                shape("JournalRepository.findPageByUserId", Journal.class,
+                        query(activeJournals()).with(Sort.by(DESC, "date", "time", "id"))),
+                shape("JournalRepository.findPageByUserId (window)", Journal.class,
+                        query(activeJournals().and("date").gte(LocalDate.now().minusDays(30)).lt(LocalDate.now()))
+                                .with(Sort.by(DESC, "date", "time", "id"))),
+                shape("JournalRepository.findByUserIdAndDateAndIsDeletedFalse", Journal.class,
+                        query(activeJournals().and("date").is(LocalDate.now()))),
+                shape("JournalRepository.findByUserIdAndMoodAndIsDeletedFalse", Journal.class,
+                        query(activeJournals().and("mood").is(Mood.HAPPY))),
+                shape("JournalRepository.findByUserIdAndTagsContainingAndIsDeletedFalse", Journal.class,
+                        query(activeJournals().and("tags").is("sample"))),
+                shape("JournalRepository.findByUserIdAndContextAndIsDeletedFalse", Journal.class,
+                        query(activeJournals().and("context").is("sample"))),
+                shape("JournalRepository.searchByTerms", Journal.class,
+                        query(activeJournals().and("searchTerms").all(List.of("sample")))),
+                shape("JournalRepository.streamByUserIdAndIsDeletedFalse", Journal.class,
+                        query(activeJournals())),
+                shape("JournalRepository.findDeletedBefore", Journal.class,
+                        query(Criteria.where("isDeleted").is(true).orOperator(
+                                Criteria.where("deletedAt").lt(LocalDateTime.now()),
+                                Criteria.where("deletedAt").is(null).and("updatedAt").lt(LocalDateTime.now())))),
+
+                shape("MicroMemoryRepository.findByUserIdOrderByTimestampDesc", MicroMemory.class,
+                        query(byUser()).with(Sort.by(DESC, "timestamp"))),
+                shape("MicroMemoryRepository.findPageByUserId", MicroMemory.class,
+                        query(byUser()).with(Sort.by(DESC, "timestamp", "id"))),
+                shape("MicroMemoryRepository.findPageByUserId (window)", MicroMemory.class,
+                        query(byUser().and("timestamp").gte(LocalDateTime.now().minusDays(30)).lt(LocalDateTime.now()))
+                                .with(Sort.by(DESC, "timestamp", "id"))),
+                shape("MicroMemoryRepository.findByUserIdAndMoodOrderByTimestampDesc", MicroMemory.class,
+                        query(byUser().and("mood").is(Mood.HAPPY)).with(Sort.by(DESC, "timestamp"))),
+                shape("MicroMemoryRepository.findByUserIdAndTagsContainingOrderByTimestampDesc", MicroMemory.class,
+                        query(byUser().and("tags").is("sample")).with(Sort.by(DESC, "timestamp"))),
+                shape("MicroMemoryRepository.streamByUserId", MicroMemory.class,
+                        query(byUser())),
+
+                shape("TasteRepository.findByUserIdOrderByDateConsumedDesc", Taste.class,
+                        query(byUser()).with(Sort.by(DESC, "dateConsumed"))),
+                shape("TasteRepository.findPageByUserId", Taste.class,
+                        query(byUser()).with(Sort.by(DESC, "dateConsumed", "id"))),
+                shape("TasteRepository.findPageByUserId (window)", Taste.class,
+                        query(byUser().and("dateConsumed").gte(LocalDate.now().minusDays(30)).lt(LocalDate.now()))
+                                .with(Sort.by(DESC, "dateConsumed", "id"))),
+                shape("TasteRepository.findByUserIdAndTypeOrderByDateConsumedDesc", Taste.class,
+                        query(byUser().and("type").is(TasteType.BOOK)).with(Sort.by(DESC, "dateConsumed"))),
+                shape("TasteRepository.findByUserIdOrderByRatingDesc", Taste.class,
+                        query(byUser()).with(Sort.by(DESC, "rating"))),
+                shape("TasteRepository.searchByTitleOrNote", Taste.class,
+                        query(byUser().orOperator(
+                                Criteria.where("title").regex("sample", "i"),
+                                Criteria.where("personalNote").regex("sample", "i")))),
+                shape("TasteRepository.findByUserIdAndTagsContaining", Taste.class,
+                        query(byUser().and("tags").is("sample"))),
+                shape("TasteRepository.streamByUserId", Taste.class,
+                        query(byUser())),
+
+                shape("PlaceRepository.findByUserIdOrderByDateVisitedDesc", Place.class,
+                        query(byUser()).with(Sort.by(DESC, "dateVisited"))),
+                shape("PlaceRepository.findPageByUserId", Place.class,
+                        query(byUser()).with(Sort.by(DESC, "dateVisited", "id"))),
+                shape("PlaceRepository.findPageByUserId (window)", Place.class,
+                        query(byUser().and("dateVisited").gte(LocalDate.now().minusDays(30)).lt(LocalDate.now()))
+                                .with(Sort.by(DESC, "dateVisited", "id"))),
+                shape("PlaceRepository.findByUserIdAndStatus", Place.class,
+                        query(byUser().and("status").is(PlaceStatus.VISITED))),
+                shape("PlaceRepository.findByUserIdAndType", Place.class,
+                        query(byUser().and("type").is(PlaceType.CAFE))),
+                shape("PlaceRepository.findByUserIdAndTagsContaining", Place.class,
+                        query(byUser().and("tags").is("sample"))),
+                shape("PlaceRepository.streamByUserId", Place.class,
+                        query(byUser())),
+                shape("PlaceRepository.findNear", Place.class,
+                        query(byUser().and("location").nearSphere(new GeoJsonPoint(0, 0)).maxDistance(1000))),
+                shape("PlaceRepository.findWithin", Place.class,
+                        query(byUser().and("location").within(new GeoJsonPolygon(
+                                new Point(0, 0), new Point(1, 0), new Point(1, 1), new Point(0, 1), new Point(0, 0))))),
+
+                shape("PhotoRepository.findByUserIdOrderByDateUploadedDesc", Photo.class,
+                        query(byUser()).with(Sort.by(DESC, "dateUploaded"))),
+                shape("PhotoRepository.findPageByUserId", Photo.class,
+                        query(byUser()).with(Sort.by(DESC, "dateUploaded", "id"))),
+                shape("PhotoRepository.findPageByUserId (window)", Photo.class,
+                        query(byUser().and("dateUploaded").gte(LocalDateTime.now().minusDays(30)).lt(LocalDateTime.now()))
+                                .with(Sort.by(DESC, "dateUploaded", "id"))),
+                shape("PhotoRepository.findByUserIdAndMoodOrderByDateUploadedDesc", Photo.class,
+                        query(byUser().and("mood").is(Mood.HAPPY)).with(Sort.by(DESC, "dateUploaded"))),
+                shape("PhotoRepository.findByUserIdAndTagsContainingOrderByDateUploadedDesc", Photo.class,
+                        query(byUser().and("tags").is("sample")).with(Sort.by(DESC, "dateUploaded"))),
+                shape("PhotoRepository.streamByUserId", Photo.class,
+                        query(byUser())),
+                shape("PhotoRepository.findFirstByUserIdAndImageUrlAndVariantsIsNotNull", Photo.class,
+                        query(byUser().and("imageUrl").is(PhotoStorage.URL_PREFIX + "sample.jpg")
+                                .and("variants").ne(null))),
+                shape("PhotoRepository.updateVariants", Photo.class,
+                        query(byUser().and("imageUrl").is(PhotoStorage.URL_PREFIX + "sample.jpg"))),
+
+                shape("MoodRollupRepository.findByUserIdAndDateBetweenOrderByDateAsc", MoodRollup.class,
+                        query(byUser().and("date").gte(LocalDate.now().minusDays(30)).lte(LocalDate.now()))
+                                .with(Sort.by(ASC, "date"))),
+                shape("MoodRollupRepository.deleteByUserId", MoodRollup.class,
+                        query(byUser())),
+
+                shape("TagCountRepository.findByUserIdAndTotalGreaterThan", TagCount.class,
+                        query(byUser().and("total").gt(0))),
+                shape("TagCountRepository.deleteByUserId", TagCount.class,
+                        query(byUser())));
+    }
+
+    private static Criteria byUser() {
+        return Criteria.where("userId").is(USER_ID);
+    }
+
+    private static Criteria activeJournals() {
+        return byUser().and("isDeleted").is(false);
+    }
+
+    private static Query query(Criteria criteria) {
+        return new Query(criteria);
+    }
+
+    private static QueryShape shape(String name, Class<?> entity, Query query) {
+        return new QueryShape(name, entity, query);
+    }
+
+    record QueryShape(String name, Class<?> entity, Query query) {
+    }
+}
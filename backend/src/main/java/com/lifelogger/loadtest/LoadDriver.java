@@ -0,0 +1,432 @@
+package com.lifelogger.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Closed-loop HTTP load generator for comparing the servlet, virtual-thread
+ * and reactive runtimes and the Mongo and in-memory stores. Keeps
+ * {@code --concurrency} requests in flight for {@code --duration} seconds,
+ * then prints throughput, latency percentiles and the server's peak heap and
+ * live thread count, sampled from {@code /actuator/metrics} while the load
+ * runs. With {@code --output} the report is also appended to a file as one
+ * JSON line, tagged with {@code --label}, so runs can be compared side by side.
+ * <p>
+ * By default it cycles through GETs of {@code --paths} as one user. With
+ * {@code --mix} it instead picks weighted operations at random, reads and
+ * writes, as {@code --users} users named {@code --user-prefix}0, 1, ... (the
+ * ones {@link SyntheticDataLoader} seeds), and reports percentiles per
+ * operation as well. {@code --mix=default} uses the built-in weights;
+ * {@code --mix=searchJournals:10,createJournal:5,...} sets them, leaving out the rest.
+ *
+ * <pre>
+ * java -cp target/life-logger-backend-1.0.0.jar -Dloader.main=com.lifelogger.loadtest.LoadDriver \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher \
+ *     --base-url=http://localhost:8080 --username=load --password=loadtest \
+ *     --concurrency=1000 --duration=60 --paths=/api/journals,/api/places \
+ *     --label=virtual --output=results.jsonl
+ *
+ * java ... --mix=default --users=100 --user-prefix=synthetic- --password=loadtest --concurrency=200
+ * </pre>
+ */
+public class LoadDriver {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String[] WORDS = { "morning", "coffee", "walk", "park", "work", "friend", "dinner", "music" };
+    private static final String[] TAGS = { "work", "family", "travel", "health", "food", "music", "friends" };
+    private static final String[] MOODS = { "VERY_HAPPY", "HAPPY", "NEUTRAL", "SAD", "CALM" };
+
+    private final String baseUrl;
+    private final int concurrency;
+    private final Duration duration;
+    private final List<String> paths;
+    private final String mix;
+    private final String label;
+    private final HttpClient client;
+    private final List<Session> sessions = new ArrayList<>();
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final Latencies latencies = new Latencies();
+    private long peakHeap;
+    private long peakThreads;
+
+    LoadDriver(Map<String, String> options) {
+        this.baseUrl = options.getOrDefault("base-url", "http://localhost:8080");
+        this.concurrency = Integer.parseInt(options.getOrDefault("concurrency", "200"));
+        this.duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30")));
+        this.paths = Arrays.asList(options.getOrDefault("paths", "/api/journals").split(","));
+        this.mix = options.get("mix");
+        this.label = options.get("label");
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+
+        LoadDriver driver = new LoadDriver(options);
+        String password = options.getOrDefault("password", "loadtest");
+        if (options.containsKey("token")) {
+            driver.sessions.add(new Session(options.get("token")));
+        } else if (driver.mix != null) {
+            int users = Integer.parseInt(options.getOrDefault("users", "1"));
+            String prefix = options.getOrDefault("user-prefix", "synthetic-");
+            for (int i = 0; i < users; i++) {
+                driver.sessions.add(new Session(driver.login(prefix + i, password)));
+            }
+        } else {
+            driver.sessions.add(new Session(driver.login(options.getOrDefault("username", "loadtest"), password)));
+        }
+        Map<String, Object> report = driver.run();
+        System.out.println(MAPPER.writerWithDefaultPrettyPrinter().writeValueAsString(report));
+        if (options.containsKey("output")) {
+            Files.writeString(Path.of(options.get("output")), MAPPER.writeValueAsString(report) + "\n",
+                    StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+    }
+
+    /**
+     * Logs in, registering the user first if it does not exist yet.
+     */
+    String login(String username, String password) throws IOException, InterruptedException {
+        String credentials = MAPPER.writeValueAsString(Map.of("username", username, "password", password));
+        HttpResponse<String> response = post("/api/auth/login", credentials);
+        if (response.statusCode() != 200) {
+            response = post("/api/auth/register", credentials);
+        }
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Could not log in as " + username + ": " + response.body());
+        }
+        return MAPPER.readTree(response.body()).get("token").asText();
+    }
+
+    private HttpResponse<String> post(String path, String json) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    Map<String, Object> run() throws InterruptedException {
+        List<Operation> operations = mix != null ? mixedOperations(mix) : pathOperations();
+        int totalWeight = operations.stream().mapToInt(Operation::weight).sum();
+
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(this::sampleServer, 0, 1, TimeUnit.SECONDS);
+
+        Semaphore inFlight = new Semaphore(concurrency);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        int next = 0;
+        while (System.nanoTime() < end) {
+            inFlight.acquire();
+            // Paths are cycled in order; a mix is sampled by weight
+            Operation operation = mix != null
+                    ? pick(operations, ThreadLocalRandom.current().nextInt(totalWeight))
+                    : operations.get(next++ % operations.size());
+            Session session = sessions.get(ThreadLocalRandom.current().nextInt(sessions.size()));
+            HttpRequest request = operation.request().apply(session);
+            long sent = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).whenComplete((response, error) -> {
+                long latency = System.nanoTime() - sent;
+                inFlight.release();
+                if (error != null || response.statusCode() >= 400) {
+                    failed.incrementAndGet();
+                    operation.failed().incrementAndGet();
+                    return;
+                }
+                completed.incrementAndGet();
+                bytes.addAndGet(response.body().length);
+                latencies.add(latency);
+                operation.latencies().add(latency);
+                operation.onResponse().accept(session, response);
+            });
+        }
+        inFlight.acquire(concurrency);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        sampler.shutdownNow();
+        sampleServer();
+
+        long[] all = latencies.sorted();
+        Map<String, Object> report = new LinkedHashMap<>();
+        if (label != null) {
+            report.put("label", label);
+        }
+        report.put("concurrency", concurrency);
+        report.put("users", sessions.size());
+        report.put("seconds", Math.round(elapsed));
+        report.put("requests", completed.get());
+        report.put("errors", failed.get());
+        report.put("throughputPerSecond", Math.round(completed.get() / elapsed));
+        report.put("megabytesPerSecond", Math.round(bytes.get() / elapsed / 1e4) / 100.0);
+        report.put("p50Millis", percentile(all, 0.50));
+        report.put("p90Millis", percentile(all, 0.90));
+        report.put("p99Millis", percentile(all, 0.99));
+        report.put("maxMillis", percentile(all, 1.0));
+        report.put("peakHeapMegabytes", peakHeap / (1024 * 1024));
+        // Platform threads only: virtual threads are not counted by jvm.threads.live
+        report.put("peakServerThreads", peakThreads);
+        if (mix != null) {
+            Map<String, Object> byOperation = new LinkedHashMap<>();
+            for (Operation operation : operations) {
+                long[] sorted = operation.latencies().sorted();
+                Map<String, Object> stats = new LinkedHashMap<>();
+                stats.put("requests", sorted.length);
+                stats.put("errors", operation.failed().get());
+                stats.put("p50Millis", percentile(sorted, 0.50));
+                stats.put("p90Millis", percentile(sorted, 0.90));
+                stats.put("p99Millis", percentile(sorted, 0.99));
+                byOperation.put(operation.name(), stats);
+            }
+            report.put("operations", byOperation);
+        }
+        return report;
+    }
+
+    private List<Operation> pathOperations() {
+        List<Operation> operations = new ArrayList<>();
+        for (String path : paths) {
+            operations.add(get(path, 1, session -> path));
+        }
+        return operations;
+    }
+
+    /**
+     * The built-in operations, with the weights given in {@code spec} or their defaults.
+     */
+    private List<Operation> mixedOperations(String spec) {
+        List<Operation> catalogue = List.of(
+                get("listJournals", 20, session -> "/api/journals?limit=50"),
+                get("listMemories", 10, session -> "/api/memories?limit=50"),
+                get("listTastes", 5, session -> "/api/tastes?limit=50"),
+                get("listPlaces", 5, session -> "/api/places?limit=50"),
+                get("searchJournals", 10, session -> "/api/journals/search?q=" + encode(random(WORDS))),
+                get("filterJournalsByTag", 5, session -> "/api/journals/filter/tag/" + random(TAGS)),
+                get("tagSuggestions", 10, session -> "/api/tags?prefix=" + random(TAGS).substring(0, 2)),
+                get("timeline", 10, session -> "/api/timeline?limit=50"),
+                get("moodDistribution", 5, session -> "/api/analytics/moods/distribution"),
+                write("createJournal", 8, session -> json(session, "POST", "/api/journals", journal()),
+                        (session, response) -> session.remember(response)),
+                write("updateJournal", 4, session -> {
+                    String id = session.created.peekLast();
+                    return id != null
+                            ? json(session, "PUT", "/api/journals/" + id, journal())
+                            : json(session, "POST", "/api/journals", journal());
+                }, (session, response) -> { }),
+                write("deleteJournal", 3, session -> {
+                    String id = session.created.pollFirst();
+                    return id != null
+                            ? authorized(session, "/api/journals/" + id).DELETE().build()
+                            : json(session, "POST", "/api/journals", journal());
+                }, (session, response) -> { }),
+                write("createMemory", 5, session -> json(session, "POST", "/api/memories", Map.of(
+                        "userId", "-", "shortText", sentence(6), "mood", random(MOODS),
+                        "tags", List.of(random(TAGS)))), (session, response) -> { }),
+                write("createTaste", 3, session -> json(session, "POST", "/api/tastes", Map.of(
+                        "userId", "-", "type", "BOOK", "title", sentence(2), "personalNote", sentence(8),
+                        "rating", 1 + ThreadLocalRandom.current().nextInt(5), "mood", random(MOODS),
+                        "dateConsumed", LocalDate.now().toString())), (session, response) -> { }));
+        if (spec.equals("default")) {
+            return catalogue;
+        }
+
+        Map<String, Operation> byName = new LinkedHashMap<>();
+        catalogue.forEach(operation -> byName.put(operation.name(), operation));
+        List<Operation> operations = new ArrayList<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.split(":");
+            Operation operation = byName.get(parts[0].trim());
+            if (operation == null) {
+                throw new IllegalArgumentException("Unknown operation " + parts[0] + ", expected one of " + byName.keySet());
+            }
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : operation.weight();
+            operations.add(new Operation(operation.name(), weight, operation.request(), operation.onResponse(),
+                    new Latencies(), new AtomicLong()));
+        }
+        return operations;
+    }
+
+    private Operation get(String name, int weight, Function<Session, String> path) {
+        return new Operation(name, weight, session -> authorized(session, path.apply(session)).GET().build(),
+                (session, response) -> { }, new Latencies(), new AtomicLong());
+    }
+
+    private static Operation write(String name, int weight, Function<Session, HttpRequest> request,
+                                   BiConsumer<Session, HttpResponse<byte[]>> onResponse) {
+        return new Operation(name, weight, request, onResponse, new Latencies(), new AtomicLong());
+    }
+
+    private static Operation pick(List<Operation> operations, int ticket) {
+        for (Operation operation : operations) {
+            ticket -= operation.weight();
+            if (ticket < 0) {
+                return operation;
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+
+    private HttpRequest.Builder authorized(Session session, String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + session.token)
+                .timeout(Duration.ofSeconds(60));
+    }
+
+    private HttpRequest json(Session session, String method, String path, Map<String, Object> body) {
+        try {
+            return authorized(session, path)
+                    .header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(MAPPER.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // The owner is taken from the token; the body only has to pass validation
+    private static Map<String, Object> journal() {
+        return Map.of("userId", "-", "content", sentence(30), "mood", random(MOODS),
+                "date", LocalDate.now().toString(), "tags", List.of(random(TAGS)));
+    }
+
+    private static String sentence(int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            sentence.append(i > 0 ? " " : "").append(random(WORDS));
+        }
+        return sentence.toString();
+    }
+
+    private static String random(String[] values) {
+        return values[ThreadLocalRandom.current().nextInt(values.length)];
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private void sampleServer() {
+        long heap = metric("jvm.memory.used?tag=area:heap");
+        long threads = metric("jvm.threads.live");
+        synchronized (this) {
+            peakHeap = Math.max(peakHeap, heap);
+            peakThreads = Math.max(peakThreads, threads);
+        }
+    }
+
+    private long metric(String query) {
+        try {
+            HttpRequest request = authorized(sessions.get(0), "/actuator/metrics/" + query)
+                    .timeout(Duration.ofSeconds(5))
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return 0;
+            }
+            JsonNode measurements = MAPPER.readTree(response.body()).get("measurements");
+            return measurements != null && measurements.size() > 0 ? measurements.get(0).get("value").asLong() : 0;
+        } catch (IOException e) {
+            return 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+        return Math.round(sorted[Math.max(0, index)] / 1e4) / 100.0;
+    }
+
+    private record Operation(String name, int weight, Function<Session, HttpRequest> request,
+                             BiConsumer<Session, HttpResponse<byte[]>> onResponse,
+                             Latencies latencies, AtomicLong failed) {
+    }
+
+    /**
+     * One logged-in user and the journals it created, which updates and deletes work through.
+     */
+    private static final class Session {
+
+        private final String token;
+        private final ConcurrentLinkedDeque<String> created = new ConcurrentLinkedDeque<>();
+
+        Session(String token) {
+            this.token = token;
+        }
+
+        void remember(HttpResponse<byte[]> response) {
+            try {
+                JsonNode id = MAPPER.readTree(response.body()).get("id");
+                if (id != null) {
+                    created.addLast(id.asText());
+                }
+            } catch (IOException e) {
+                // Not a JSON entry; nothing to remember
+            }
+        }
+    }
+
+    /**
+     * Latencies in nanoseconds, appended from the HTTP client's threads.
+     */
+    private static final class Latencies {
+
+        private long[] values = new long[1 << 12];
+        private int count;
+
+        synchronized void add(long latency) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = latency;
+        }
+
+        synchronized long[] sorted() {
+            long[] sorted = Arrays.copyOf(values, count);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.lifelogger.loadtest;
+
+import com.lifelogger.model.Journal;
+import com.lifelogger.model.MicroMemory;
+import com.lifelogger.model.Mood;
+import com.lifelogger.model.Place;
+import com.lifelogger.model.PlaceStatus;
+import com.lifelogger.model.PlaceType;
+import com.lifelogger.model.Taste;
+import com.lifelogger.model.TasteType;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Plausible entries for one user, spread over the past few years. Words,
+ * tags and moods repeat with a skewed distribution, as in real journals, so
+ * searches, tag lookups and mood analytics have realistic hit rates. The same
+ * seed always produces the same entries.
+ */
+final class SyntheticData {
+
+    private static final String[] WORDS = {
+            "morning", "coffee", "walk", "park", "work", "meeting", "friend", "dinner", "family", "rain",
+            "sunny", "tired", "book", "music", "movie", "train", "office", "garden", "beach", "mountain",
+            "run", "yoga", "cooking", "market", "weekend", "holiday", "project", "deadline", "sleep", "dream",
+            "laugh", "call", "message", "city", "museum", "concert", "birthday", "gift", "tea", "evening"
+    };
+    private static final String[] TAGS = {
+            "work", "family", "travel", "health", "food", "music", "friends", "reading", "sport", "home",
+            "nature", "learning", "weekend", "gratitude", "goals"
+    };
+    private static final String[] CONTEXTS = { "home", "work", "travel", "outdoors", "commute" };
+    private static final String[] PLACE_NAMES = { "Corner Cafe", "Old Town", "Harbour View", "Central Market",
+            "Hill Temple", "Riverside Bistro", "Sky Tower", "Botanic Garden" };
+    // Cities the generated places cluster around, as lat/lng
+    private static final double[][] CITIES = { { 48.8566, 2.3522 }, { 40.7128, -74.0060 }, { 35.6762, 139.6503 },
+            { -33.8688, 151.2093 }, { 51.5074, -0.1278 }, { 19.0760, 72.8777 } };
+    private static final Mood[] MOODS = Mood.values();
+
+    private final Random random;
+    private final String userId;
+    private final LocalDate today = LocalDate.now();
+
+    SyntheticData(String userId, long seed) {
+        this.userId = userId;
+        this.random = new Random(seed);
+    }
+
+    List<Journal> journals(int count) {
+        List<Journal> journals = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Journal journal = new Journal();
+            journal.setUserId(userId);
+            journal.setDate(day());
+            journal.setTime(LocalTime.of(random.nextInt(24), random.nextInt(60)));
+            journal.setContent(sentence(20 + random.nextInt(80)));
+            journal.setMood(mood());
+            journal.setTags(tags());
+            journal.setContext(CONTEXTS[skewed(CONTEXTS.length)]);
+            journals.add(journal);
+        }
+        return journals;
+    }
+
+    List<MicroMemory> memories(int count) {
+        List<MicroMemory> memories = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            MicroMemory memory = new MicroMemory();
+            memory.setUserId(userId);
+            memory.setTimestamp(LocalDateTime.of(day(), LocalTime.of(random.nextInt(24), random.nextInt(60))));
+            memory.setShortText(sentence(4 + random.nextInt(12)));
+            memory.setMood(mood());
+            memory.setTags(tags());
+            memories.add(memory);
+        }
+        return memories;
+    }
+
+    List<Taste> tastes(int count) {
+        List<Taste> tastes = new ArrayList<>(count);
+        TasteType[] types = TasteType.values();
+        for (int i = 0; i < count; i++) {
+            Taste taste = new Taste();
+            taste.setUserId(userId);
+            taste.setType(types[random.nextInt(types.length)]);
+            taste.setTitle(capitalize(sentence(1 + random.nextInt(3))));
+            taste.setDateConsumed(day());
+            taste.setPersonalNote(sentence(5 + random.nextInt(20)));
+            taste.setRating(1 + random.nextInt(5));
+            taste.setMood(mood());
+            taste.setTags(tags());
+            tastes.add(taste);
+        }
+        return tastes;
+    }
+
+    List<Place> places(int count) {
+        List<Place> places = new ArrayList<>(count);
+        PlaceType[] types = PlaceType.values();
+        for (int i = 0; i < count; i++) {
+            double[] city = CITIES[skewed(CITIES.length)];
+            Place place = new Place();
+            place.setUserId(userId);
+            place.setName(PLACE_NAMES[random.nextInt(PLACE_NAMES.length)]);
+            place.setType(types[random.nextInt(types.length)]);
+            place.setStatus(random.nextInt(4) == 0 ? PlaceStatus.WANT_TO_VISIT : PlaceStatus.VISITED);
+            place.setLatitude(city[0] + random.nextGaussian() * 0.05);
+            place.setLongitude(city[1] + random.nextGaussian() * 0.05);
+            place.setDateVisited(place.getStatus() == PlaceStatus.VISITED ? day() : null);
+            place.setExperienceNote(sentence(5 + random.nextInt(20)));
+            place.setMood(mood());
+            place.setTags(tags());
+            places.add(place);
+        }
+        return places;
+    }
+
+    private LocalDate day() {
+        return today.minusDays(random.nextInt(3 * 365));
+    }
+
+    private Mood mood() {
+        return MOODS[skewed(MOODS.length)];
+    }
+
+    private List<String> tags() {
+        Set<String> tags = new LinkedHashSet<>();
+        int count = random.nextInt(4);
+        for (int i = 0; i < count; i++) {
+            tags.add(TAGS[skewed(TAGS.length)]);
+        }
+        return new ArrayList<>(tags);
+    }
+
+    private String sentence(int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(WORDS[skewed(WORDS.length)]);
+        }
+        return sentence.toString();
+    }
+
+    // Index in [0, bound) with low indexes more likely, roughly Zipf-like
+    private int skewed(int bound) {
+        double u = random.nextDouble();
+        return (int) (bound * u * u);
+    }
+
+    private static String capitalize(String text) {
+        return Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
+}
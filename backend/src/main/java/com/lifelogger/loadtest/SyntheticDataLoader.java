@@ -0,0 +1,142 @@
+package com.lifelogger.loadtest;
+
+import com.lifelogger.model.EntryTypes;
+import com.lifelogger.model.Journal;
+import com.lifelogger.model.MicroMemory;
+import com.lifelogger.model.Place;
+import com.lifelogger.model.Taste;
+import com.lifelogger.model.User;
+import com.lifelogger.repository.BulkInsertRepository;
+import com.lifelogger.repository.JournalRepository;
+import com.lifelogger.repository.MicroMemoryRepository;
+import com.lifelogger.repository.PlaceRepository;
+import com.lifelogger.repository.TasteRepository;
+import com.lifelogger.repository.UserRepository;
+import com.lifelogger.service.JournalSearchService;
+import com.lifelogger.service.MoodRollupService;
+import com.lifelogger.service.PlaceClusterService;
+import com.lifelogger.service.PlaceService;
+import com.lifelogger.service.TagService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Seeds {@code loadtest.seed.users} users named {@code <prefix>0},
+ * {@code <prefix>1}, ... with {@code loadtest.seed.entries-per-user} synthetic
+ * entries each, for load tests against either store. Runs before the
+ * application is ready, so the tag and mood rollup rebuilds see the seeded data
+ * as already counted, and does nothing if the first user already exists.
+ */
+@Component
+@ConditionalOnProperty("loadtest.seed.users")
+public class SyntheticDataLoader implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataLoader.class);
+
+    @Value("${loadtest.seed.users}")
+    private int users;
+
+    @Value("${loadtest.seed.entries-per-user:1000}")
+    private int entriesPerUser;
+
+    @Value("${loadtest.seed.password:loadtest}")
+    private String password;
+
+    @Value("${loadtest.seed.username-prefix:synthetic-}")
+    private String usernamePrefix;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JournalRepository journalRepository;
+
+    @Autowired
+    private MicroMemoryRepository microMemoryRepository;
+
+    @Autowired
+    private TasteRepository tasteRepository;
+
+    @Autowired
+    private PlaceRepository placeRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JournalSearchService journalSearchService;
+
+    @Autowired
+    private MoodRollupService moodRollupService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private PlaceService placeService;
+
+    @Autowired
+    private PlaceClusterService placeClusterService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (userRepository.existsByUsername(usernamePrefix + 0)) {
+            logger.info("Synthetic users already exist, not seeding");
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        // One hash for everyone: BCrypt is deliberately slow
+        String passwordHash = passwordEncoder.encode(password);
+        for (int i = 0; i < users; i++) {
+            User user = new User();
+            user.setUsername(usernamePrefix + i);
+            user.setPassword(passwordHash);
+            String userId = userRepository.save(user).getId();
+            seed(userId, new SyntheticData(userId, i));
+        }
+        logger.info("Seeded {} users with {} entries each in {} ms",
+                users, entriesPerUser, System.currentTimeMillis() - start);
+    }
+
+    private void seed(String userId, SyntheticData data) {
+        List<Journal> journals = data.journals(entriesPerUser * 4 / 10);
+        journals.forEach(journalSearchService::index);
+        insert(journalRepository, journals);
+        moodRollupService.addedAll(userId, EntryTypes.JOURNAL, journals, Journal::getDate, Journal::getMood);
+        tagService.addedAll(userId, EntryTypes.JOURNAL, journals, Journal::getTags);
+
+        List<MicroMemory> memories = data.memories(entriesPerUser * 3 / 10);
+        insert(microMemoryRepository, memories);
+        moodRollupService.addedAll(userId, EntryTypes.MEMORY, memories,
+                memory -> MoodRollupService.dayOf(memory.getTimestamp()), MicroMemory::getMood);
+        tagService.addedAll(userId, EntryTypes.MEMORY, memories, MicroMemory::getTags);
+
+        List<Taste> tastes = data.tastes(entriesPerUser * 15 / 100);
+        insert(tasteRepository, tastes);
+        moodRollupService.addedAll(userId, EntryTypes.TASTE, tastes, Taste::getDateConsumed, Taste::getMood);
+        tagService.addedAll(userId, EntryTypes.TASTE, tastes, Taste::getTags);
+
+        List<Place> places = data.places(entriesPerUser * 15 / 100);
+        places.forEach(placeService::locate);
+        insert(placeRepository, places);
+        moodRollupService.addedAll(userId, EntryTypes.PLACE, places, Place::getDateVisited, Place::getMood);
+        tagService.addedAll(userId, EntryTypes.PLACE, places, Place::getTags);
+        placeClusterService.savedAll(userId, places);
+    }
+
+    private static <T> void insert(BulkInsertRepository<T> repository, List<T> entries) {
+        if (!entries.isEmpty()) {
+            repository.insertUnordered(entries);
+        }
+    }
+}
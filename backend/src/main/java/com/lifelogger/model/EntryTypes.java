@@ -0,0 +1,17 @@
+package com.lifelogger.model;
+
+/**
+ * Names of the entry types, as used in timeline items, mood rollups and tag
+ * counts.
+ */
+public final class EntryTypes {
+
+    public static final String JOURNAL = "journal";
+    public static final String MEMORY = "memory";
+    public static final String TASTE = "taste";
+    public static final String PLACE = "place";
+    public static final String PHOTO = "photo";
+
+    private EntryTypes() {
+    }
+}
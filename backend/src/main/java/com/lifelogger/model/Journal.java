@@ -1,11 +1,14 @@
 package com.lifelogger.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import jakarta.validation.constraints.NotBlank;
@@ -19,6 +22,21 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "journals")
+// The list and filter indexes only cover active journals; deleted ones are archived by JournalArchiveService
+@CompoundIndexes({
+        @CompoundIndex(name = "userId_date_time_id_active", def = "{'userId': 1, 'date': -1, 'time': -1, '_id': -1}",
+                partialFilter = "{'isDeleted': false}"),
+        @CompoundIndex(name = "userId_mood_active", def = "{'userId': 1, 'mood': 1}",
+                partialFilter = "{'isDeleted': false}"),
+        @CompoundIndex(name = "userId_tags_active", def = "{'userId': 1, 'tags': 1}",
+                partialFilter = "{'isDeleted': false}"),
+        @CompoundIndex(name = "userId_context_active", def = "{'userId': 1, 'context': 1}",
+                partialFilter = "{'isDeleted': false}"),
+        @CompoundIndex(name = "userId_searchTerms_active", def = "{'userId': 1, 'searchTerms': 1}",
+                partialFilter = "{'isDeleted': false}"),
+        @CompoundIndex(name = "deletedAt_deleted", def = "{'deletedAt': 1, 'updatedAt': 1}",
+                partialFilter = "{'isDeleted': true}")
+})
 public class Journal {
 
     @Id
@@ -48,4 +66,10 @@ public class Journal {
     private LocalDateTime updatedAt;
 
     private boolean isDeleted = false;
+
+    @JsonIgnore
+    private LocalDateTime deletedAt;
+
+    @JsonIgnore
+    private List<String> searchTerms;
 }
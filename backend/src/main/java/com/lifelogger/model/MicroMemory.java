@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import jakarta.validation.constraints.NotBlank;
@@ -16,6 +18,11 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "microMemories")
+@CompoundIndexes({
+        @CompoundIndex(name = "userId_timestamp_id", def = "{'userId': 1, 'timestamp': -1, '_id': -1}"),
+        @CompoundIndex(name = "userId_mood_timestamp", def = "{'userId': 1, 'mood': 1, 'timestamp': -1}"),
+        @CompoundIndex(name = "userId_tags_timestamp", def = "{'userId': 1, 'tags': 1, 'timestamp': -1}")
+})
 public class MicroMemory {
 
     @Id
@@ -0,0 +1,37 @@
+package com.lifelogger.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Mood counts of one user's entries on one day, by {@link EntryTypes entry type}.
+ * Kept up to date by the services as entries change.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "moodRollups")
+@CompoundIndex(name = "userId_date", def = "{'userId': 1, 'date': 1}")
+public class MoodRollup {
+
+    // userId + ":" + date
+    @Id
+    private String id;
+
+    private String userId;
+
+    private LocalDate date;
+
+    private Map<String, Map<Mood, Integer>> counts;
+
+    public static String idOf(String userId, LocalDate date) {
+        return userId + ":" + date;
+    }
+}
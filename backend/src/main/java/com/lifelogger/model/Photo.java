@@ -4,17 +4,26 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import jakarta.validation.constraints.NotBlank;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "photos")
+@CompoundIndexes({
+        @CompoundIndex(name = "userId_dateUploaded_id", def = "{'userId': 1, 'dateUploaded': -1, '_id': -1}"),
+        @CompoundIndex(name = "userId_mood_dateUploaded", def = "{'userId': 1, 'mood': 1, 'dateUploaded': -1}"),
+        @CompoundIndex(name = "userId_tags_dateUploaded", def = "{'userId': 1, 'tags': 1, 'dateUploaded': -1}"),
+        @CompoundIndex(name = "userId_imageUrl", def = "{'userId': 1, 'imageUrl': 1}")
+})
 public class Photo {
 
     @Id
@@ -26,6 +35,9 @@ public class Photo {
     @NotBlank(message = "Image URL is required")
     private String imageUrl;
 
+    // SHA-256 of the file; photos with the same hash share one PhotoBlob
+    private String contentHash;
+
     private LocalDateTime dateUploaded;
 
     private String location;
@@ -37,4 +49,7 @@ public class Photo {
     private String story;
 
     private String technicalNotes;
+
+    // Resized copies by variant name (thumbnail, medium, large), filled in after upload
+    private Map<String, String> variants;
 }
@@ -0,0 +1,50 @@
+package com.lifelogger.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * A stored photo file, identified by the SHA-256 of its content and shared by
+ * every {@link Photo} of the same user that uploaded identical bytes. The file
+ * is removed when {@code refCount} drops to zero: the blob is first marked
+ * with {@code deletingAt}, which keeps uploads of the same content from
+ * adopting the file, and the document goes once the file is gone.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "photoBlobs")
+public class PhotoBlob {
+
+    // userId + ":" + contentHash
+    @Id
+    private String id;
+
+    private String userId;
+
+    private String contentHash;
+
+    private String imageUrl;
+
+    private long size;
+
+    private int refCount;
+
+    private LocalDateTime createdAt;
+
+    // Set while the file is being deleted
+    private LocalDateTime deletingAt;
+
+    // After this long a deletion is presumed abandoned and an upload may take the blob back
+    public static final Duration DELETE_TIMEOUT = Duration.ofMinutes(1);
+
+    public static String idOf(String userId, String contentHash) {
+        return userId + ":" + contentHash;
+    }
+}
@@ -0,0 +1,27 @@
+package com.lifelogger.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Records that a stored photo file moved from {@code id} (its old URL) to
+ * {@code imageUrl}, so links handed out before the move keep resolving.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "photoRelocations")
+public class PhotoRelocation {
+
+    @Id
+    private String id;
+
+    private String imageUrl;
+
+    private LocalDateTime movedAt;
+}
@@ -1,11 +1,17 @@
 package com.lifelogger.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import java.time.LocalDate;
@@ -15,6 +21,13 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "places")
+@CompoundIndexes({
+        @CompoundIndex(name = "userId_dateVisited_id", def = "{'userId': 1, 'dateVisited': -1, '_id': -1}"),
+        @CompoundIndex(name = "userId_status", def = "{'userId': 1, 'status': 1}"),
+        @CompoundIndex(name = "userId_type", def = "{'userId': 1, 'type': 1}"),
+        @CompoundIndex(name = "userId_tags", def = "{'userId': 1, 'tags': 1}"),
+        @CompoundIndex(name = "userId_location", def = "{'userId': 1, 'location': '2dsphere'}")
+})
 public class Place {
 
     @Id
@@ -33,11 +46,19 @@ public class Place {
     private PlaceStatus status;
 
     @NotNull(message = "Latitude is required")
+    @DecimalMin(value = "-90", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90", message = "Latitude must be between -90 and 90")
     private Double latitude;
 
     @NotNull(message = "Longitude is required")
+    @DecimalMin(value = "-180", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180", message = "Longitude must be between -180 and 180")
     private Double longitude;
 
+    // GeoJSON copy of latitude/longitude for the 2dsphere index, set by the service
+    @JsonIgnore
+    private GeoJsonPoint location;
+
     private LocalDate dateVisited;
 
     private String experienceNote;
@@ -0,0 +1,37 @@
+package com.lifelogger.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Map;
+
+/**
+ * How often one user has used one tag, in total and by {@link EntryTypes entry type}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "tagCounts")
+@CompoundIndex(name = "userId_tag", def = "{'userId': 1, 'tag': 1}")
+public class TagCount {
+
+    // userId + ":" + tag
+    @Id
+    private String id;
+
+    private String userId;
+
+    private String tag;
+
+    private int total;
+
+    private Map<String, Integer> counts;
+
+    public static String idOf(String userId, String tag) {
+        return userId + ":" + tag;
+    }
+}
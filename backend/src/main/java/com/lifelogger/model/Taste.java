@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import jakarta.validation.constraints.Max;
@@ -17,6 +19,12 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "tastes")
+@CompoundIndexes({
+        @CompoundIndex(name = "userId_dateConsumed_id", def = "{'userId': 1, 'dateConsumed': -1, '_id': -1}"),
+        @CompoundIndex(name = "userId_type_dateConsumed", def = "{'userId': 1, 'type': 1, 'dateConsumed': -1}"),
+        @CompoundIndex(name = "userId_rating", def = "{'userId': 1, 'rating': -1}"),
+        @CompoundIndex(name = "userId_tags", def = "{'userId': 1, 'tags': 1}")
+})
 public class Taste {
 
     @Id
@@ -12,6 +12,8 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 @Data
 @NoArgsConstructor
@@ -32,8 +34,15 @@ public class User {
     private String password;
 
     @Email(message = "Email should be valid")
+    @Indexed(sparse = true)
     private String email;
 
+    // Granted by an operator in the database, e.g. ADMIN for the actuator endpoints
+    private List<String> roles;
+
+    // Per entry type (see EntryTypes), incremented on every write to that type
+    private Map<String, Long> collectionVersions;
+
     @CreatedDate
     private LocalDateTime createdAt;
 }
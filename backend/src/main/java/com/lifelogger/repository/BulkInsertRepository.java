@@ -0,0 +1,16 @@
+package com.lifelogger.repository;
+
+import java.util.List;
+import java.util.Map;
+
+public interface BulkInsertRepository<T> {
+
+    /**
+     * Inserts all entities in one unordered bulk write, so a bad record does not
+     * stop the rest of the batch.
+     *
+     * @return error messages keyed by the index of each entity that failed
+     */
+    Map<Integer, String> insertUnordered(List<T> entities);
+
+}
@@ -0,0 +1,36 @@
+package com.lifelogger.repository;
+
+import com.mongodb.bulk.BulkWriteError;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BulkInsertRepositoryImpl<T> implements BulkInsertRepository<T> {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public Map<Integer, String> insertUnordered(List<T> entities) {
+        Map<Integer, String> errors = new HashMap<>();
+        if (entities.isEmpty()) {
+            return errors;
+        }
+
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, entities.get(0).getClass());
+        bulkOps.insert(entities);
+        try {
+            bulkOps.execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                errors.put(error.getIndex(), error.getMessage());
+            }
+        }
+        return errors;
+    }
+}
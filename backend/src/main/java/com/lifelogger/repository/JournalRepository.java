@@ -2,17 +2,20 @@ package com.lifelogger.repository;
 
 import com.lifelogger.model.Journal;
 import com.lifelogger.model.Mood;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
-import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface JournalRepository extends MongoRepository<Journal, String> {
+public interface JournalRepository
+        extends MongoRepository<Journal, String>, JournalRepositoryCustom, BulkInsertRepository<Journal> {
 
-    List<Journal> findByUserIdAndIsDeletedFalseOrderByDateDescTimeDesc(String userId);
+    List<Journal> findByUserIdAndIsDeletedFalseOrderByDateDescTimeDesc(String userId, Limit limit);
 
     List<Journal> findByUserIdAndDateAndIsDeletedFalse(String userId, LocalDate date);
 
@@ -22,7 +25,8 @@ public interface JournalRepository extends MongoRepository<Journal, String> {
 
     List<Journal> findByUserIdAndContextAndIsDeletedFalse(String userId, String context);
 
-    @Query("{ 'userId': ?0, 'isDeleted': false, 'content': { $regex: ?1, $options: 'i' } }")
-    List<Journal> searchByContent(String userId, String searchText);
+    List<Journal> findByIsDeletedFalseAndSearchTermsIsNull(Pageable pageable);
+
+    Stream<Journal> streamByUserIdAndIsDeletedFalse(String userId);
 
 }
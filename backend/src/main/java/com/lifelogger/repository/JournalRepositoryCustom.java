@@ -0,0 +1,66 @@
+package com.lifelogger.repository;
+
+import com.lifelogger.model.Journal;
+import com.lifelogger.util.Projection;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface JournalRepositoryCustom {
+
+    String ARCHIVE_COLLECTION = "journalArchive";
+
+    List<Journal> searchByTerms(String userId, List<String> terms, List<String> prefixes);
+
+    /**
+     * Next page after {@code after} in list order, optionally restricted to
+     * {@code from}..{@code to} (inclusive days) on {@code date}.
+     */
+    default List<Journal> findPageByUserId(String userId, Journal after, LocalDate from, LocalDate to, int limit) {
+        return findPageByUserId(userId, after, from, to, limit, null);
+    }
+
+    /**
+     * Like {@link #findPageByUserId(String, Journal, LocalDate, LocalDate, int)},
+     * reading only the properties in {@code projection} if it is not
+     * {@code null}.
+     */
+    List<Journal> findPageByUserId(String userId, Journal after, LocalDate from, LocalDate to, int limit,
+                                   Projection projection);
+
+    /**
+     * Stores the journal's content, mood, tags, context, search terms and
+     * {@code updatedAt} if the stored journal is not deleted. Returns the
+     * stored journal as it was before, or {@code null} if it is deleted.
+     */
+    Journal updateActive(Journal journal);
+
+    /**
+     * Marks the journal deleted at {@code deletedAt} and drops its search
+     * terms if it is not deleted yet. Returns the journal as it was before,
+     * or {@code null} if it was already deleted.
+     */
+    Journal softDelete(String id, LocalDateTime deletedAt);
+
+    /**
+     * Up to {@code limit} journals soft-deleted before {@code cutoff}, across
+     * all users. Journals deleted before {@code deletedAt} was recorded count
+     * from their last update, which was the deletion.
+     */
+    List<Journal> findDeletedBefore(LocalDateTime cutoff, int limit);
+
+    /**
+     * Copies the journals into the {@link #ARCHIVE_COLLECTION} collection, then
+     * removes them from {@code journals} if they are still deleted. Returns
+     * the number removed.
+     */
+    long archiveDeleted(List<Journal> journals);
+
+    /**
+     * Removes the journals with these ids if they are deleted, returning the
+     * number removed.
+     */
+    long purgeDeleted(List<String> ids);
+
+}
@@ -0,0 +1,120 @@
+package com.lifelogger.repository;
+
+import com.lifelogger.model.Journal;
+import com.lifelogger.util.Projection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.lifelogger.repository.KeysetCriteria.key;
+
+public class JournalRepositoryCustomImpl implements JournalRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Journal> searchByTerms(String userId, List<String> terms, List<String> prefixes) {
+        List<Criteria> termCriteria = new ArrayList<>();
+        if (!terms.isEmpty()) {
+            termCriteria.add(Criteria.where("searchTerms").all(terms));
+        }
+        for (String prefix : prefixes) {
+            // Prefixes are plain alphanumeric tokens, so the anchored regex stays an index range scan
+            termCriteria.add(Criteria.where("searchTerms").regex("^" + prefix));
+        }
+
+        Criteria criteria = Criteria.where("userId").is(userId).and("isDeleted").is(false);
+        if (!termCriteria.isEmpty()) {
+            criteria = criteria.andOperator(termCriteria);
+        }
+        return mongoTemplate.find(new Query(criteria), Journal.class);
+    }
+
+    @Override
+    public List<Journal> findPageByUserId(String userId, Journal after, LocalDate from, LocalDate to, int limit,
+                                          Projection projection) {
+        Criteria criteria = Criteria.where("userId").is(userId).and("isDeleted").is(false);
+        criteria = KeysetCriteria.window(criteria, "date", from, to != null ? to.plusDays(1) : null);
+        if (after != null) {
+            criteria = criteria.andOperator(KeysetCriteria.after(
+                    key("date", after.getDate()),
+                    key("time", after.getTime()),
+                    key("id", after.getId())));
+        }
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "date", "time", "id"))
+                .limit(limit);
+        if (projection != null) {
+            projection.applyTo(query, "date", "time");
+        }
+        return mongoTemplate.find(query, Journal.class);
+    }
+
+    @Override
+    public Journal updateActive(Journal journal) {
+        Query query = new Query(Criteria.where("id").is(journal.getId()).and("isDeleted").is(false));
+        Update update = new Update()
+                .set("content", journal.getContent())
+                .set("mood", journal.getMood())
+                .set("tags", journal.getTags())
+                .set("context", journal.getContext())
+                .set("searchTerms", journal.getSearchTerms())
+                .set("updatedAt", journal.getUpdatedAt());
+        return mongoTemplate.findAndModify(query, update, Journal.class);
+    }
+
+    @Override
+    public Journal softDelete(String id, LocalDateTime deletedAt) {
+        Query query = new Query(Criteria.where("id").is(id).and("isDeleted").is(false));
+        Update update = new Update()
+                .set("isDeleted", true)
+                .set("deletedAt", deletedAt)
+                .set("updatedAt", deletedAt)
+                .unset("searchTerms");
+        return mongoTemplate.findAndModify(query, update, Journal.class);
+    }
+
+    @Override
+    public List<Journal> findDeletedBefore(LocalDateTime cutoff, int limit) {
+        Criteria criteria = Criteria.where("isDeleted").is(true).orOperator(
+                Criteria.where("deletedAt").lt(cutoff),
+                Criteria.where("deletedAt").is(null).and("updatedAt").lt(cutoff));
+        return mongoTemplate.find(new Query(criteria).limit(limit), Journal.class);
+    }
+
+    @Override
+    public long archiveDeleted(List<Journal> journals) {
+        if (journals.isEmpty()) {
+            return 0;
+        }
+        // Upserts, so a batch that was copied but not removed before a crash can be archived again
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Journal.class,
+                ARCHIVE_COLLECTION);
+        for (Journal journal : journals) {
+            bulkOps.replaceOne(new Query(Criteria.where("id").is(journal.getId())), journal,
+                    FindAndReplaceOptions.options().upsert());
+        }
+        bulkOps.execute();
+        return purgeDeleted(journals.stream().map(Journal::getId).toList());
+    }
+
+    @Override
+    public long purgeDeleted(List<String> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Query query = new Query(Criteria.where("id").in(ids).and("isDeleted").is(true));
+        return mongoTemplate.remove(query, Journal.class).getDeletedCount();
+    }
+}
@@ -0,0 +1,64 @@
+package com.lifelogger.repository;
+
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the seek predicate for keyset pagination over keys sorted in
+ * descending order. For keys (k1, k2, id) and a cursor (v1, v2, vid) it matches
+ * {@code k1 < v1 OR (k1 = v1 AND k2 < v2) OR (k1 = v1 AND k2 = v2 AND id < vid)},
+ * treating nulls as the smallest value so they sort last, as MongoDB does.
+ */
+final class KeysetCriteria {
+
+    private KeysetCriteria() {
+    }
+
+    static Key key(String field, Object value) {
+        return new Key(field, value);
+    }
+
+    static Criteria after(Key... keys) {
+        List<Criteria> branches = new ArrayList<>();
+        for (int i = 0; i < keys.length; i++) {
+            Key key = keys[i];
+            if (key.value() == null) {
+                // Nothing sorts below null in descending order
+                continue;
+            }
+
+            List<Criteria> branch = new ArrayList<>();
+            for (int j = 0; j < i; j++) {
+                branch.add(Criteria.where(keys[j].field()).is(keys[j].value()));
+            }
+            branch.add(new Criteria().orOperator(
+                    Criteria.where(key.field()).lt(key.value()),
+                    Criteria.where(key.field()).is(null)));
+            branches.add(new Criteria().andOperator(branch));
+        }
+        return new Criteria().orOperator(branches);
+    }
+
+    /**
+     * Restricts {@code criteria} to {@code min <= field < maxExclusive}; either
+     * bound may be {@code null} for an open end.
+     */
+    static Criteria window(Criteria criteria, String field, Object min, Object maxExclusive) {
+        if (min == null && maxExclusive == null) {
+            return criteria;
+        }
+        Criteria range = criteria.and(field);
+        if (min != null) {
+            range = range.gte(min);
+        }
+        if (maxExclusive != null) {
+            range = range.lt(maxExclusive);
+        }
+        return range;
+    }
+
+    record Key(String field, Object value) {
+    }
+}
@@ -2,18 +2,23 @@ package com.lifelogger.repository;
 
 import com.lifelogger.model.MicroMemory;
 import com.lifelogger.model.Mood;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface MicroMemoryRepository extends MongoRepository<MicroMemory, String> {
+public interface MicroMemoryRepository
+        extends MongoRepository<MicroMemory, String>, MicroMemoryRepositoryCustom, BulkInsertRepository<MicroMemory> {
 
-    List<MicroMemory> findByUserIdOrderByTimestampDesc(String userId);
+    List<MicroMemory> findByUserIdOrderByTimestampDesc(String userId, Limit limit);
 
     List<MicroMemory> findByUserIdAndMoodOrderByTimestampDesc(String userId, Mood mood);
 
     List<MicroMemory> findByUserIdAndTagsContainingOrderByTimestampDesc(String userId, String tag);
 
+    Stream<MicroMemory> streamByUserId(String userId);
+
 }
@@ -0,0 +1,34 @@
+package com.lifelogger.repository;
+
+import com.lifelogger.model.MicroMemory;
+import com.lifelogger.util.Projection;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface MicroMemoryRepositoryCustom {
+
+    /**
+     * Next page after {@code after} in list order, optionally restricted to
+     * {@code from}..{@code to} (inclusive days) on {@code timestamp}.
+     */
+    default List<MicroMemory> findPageByUserId(String userId, MicroMemory after, LocalDate from, LocalDate to,
+                                               int limit) {
+        return findPageByUserId(userId, after, from, to, limit, null);
+    }
+
+    /**
+     * Like {@link #findPageByUserId(String, MicroMemory, LocalDate, LocalDate, int)},
+     * reading only the properties in {@code projection} if it is not
+     * {@code null}.
+     */
+    List<MicroMemory> findPageByUserId(String userId, MicroMemory after, LocalDate from, LocalDate to, int limit,
+                                       Projection projection);
+
+    /**
+     * Removes the user's memory with this id, returning it, or {@code null} if
+     * there is none.
+     */
+    MicroMemory removeOwned(String id, String userId);
+
+}
@@ -0,0 +1,46 @@
+package com.lifelogger.repository;
+
+import com.lifelogger.model.MicroMemory;
+import com.lifelogger.util.Projection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.lifelogger.repository.KeysetCriteria.key;
+
+public class MicroMemoryRepositoryCustomImpl implements MicroMemoryRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public List<MicroMemory> findPageByUserId(String userId, MicroMemory after, LocalDate from, LocalDate to, int limit,
+                                              Projection projection) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        criteria = KeysetCriteria.window(criteria, "timestamp",
+                from != null ? from.atStartOfDay() : null, to != null ? to.plusDays(1).atStartOfDay() : null);
+        if (after != null) {
+            criteria = criteria.andOperator(KeysetCriteria.after(
+                    key("timestamp", after.getTimestamp()),
+                    key("id", after.getId())));
+        }
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "timestamp", "id"))
+                .limit(limit);
+        if (projection != null) {
+            projection.applyTo(query, "timestamp");
+        }
+        return mongoTemplate.find(query, MicroMemory.class);
+    }
+
+    @Override
+    public MicroMemory removeOwned(String id, String userId) {
+        return mongoTemplate.findAndRemove(new Query(Criteria.where("id").is(id).and("userId").is(userId)),
+                MicroMemory.class);
+    }
+}
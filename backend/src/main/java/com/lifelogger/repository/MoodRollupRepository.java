@@ -0,0 +1,18 @@
+package com.lifelogger.repository;
+
+import com.lifelogger.model.MoodRollup;
+import org.springframework.data.domain.Range;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface MoodRollupRepository extends MongoRepository<MoodRollup, String>, MoodRollupRepositoryCustom {
+
+    List<MoodRollup> findByUserIdAndDateBetweenOrderByDateAsc(String userId, Range<LocalDate> dates);
+
+    void deleteByUserId(String userId);
+
+}
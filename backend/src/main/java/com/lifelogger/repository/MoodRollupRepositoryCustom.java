@@ -0,0 +1,15 @@
+package com.lifelogger.repository;
+
+import com.lifelogger.model.Mood;
+
+import java.time.LocalDate;
+
+public interface MoodRollupRepositoryCustom {
+
+    /**
+     * Adds {@code delta} to one count of the user's rollup for {@code date},
+     * creating the rollup if needed.
+     */
+    void increment(String userId, LocalDate date, String type, Mood mood, int delta);
+
+}
@@ -0,0 +1,27 @@
+package com.lifelogger.repository;
+
+import com.lifelogger.model.Mood;
+import com.lifelogger.model.MoodRollup;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+
+public class MoodRollupRepositoryCustomImpl implements MoodRollupRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void increment(String userId, LocalDate date, String type, Mood mood, int delta) {
+        Query query = new Query(Criteria.where("id").is(MoodRollup.idOf(userId, date)));
+        Update update = new Update()
+                .inc("counts." + type + "." + mood.name(), delta)
+                .setOnInsert("userId", userId)
+                .setOnInsert("date", date);
+        mongoTemplate.upsert(query, update, MoodRollup.class);
+    }
+}
@@ -0,0 +1,10 @@
+package com.lifelogger.repository;
+
+import com.lifelogger.model.PhotoBlob;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PhotoBlobRepository extends MongoRepository<PhotoBlob, String>, PhotoBlobRepositoryCustom {
+
+}
@@ -0,0 +1,30 @@
+package com.lifelogger.repository;
+
+import com.lifelogger.model.PhotoBlob;
+
+public interface PhotoBlobRepositoryCustom {
+
+    /**
+     * Adds a reference to the user's blob with this hash, creating it with the
+     * given URL and size if it does not exist yet. Returns the blob after the
+     * increment; a {@code refCount} of 1 means the caller created it. Returns
+     * {@code null} while the blob is being deleted, in which case the caller
+     * waits for {@link #remove} and retries.
+     */
+    PhotoBlob acquire(String userId, String contentHash, String imageUrl, long size);
+
+    /**
+     * Drops a reference and marks the blob as deleting once none are left.
+     * Returns the marked blob, whose files the caller deletes before calling
+     * {@link #remove}, or {@code null} while it is still referenced.
+     */
+    PhotoBlob release(String userId, String contentHash);
+
+    /**
+     * Deletes a blob document {@link #release} marked as deleting.
+     */
+    void remove(String userId, String contentHash);
+
+    void updateImageUrl(String userId, String contentHash, String imageUrl);
+
+}
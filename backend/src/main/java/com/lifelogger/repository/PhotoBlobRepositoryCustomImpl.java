@@ -0,0 +1,69 @@
+package com.lifelogger.repository;
+
+import com.lifelogger.model.PhotoBlob;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+
+public class PhotoBlobRepositoryCustomImpl implements PhotoBlobRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public PhotoBlob acquire(String userId, String contentHash, String imageUrl, long size) {
+        Query query = new Query(Criteria.where("id").is(PhotoBlob.idOf(userId, contentHash))
+                .orOperator(Criteria.where("deletingAt").is(null),
+                        Criteria.where("deletingAt").lt(LocalDateTime.now().minus(PhotoBlob.DELETE_TIMEOUT))));
+        Update update = new Update()
+                .inc("refCount", 1)
+                .unset("deletingAt")
+                .setOnInsert("userId", userId)
+                .setOnInsert("contentHash", contentHash)
+                .setOnInsert("imageUrl", imageUrl)
+                .setOnInsert("size", size)
+                .setOnInsert("createdAt", LocalDateTime.now());
+        try {
+            return mongoTemplate.findAndModify(query, update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), PhotoBlob.class);
+        } catch (DuplicateKeyException e) {
+            // The filter missed a blob that is being deleted, so the upsert tried to insert it again
+            return null;
+        }
+    }
+
+    @Override
+    public PhotoBlob release(String userId, String contentHash) {
+        String id = PhotoBlob.idOf(userId, contentHash);
+        PhotoBlob blob = mongoTemplate.findAndModify(
+                new Query(Criteria.where("id").is(id).and("refCount").gt(0)),
+                new Update().inc("refCount", -1),
+                FindAndModifyOptions.options().returnNew(true), PhotoBlob.class);
+        if (blob == null || blob.getRefCount() > 0) {
+            return null;
+        }
+        // Only mark it if no upload re-acquired the blob in the meantime
+        return mongoTemplate.findAndModify(
+                new Query(Criteria.where("id").is(id).and("refCount").lte(0).and("deletingAt").is(null)),
+                Update.update("deletingAt", LocalDateTime.now()),
+                FindAndModifyOptions.options().returnNew(true), PhotoBlob.class);
+    }
+
+    @Override
+    public void remove(String userId, String contentHash) {
+        mongoTemplate.remove(new Query(Criteria.where("id").is(PhotoBlob.idOf(userId, contentHash))
+                .and("deletingAt").ne(null)), PhotoBlob.class);
+    }
+
+    @Override
+    public void updateImageUrl(String userId, String contentHash, String imageUrl) {
+        mongoTemplate.updateFirst(new Query(Criteria.where("id").is(PhotoBlob.idOf(userId, contentHash))),
+                Update.update("imageUrl", imageUrl), PhotoBlob.class);
+    }
+}
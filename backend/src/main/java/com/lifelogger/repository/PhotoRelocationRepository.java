@@ -0,0 +1,13 @@
+package com.lifelogger.repository;
+
+import com.lifelogger.model.PhotoRelocation;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.stream.Stream;
+
+@Repository
+public interface PhotoRelocationRepository extends MongoRepository<PhotoRelocation, String> {
+
+    Stream<PhotoRelocation> streamAllBy();
+}
@@ -2,18 +2,32 @@ package com.lifelogger.repository;
 
 import com.lifelogger.model.Mood;
 import com.lifelogger.model.Photo;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface PhotoRepository extends MongoRepository<Photo, String> {
+public interface PhotoRepository extends MongoRepository<Photo, String>, PhotoRepositoryCustom {
 
-    List<Photo> findByUserIdOrderByDateUploadedDesc(String userId);
+    List<Photo> findByUserIdOrderByDateUploadedDesc(String userId, Limit limit);
 
     List<Photo> findByUserIdAndMoodOrderByDateUploadedDesc(String userId, Mood mood);
 
     List<Photo> findByUserIdAndTagsContainingOrderByDateUploadedDesc(String userId, String tag);
 
+    Stream<Photo> streamByUserId(String userId);
+
+    List<Photo> findByVariantsIsNull(Pageable pageable);
+
+    Stream<Photo> streamByImageUrlRegex(String pattern);
+
+    Optional<Photo> findFirstByUserIdAndImageUrlAndVariantsIsNotNull(String userId, String imageUrl);
+
+    boolean existsByUserIdAndImageUrl(String userId, String imageUrl);
+
 }
@@ -0,0 +1,40 @@
+package com.lifelogger.repository;
+
+import com.lifelogger.model.Photo;
+import com.lifelogger.util.Projection;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+public interface PhotoRepositoryCustom {
+
+    /**
+     * Next page after {@code after} in list order, optionally restricted to
+     * {@code from}..{@code to} (inclusive days) on {@code dateUploaded}.
+     */
+    default List<Photo> findPageByUserId(String userId, Photo after, LocalDate from, LocalDate to, int limit) {
+        return findPageByUserId(userId, after, from, to, limit, null);
+    }
+
+    /**
+     * Like {@link #findPageByUserId(String, Photo, LocalDate, LocalDate, int)},
+     * reading only the properties in {@code projection} if it is not
+     * {@code null}.
+     */
+    List<Photo> findPageByUserId(String userId, Photo after, LocalDate from, LocalDate to, int limit,
+                                 Projection projection);
+
+    /**
+     * Sets the variants of every photo of the user that points at this file and
+     * returns how many were updated.
+     */
+    long updateVariants(String userId, String imageUrl, Map<String, String> variants);
+
+    /**
+     * Points the photo at a moved file, unless its image URL changed since
+     * {@code oldImageUrl} was read.
+     */
+    boolean relocate(String id, String oldImageUrl, String imageUrl, Map<String, String> variants);
+
+}
@@ -0,0 +1,56 @@
+package com.lifelogger.repository;
+
+import com.lifelogger.model.Photo;
+import com.lifelogger.util.Projection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static com.lifelogger.repository.KeysetCriteria.key;
+
+public class PhotoRepositoryCustomImpl implements PhotoRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Photo> findPageByUserId(String userId, Photo after, LocalDate from, LocalDate to, int limit,
+                                        Projection projection) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        criteria = KeysetCriteria.window(criteria, "dateUploaded",
+                from != null ? from.atStartOfDay() : null, to != null ? to.plusDays(1).atStartOfDay() : null);
+        if (after != null) {
+            criteria = criteria.andOperator(KeysetCriteria.after(
+                    key("dateUploaded", after.getDateUploaded()),
+                    key("id", after.getId())));
+        }
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "dateUploaded", "id"))
+                .limit(limit);
+        if (projection != null) {
+            projection.applyTo(query, "dateUploaded");
+        }
+        return mongoTemplate.find(query, Photo.class);
+    }
+
+    @Override
+    public long updateVariants(String userId, String imageUrl, Map<String, String> variants) {
+        Query query = new Query(Criteria.where("userId").is(userId).and("imageUrl").is(imageUrl));
+        return mongoTemplate.updateMulti(query, Update.update("variants", variants), Photo.class)
+                .getMatchedCount();
+    }
+
+    @Override
+    public boolean relocate(String id, String oldImageUrl, String imageUrl, Map<String, String> variants) {
+        Query query = new Query(Criteria.where("id").is(id).and("imageUrl").is(oldImageUrl));
+        Update update = Update.update("imageUrl", imageUrl).set("variants", variants);
+        return mongoTemplate.updateFirst(query, update, Photo.class).getMatchedCount() > 0;
+    }
+}
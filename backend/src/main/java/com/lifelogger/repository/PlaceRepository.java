@@ -3,15 +3,18 @@ package com.lifelogger.repository;
 import com.lifelogger.model.Place;
 import com.lifelogger.model.PlaceStatus;
 import com.lifelogger.model.PlaceType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface PlaceRepository extends MongoRepository<Place, String> {
+public interface PlaceRepository
+        extends MongoRepository<Place, String>, PlaceRepositoryCustom, BulkInsertRepository<Place> {
 
-    List<Place> findByUserId(String userId);
+    List<Place> findByUserIdOrderByDateVisitedDesc(String userId, Limit limit);
 
     List<Place> findByUserIdAndStatus(String userId, PlaceStatus status);
 
@@ -19,4 +22,6 @@ public interface PlaceRepository extends MongoRepository<Place, String> {
 
     List<Place> findByUserIdAndTagsContaining(String userId, String tag);
 
+    Stream<Place> streamByUserId(String userId);
+
 }
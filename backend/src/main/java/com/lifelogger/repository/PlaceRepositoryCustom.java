@@ -0,0 +1,60 @@
+package com.lifelogger.repository;
+
+import com.lifelogger.model.Place;
+import com.lifelogger.util.Projection;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.GeoResults;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.geo.GeoJsonPolygon;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface PlaceRepositoryCustom {
+
+    /**
+     * Next page after {@code after} in list order, optionally restricted to
+     * {@code from}..{@code to} (inclusive days) on {@code dateVisited}.
+     */
+    default List<Place> findPageByUserId(String userId, Place after, LocalDate from, LocalDate to, int limit) {
+        return findPageByUserId(userId, after, from, to, limit, null);
+    }
+
+    /**
+     * Like {@link #findPageByUserId(String, Place, LocalDate, LocalDate, int)},
+     * reading only the properties in {@code projection} if it is not
+     * {@code null}.
+     */
+    List<Place> findPageByUserId(String userId, Place after, LocalDate from, LocalDate to, int limit,
+                                 Projection projection);
+
+    /**
+     * The user's places within {@code maxDistance} of {@code point}, nearest first.
+     */
+    GeoResults<Place> findNear(String userId, GeoJsonPoint point, Distance maxDistance, int limit);
+
+    /**
+     * The user's places inside any of {@code areas}.
+     */
+    List<Place> findWithin(String userId, List<GeoJsonPolygon> areas, int limit);
+
+    /**
+     * Sets {@code location} from {@code latitude}/{@code longitude} on every place
+     * that has valid coordinates but no location yet. Returns the number updated.
+     */
+    long backfillLocations();
+
+    /**
+     * Stores the place's editable fields and location if a place with its id
+     * and user id exists. Returns the stored place as it was before, or
+     * {@code null} if there is none.
+     */
+    Place updateOwned(Place place);
+
+    /**
+     * Removes the user's place with this id, returning it, or {@code null} if
+     * there is none.
+     */
+    Place removeOwned(String id, String userId);
+
+}
@@ -0,0 +1,106 @@
+package com.lifelogger.repository;
+
+import com.lifelogger.model.Place;
+import com.lifelogger.util.Projection;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.GeoResults;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.geo.GeoJsonPolygon;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.NearQuery;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.lifelogger.repository.KeysetCriteria.key;
+
+public class PlaceRepositoryCustomImpl implements PlaceRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Place> findPageByUserId(String userId, Place after, LocalDate from, LocalDate to, int limit,
+                                        Projection projection) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        criteria = KeysetCriteria.window(criteria, "dateVisited", from, to != null ? to.plusDays(1) : null);
+        if (after != null) {
+            criteria = criteria.andOperator(KeysetCriteria.after(
+                    key("dateVisited", after.getDateVisited()),
+                    key("id", after.getId())));
+        }
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "dateVisited", "id"))
+                .limit(limit);
+        if (projection != null) {
+            projection.applyTo(query, "dateVisited");
+        }
+        return mongoTemplate.find(query, Place.class);
+    }
+
+    @Override
+    public GeoResults<Place> findNear(String userId, GeoJsonPoint point, Distance maxDistance, int limit) {
+        NearQuery nearQuery = NearQuery.near(point)
+                .spherical(true)
+                .maxDistance(maxDistance)
+                .query(new Query(Criteria.where("userId").is(userId)))
+                .limit(limit);
+        return mongoTemplate.geoNear(nearQuery, Place.class);
+    }
+
+    @Override
+    public List<Place> findWithin(String userId, List<GeoJsonPolygon> areas, int limit) {
+        List<Criteria> within = new ArrayList<>(areas.size());
+        for (GeoJsonPolygon area : areas) {
+            within.add(Criteria.where("location").within(area));
+        }
+        Criteria criteria = Criteria.where("userId").is(userId);
+        criteria = within.size() == 1
+                ? criteria.andOperator(within.get(0))
+                : criteria.orOperator(within);
+        return mongoTemplate.find(new Query(criteria).limit(limit), Place.class);
+    }
+
+    @Override
+    public long backfillLocations() {
+        Document filter = new Document("location", null)
+                .append("latitude", new Document("$type", "number").append("$gte", -90).append("$lte", 90))
+                .append("longitude", new Document("$type", "number").append("$gte", -180).append("$lte", 180));
+        // Pipeline update, so the point is built server-side without loading any place
+        List<Document> pipeline = List.of(new Document("$set", new Document("location",
+                new Document("type", "Point").append("coordinates", List.of("$longitude", "$latitude")))));
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Place.class))
+                .updateMany(filter, pipeline)
+                .getModifiedCount();
+    }
+
+    @Override
+    public Place updateOwned(Place place) {
+        Query query = new Query(Criteria.where("id").is(place.getId()).and("userId").is(place.getUserId()));
+        Update update = new Update()
+                .set("name", place.getName())
+                .set("type", place.getType())
+                .set("status", place.getStatus())
+                .set("latitude", place.getLatitude())
+                .set("longitude", place.getLongitude())
+                .set("location", place.getLocation())
+                .set("dateVisited", place.getDateVisited())
+                .set("experienceNote", place.getExperienceNote())
+                .set("mood", place.getMood())
+                .set("tags", place.getTags());
+        return mongoTemplate.findAndModify(query, update, Place.class);
+    }
+
+    @Override
+    public Place removeOwned(String id, String userId) {
+        return mongoTemplate.findAndRemove(new Query(Criteria.where("id").is(id).and("userId").is(userId)),
+                Place.class);
+    }
+}
@@ -0,0 +1,29 @@
+package com.lifelogger.repository;
+
+import com.lifelogger.model.Journal;
+import com.lifelogger.model.Mood;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+
+/**
+ * Non-blocking reads of the {@link JournalRepository} query shapes, used by the
+ * reactive profile.
+ */
+@Repository
+public interface ReactiveJournalRepository extends ReactiveMongoRepository<Journal, String> {
+
+    Flux<Journal> findByUserIdAndIsDeletedFalseOrderByDateDescTimeDesc(String userId, Limit limit);
+
+    Flux<Journal> findByUserIdAndDateAndIsDeletedFalse(String userId, LocalDate date);
+
+    Flux<Journal> findByUserIdAndMoodAndIsDeletedFalse(String userId, Mood mood);
+
+    Flux<Journal> findByUserIdAndTagsContainingAndIsDeletedFalse(String userId, String tag);
+
+    Flux<Journal> findByUserIdAndContextAndIsDeletedFalse(String userId, String context);
+
+}
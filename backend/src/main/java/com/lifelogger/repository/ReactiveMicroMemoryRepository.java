@@ -0,0 +1,23 @@
+package com.lifelogger.repository;
+
+import com.lifelogger.model.MicroMemory;
+import com.lifelogger.model.Mood;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking reads of the {@link MicroMemoryRepository} query shapes, used by
+ * the reactive profile.
+ */
+@Repository
+public interface ReactiveMicroMemoryRepository extends ReactiveMongoRepository<MicroMemory, String> {
+
+    Flux<MicroMemory> findByUserIdOrderByTimestampDesc(String userId, Limit limit);
+
+    Flux<MicroMemory> findByUserIdAndMoodOrderByTimestampDesc(String userId, Mood mood);
+
+    Flux<MicroMemory> findByUserIdAndTagsContainingOrderByTimestampDesc(String userId, String tag);
+
+}
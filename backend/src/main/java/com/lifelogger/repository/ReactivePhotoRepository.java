@@ -0,0 +1,23 @@
+package com.lifelogger.repository;
+
+import com.lifelogger.model.Mood;
+import com.lifelogger.model.Photo;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking reads of the {@link PhotoRepository} query shapes, used by the
+ * reactive profile.
+ */
+@Repository
+public interface ReactivePhotoRepository extends ReactiveMongoRepository<Photo, String> {
+
+    Flux<Photo> findByUserIdOrderByDateUploadedDesc(String userId, Limit limit);
+
+    Flux<Photo> findByUserIdAndMoodOrderByDateUploadedDesc(String userId, Mood mood);
+
+    Flux<Photo> findByUserIdAndTagsContainingOrderByDateUploadedDesc(String userId, String tag);
+
+}
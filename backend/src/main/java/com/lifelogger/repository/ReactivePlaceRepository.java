@@ -0,0 +1,26 @@
+package com.lifelogger.repository;
+
+import com.lifelogger.model.Place;
+import com.lifelogger.model.PlaceStatus;
+import com.lifelogger.model.PlaceType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking reads of the {@link PlaceRepository} query shapes, used by the
+ * reactive profile.
+ */
+@Repository
+public interface ReactivePlaceRepository extends ReactiveMongoRepository<Place, String> {
+
+    Flux<Place> findByUserIdOrderByDateVisitedDesc(String userId, Limit limit);
+
+    Flux<Place> findByUserIdAndStatus(String userId, PlaceStatus status);
+
+    Flux<Place> findByUserIdAndType(String userId, PlaceType type);
+
+    Flux<Place> findByUserIdAndTagsContaining(String userId, String tag);
+
+}
@@ -0,0 +1,29 @@
+package com.lifelogger.repository;
+
+import com.lifelogger.model.Taste;
+import com.lifelogger.model.TasteType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking reads of the {@link TasteRepository} query shapes, used by the
+ * reactive profile.
+ */
+@Repository
+public interface ReactiveTasteRepository extends ReactiveMongoRepository<Taste, String> {
+
+    Flux<Taste> findByUserIdOrderByDateConsumedDesc(String userId, Limit limit);
+
+    Flux<Taste> findByUserIdAndTypeOrderByDateConsumedDesc(String userId, TasteType type);
+
+    Flux<Taste> findByUserIdOrderByRatingDesc(String userId);
+
+    @Query("{ 'userId': ?0, $or: [ { 'title': { $regex: ?1, $options: 'i' } }, { 'personalNote': { $regex: ?1, $options: 'i' } } ] }")
+    Flux<Taste> searchByTitleOrNote(String userId, String searchText);
+
+    Flux<Taste> findByUserIdAndTagsContaining(String userId, String tag);
+
+}
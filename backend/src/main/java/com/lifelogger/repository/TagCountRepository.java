@@ -0,0 +1,16 @@
+package com.lifelogger.repository;
+
+import com.lifelogger.model.TagCount;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TagCountRepository extends MongoRepository<TagCount, String>, TagCountRepositoryCustom {
+
+    List<TagCount> findByUserIdAndTotalGreaterThan(String userId, int total);
+
+    void deleteByUserId(String userId);
+
+}
@@ -0,0 +1,11 @@
+package com.lifelogger.repository;
+
+public interface TagCountRepositoryCustom {
+
+    /**
+     * Adds {@code delta} to the user's count of {@code tag} for {@code type},
+     * creating the entry if needed.
+     */
+    void increment(String userId, String tag, String type, int delta);
+
+}
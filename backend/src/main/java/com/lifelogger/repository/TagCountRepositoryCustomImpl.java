@@ -0,0 +1,25 @@
+package com.lifelogger.repository;
+
+import com.lifelogger.model.TagCount;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+public class TagCountRepositoryCustomImpl implements TagCountRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void increment(String userId, String tag, String type, int delta) {
+        Query query = new Query(Criteria.where("id").is(TagCount.idOf(userId, tag)));
+        Update update = new Update()
+                .inc("total", delta)
+                .inc("counts." + type, delta)
+                .setOnInsert("userId", userId)
+                .setOnInsert("tag", tag);
+        mongoTemplate.upsert(query, update, TagCount.class);
+    }
+}
@@ -2,16 +2,19 @@ package com.lifelogger.repository;
 
 import com.lifelogger.model.Taste;
 import com.lifelogger.model.TasteType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface TasteRepository extends MongoRepository<Taste, String> {
+public interface TasteRepository
+        extends MongoRepository<Taste, String>, TasteRepositoryCustom, BulkInsertRepository<Taste> {
 
-    List<Taste> findByUserIdOrderByDateConsumedDesc(String userId);
+    List<Taste> findByUserIdOrderByDateConsumedDesc(String userId, Limit limit);
 
     List<Taste> findByUserIdAndTypeOrderByDateConsumedDesc(String userId, TasteType type);
 
@@ -22,4 +25,6 @@ public interface TasteRepository extends MongoRepository<Taste, String> {
 
     List<Taste> findByUserIdAndTagsContaining(String userId, String tag);
 
+    Stream<Taste> streamByUserId(String userId);
+
 }
@@ -0,0 +1,40 @@
+package com.lifelogger.repository;
+
+import com.lifelogger.model.Taste;
+import com.lifelogger.util.Projection;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface TasteRepositoryCustom {
+
+    /**
+     * Next page after {@code after} in list order, optionally restricted to
+     * {@code from}..{@code to} (inclusive days) on {@code dateConsumed}.
+     */
+    default List<Taste> findPageByUserId(String userId, Taste after, LocalDate from, LocalDate to, int limit) {
+        return findPageByUserId(userId, after, from, to, limit, null);
+    }
+
+    /**
+     * Like {@link #findPageByUserId(String, Taste, LocalDate, LocalDate, int)},
+     * reading only the properties in {@code projection} if it is not
+     * {@code null}.
+     */
+    List<Taste> findPageByUserId(String userId, Taste after, LocalDate from, LocalDate to, int limit,
+                                 Projection projection);
+
+    /**
+     * Stores the taste's editable fields if a taste with its id and user id
+     * exists. Returns the stored taste as it was before, or {@code null} if
+     * there is none.
+     */
+    Taste updateOwned(Taste taste);
+
+    /**
+     * Removes the user's taste with this id, returning it, or {@code null} if
+     * there is none.
+     */
+    Taste removeOwned(String id, String userId);
+
+}
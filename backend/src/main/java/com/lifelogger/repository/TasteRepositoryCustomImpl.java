@@ -0,0 +1,60 @@
+package com.lifelogger.repository;
+
+import com.lifelogger.model.Taste;
+import com.lifelogger.util.Projection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.lifelogger.repository.KeysetCriteria.key;
+
+public class TasteRepositoryCustomImpl implements TasteRepositoryCustom {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public List<Taste> findPageByUserId(String userId, Taste after, LocalDate from, LocalDate to, int limit,
+                                        Projection projection) {
+        Criteria criteria = Criteria.where("userId").is(userId);
+        criteria = KeysetCriteria.window(criteria, "dateConsumed", from, to != null ? to.plusDays(1) : null);
+        if (after != null) {
+            criteria = criteria.andOperator(KeysetCriteria.after(
+                    key("dateConsumed", after.getDateConsumed()),
+                    key("id", after.getId())));
+        }
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "dateConsumed", "id"))
+                .limit(limit);
+        if (projection != null) {
+            projection.applyTo(query, "dateConsumed");
+        }
+        return mongoTemplate.find(query, Taste.class);
+    }
+
+    @Override
+    public Taste updateOwned(Taste taste) {
+        Query query = new Query(Criteria.where("id").is(taste.getId()).and("userId").is(taste.getUserId()));
+        Update update = new Update()
+                .set("type", taste.getType())
+                .set("title", taste.getTitle())
+                .set("dateConsumed", taste.getDateConsumed())
+                .set("personalNote", taste.getPersonalNote())
+                .set("rating", taste.getRating())
+                .set("mood", taste.getMood())
+                .set("tags", taste.getTags());
+        return mongoTemplate.findAndModify(query, update, Taste.class);
+    }
+
+    @Override
+    public Taste removeOwned(String id, String userId) {
+        return mongoTemplate.findAndRemove(new Query(Criteria.where("id").is(id).and("userId").is(userId)),
+                Taste.class);
+    }
+}
@@ -0,0 +1,19 @@
+package com.lifelogger.repository;
+
+import java.util.Map;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Increments the user's version of {@code type} and returns the new
+     * version, or 0 if there is no such user.
+     */
+    long incrementCollectionVersion(String userId, String type);
+
+    /**
+     * The user's collection versions by entry type, without the rest of the
+     * user document. Types never written to are absent.
+     */
+    Map<String, Long> findCollectionVersions(String userId);
+
+}
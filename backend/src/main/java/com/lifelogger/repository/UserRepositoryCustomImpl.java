@@ -0,0 +1,41 @@
+package com.lifelogger.repository;
+
+import com.lifelogger.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Map;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private static final String VERSIONS = "collectionVersions";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public long incrementCollectionVersion(String userId, String type) {
+        Query query = new Query(Criteria.where("id").is(userId));
+        query.fields().include(VERSIONS + "." + type);
+        User user = mongoTemplate.findAndModify(query, new Update().inc(VERSIONS + "." + type, 1),
+                FindAndModifyOptions.options().returnNew(true), User.class);
+        return user != null ? versionOf(user.getCollectionVersions(), type) : 0;
+    }
+
+    @Override
+    public Map<String, Long> findCollectionVersions(String userId) {
+        Query query = new Query(Criteria.where("id").is(userId));
+        query.fields().include(VERSIONS);
+        User user = mongoTemplate.findOne(query, User.class);
+        return user != null && user.getCollectionVersions() != null ? user.getCollectionVersions() : Map.of();
+    }
+
+    private static long versionOf(Map<String, Long> versions, String type) {
+        Long version = versions != null ? versions.get(type) : null;
+        return version != null ? version : 0;
+    }
+}
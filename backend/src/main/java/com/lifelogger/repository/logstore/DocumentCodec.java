@@ -0,0 +1,79 @@
+package com.lifelogger.repository.logstore;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Entities to and from the JSON stored in log records. Unlike the API's
+ * mapper it ignores Jackson annotations, so fields hidden from clients with
+ * {@code @JsonIgnore} (search terms, GeoJSON locations) are stored too.
+ */
+final class DocumentCodec<T> {
+
+    private static final ObjectMapper MAPPER = JsonMapper.builder()
+            .disable(MapperFeature.USE_ANNOTATIONS)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .addModule(new JavaTimeModule())
+            .addModule(new SimpleModule()
+                    .addSerializer(GeoJsonPoint.class, new GeoJsonPointSerializer())
+                    .addDeserializer(GeoJsonPoint.class, new GeoJsonPointDeserializer()))
+            .build();
+
+    private final Class<T> type;
+
+    DocumentCodec(Class<T> type) {
+        this.type = type;
+    }
+
+    byte[] encode(T document) {
+        try {
+            return MAPPER.writeValueAsBytes(document);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    T decode(byte[] bytes) {
+        try {
+            return MAPPER.readValue(bytes, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // [longitude, latitude], as in GeoJSON
+    private static final class GeoJsonPointSerializer extends JsonSerializer<GeoJsonPoint> {
+
+        @Override
+        public void serialize(GeoJsonPoint point, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            generator.writeArray(new double[] { point.getX(), point.getY() }, 0, 2);
+        }
+    }
+
+    private static final class GeoJsonPointDeserializer extends JsonDeserializer<GeoJsonPoint> {
+
+        @Override
+        public GeoJsonPoint deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            JsonNode coordinates = parser.readValueAsTree();
+            return new GeoJsonPoint(coordinates.get(0).asDouble(), coordinates.get(1).asDouble());
+        }
+    }
+}
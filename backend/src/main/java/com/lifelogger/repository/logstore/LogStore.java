@@ -0,0 +1,102 @@
+package com.lifelogger.repository.logstore;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Persists the {@code memory} profile's repositories to disk when the
+ * {@code logstore} profile is active: one {@link SegmentLog} per collection
+ * under {@code logstore.dir}, compacted in the background once enough of its
+ * sealed segments is garbage.
+ */
+@Component
+@Profile("logstore")
+public class LogStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogStore.class);
+
+    @Value("${logstore.dir:data/logstore}")
+    private Path directory;
+
+    @Value("${logstore.segment-bytes:67108864}")
+    private long segmentBytes;
+
+    @Value("${logstore.fsync:true}")
+    private boolean fsync;
+
+    @Value("${logstore.compaction.interval-seconds:60}")
+    private long compactionIntervalSeconds;
+
+    @Value("${logstore.compaction.min-garbage-ratio:0.5}")
+    private double minGarbageRatio;
+
+    private final Map<String, Compactable<?>> logs = new ConcurrentHashMap<>();
+    private ScheduledExecutorService compactor;
+
+    @PostConstruct
+    public void start() {
+        logger.info("Storing data in {} (fsync {})", directory.toAbsolutePath(), fsync ? "on" : "off");
+        compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "logstore-compaction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactor.scheduleWithFixedDelay(this::compactAll,
+                compactionIntervalSeconds, compactionIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Opens the log of a collection. {@code current} returns a document's
+     * latest version by id, or {@code null} if it was deleted, for compaction.
+     */
+    public <T> SegmentLog<T> open(String collection, Class<T> type, Function<String, T> current) {
+        SegmentLog<T> log = new SegmentLog<>(directory.resolve(collection), type, segmentBytes, fsync);
+        if (logs.putIfAbsent(collection, new Compactable<>(log, current)) != null) {
+            throw new IllegalStateException("Log for " + collection + " is already open");
+        }
+        return log;
+    }
+
+    /**
+     * Compacts every log whose sealed segments are at least
+     * {@code logstore.compaction.min-garbage-ratio} garbage.
+     */
+    public void compactAll() {
+        logs.forEach((collection, compactable) -> {
+            try {
+                if (compactable.log.sealedBytes() > 0 && compactable.log.garbageRatio() >= minGarbageRatio) {
+                    long reclaimed = compactable.compact();
+                    logger.info("Compacted {}, reclaiming {} KB", collection, reclaimed / 1024);
+                }
+            } catch (RuntimeException e) {
+                logger.error("Compaction of {} failed", collection, e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        compactor.shutdownNow();
+        logs.values().forEach(compactable -> compactable.log.close());
+    }
+
+    private record Compactable<T>(SegmentLog<T> log, Function<String, T> current) {
+
+        long compact() {
+            return log.compact(current);
+        }
+    }
+}
@@ -0,0 +1,440 @@
+package com.lifelogger.repository.logstore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * One collection's append-only log: numbered segment files in a directory,
+ * of which only the newest is written to. Every write appends the whole
+ * document, or a tombstone for a delete, and the log remembers which segment
+ * holds each document's latest record so it knows how much of every segment
+ * is garbage.
+ * <p>
+ * Records are {@code [length][crc32c][kind][id length][id][json]}. Segments
+ * are read through memory maps, on recovery and compaction only: documents
+ * are served from the repository's heap copy.
+ * <p>
+ * Writers call {@link #awaitDurable} after appending. The first waiter
+ * fsyncs everything written so far while later ones queue behind it, so under
+ * concurrent writes one fsync commits a whole group.
+ * <p>
+ * Compaction rewrites the live documents of all sealed segments into one
+ * {@code .compact} file numbered like the newest of them, which supersedes
+ * every file up to that number; recovery deletes whatever a crash left behind.
+ */
+public final class SegmentLog<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentLog.class);
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final int HEADER = 8;
+    private static final String LOG = ".log";
+    private static final String COMPACT = ".compact";
+
+    private final Path directory;
+    private final DocumentCodec<T> codec;
+    private final long segmentSize;
+    private final boolean fsync;
+
+    private final Map<String, Location> locations = new ConcurrentHashMap<>();
+    // Sealed segments by number, oldest first; guarded by writeLock like active
+    private final TreeMap<Long, Segment> sealed = new TreeMap<>();
+    private Segment active;
+    private FileChannel activeChannel;
+    private long written;
+    private volatile long durable;
+
+    private final Lock writeLock = new ReentrantLock();
+    private final Lock syncLock = new ReentrantLock();
+    private final Lock compactionLock = new ReentrantLock();
+
+    SegmentLog(Path directory, Class<T> type, long segmentSize, boolean fsync) {
+        this.directory = directory;
+        this.codec = new DocumentCodec<>(type);
+        this.segmentSize = segmentSize;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Replays the log into {@code put} and {@code delete}, oldest record first,
+     * and opens a new segment for writing.
+     */
+    public void recover(BiConsumer<String, T> put, Consumer<String> delete) {
+        try {
+            Files.createDirectories(directory);
+            List<Path> files;
+            try (Stream<Path> listing = Files.list(directory)) {
+                files = listing.sorted().toList();
+            }
+
+            long compacted = -1;
+            for (Path file : files) {
+                if (file.toString().endsWith(COMPACT)) {
+                    compacted = Math.max(compacted, number(file));
+                }
+            }
+            List<Path> segments = new ArrayList<>();
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                boolean log = name.endsWith(LOG);
+                boolean compact = name.endsWith(COMPACT);
+                if ((!log && !compact) || (log && number(file) <= compacted) || (compact && number(file) < compacted)) {
+                    // Left behind by a compaction that was interrupted or had not cleaned up yet
+                    Files.delete(file);
+                    continue;
+                }
+                segments.add(file);
+            }
+
+            long last = compacted;
+            for (int i = 0; i < segments.size(); i++) {
+                Path file = segments.get(i);
+                Segment segment = new Segment(number(file), file);
+                // Only the segment that was being written can end in a torn record
+                boolean active = i == segments.size() - 1 && file.toString().endsWith(LOG);
+                replay(segment, active, put, delete);
+                sealed.put(segment.number, segment);
+                last = Math.max(last, segment.number);
+            }
+            openSegment(last + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot recover " + directory, e);
+        }
+    }
+
+    private void replay(Segment segment, boolean active, BiConsumer<String, T> put, Consumer<String> delete)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(segment.path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int position = 0;
+            CRC32C crc = new CRC32C();
+            while (position + HEADER <= size) {
+                int length = buffer.getInt(position);
+                int checksum = buffer.getInt(position + 4);
+                if (length <= 3 || position + HEADER + length > size) {
+                    break;
+                }
+                ByteBuffer body = buffer.slice(position + HEADER, length);
+                crc.reset();
+                crc.update(body.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                byte kind = body.get();
+                byte[] id = new byte[body.getShort()];
+                body.get(id);
+                String key = new String(id, StandardCharsets.UTF_8);
+                int recordSize = HEADER + length;
+                if (kind == PUT) {
+                    byte[] json = new byte[body.remaining()];
+                    body.get(json);
+                    put.accept(key, codec.decode(json));
+                    track(key, new Location(segment, recordSize));
+                } else {
+                    delete.accept(key);
+                    untrack(key);
+                    segment.garbage.addAndGet(recordSize);
+                }
+                segment.size.addAndGet(recordSize);
+                position += recordSize;
+            }
+            if (position < size && !active) {
+                // Sealed segments were synced before the next one was opened, so this is not a crash
+                throw new IOException("Corrupt record in sealed segment " + segment.path + " at offset " + position);
+            }
+            if (position < size) {
+                // A write torn by a crash; nothing after it was acknowledged
+                logger.warn("Truncating {} from {} to {} bytes", segment.path, size, position);
+                channel.truncate(position);
+            }
+        }
+    }
+
+    /**
+     * Appends the document's new version and returns the ticket to wait for.
+     */
+    public long put(String id, T document) {
+        return append(PUT, id, codec.encode(document));
+    }
+
+    public long delete(String id) {
+        return append(DELETE, id, new byte[0]);
+    }
+
+    private long append(byte kind, String id, byte[] json) {
+        byte[] key = id.getBytes(StandardCharsets.UTF_8);
+        int length = 3 + key.length + json.length;
+        ByteBuffer record = ByteBuffer.allocate(HEADER + length);
+        record.position(HEADER).put(kind).putShort((short) key.length).put(key).put(json);
+        CRC32C crc = new CRC32C();
+        crc.update(record.array(), HEADER, length);
+        record.putInt(0, length).putInt(4, (int) crc.getValue()).rewind();
+
+        writeLock.lock();
+        try {
+            if (active.size.get() > 0 && active.size.get() + record.remaining() > segmentSize) {
+                roll();
+            }
+            while (record.hasRemaining()) {
+                activeChannel.write(record);
+            }
+            active.size.addAndGet(HEADER + length);
+            if (kind == PUT) {
+                track(id, new Location(active, HEADER + length));
+            } else {
+                untrack(id);
+                active.garbage.addAndGet(HEADER + length);
+            }
+            return ++written;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to " + active.path, e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void track(String id, Location location) {
+        Location previous = locations.put(id, location);
+        if (previous != null) {
+            previous.segment.garbage.addAndGet(previous.size);
+        }
+    }
+
+    private void untrack(String id) {
+        Location previous = locations.remove(id);
+        if (previous != null) {
+            previous.segment.garbage.addAndGet(previous.size);
+        }
+    }
+
+    /**
+     * Returns once the write with this ticket is on disk.
+     */
+    public void awaitDurable(long ticket) {
+        if (!fsync || durable >= ticket) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (durable >= ticket) {
+                return;
+            }
+            long target;
+            FileChannel channel;
+            writeLock.lock();
+            try {
+                target = written;
+                channel = activeChannel;
+            } finally {
+                writeLock.unlock();
+            }
+            try {
+                channel.force(false);
+            } catch (ClosedChannelException e) {
+                // Rolled over since, which synced it
+            }
+            durable = target;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot sync " + directory, e);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    // Called with writeLock held
+    private void roll() throws IOException {
+        // Earlier tickets only wait for the active channel, so the old one is synced here
+        activeChannel.force(false);
+        activeChannel.close();
+        sealed.put(active.number, active);
+        openSegment(active.number + 1);
+    }
+
+    private void openSegment(long number) throws IOException {
+        active = new Segment(number, directory.resolve(String.format("%020d", number) + LOG));
+        activeChannel = FileChannel.open(active.path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        syncDirectory();
+    }
+
+    // Makes files created, renamed or deleted in the directory survive a crash
+    private void syncDirectory() throws IOException {
+        if (!fsync) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Share of the sealed segments' bytes taken by overwritten or deleted records.
+     */
+    double garbageRatio() {
+        writeLock.lock();
+        try {
+            long size = 0;
+            long garbage = 0;
+            for (Segment segment : sealed.values()) {
+                size += segment.size.get();
+                garbage += segment.garbage.get();
+            }
+            return size == 0 ? 0 : (double) garbage / size;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    long sealedBytes() {
+        writeLock.lock();
+        try {
+            return sealed.values().stream().mapToLong(segment -> segment.size.get()).sum();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Rewrites the documents whose latest record is in a sealed segment into a
+     * single compacted file, reading each one's current version from
+     * {@code current}, and deletes the segments it replaces. Returns the bytes reclaimed.
+     */
+    long compact(Function<String, T> current) {
+        compactionLock.lock();
+        try {
+            List<Segment> replaced;
+            writeLock.lock();
+            try {
+                if (sealed.isEmpty()) {
+                    return 0;
+                }
+                replaced = new ArrayList<>(sealed.values());
+            } finally {
+                writeLock.unlock();
+            }
+            long upTo = replaced.get(replaced.size() - 1).number;
+            long before = replaced.stream().mapToLong(segment -> segment.size.get()).sum();
+
+            Path temporary = directory.resolve(String.format("%020d", upTo) + ".tmp");
+            Segment compacted = new Segment(upTo, directory.resolve(String.format("%020d", upTo) + COMPACT));
+            Map<String, Location> moved = new ConcurrentHashMap<>();
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                CRC32C crc = new CRC32C();
+                for (Map.Entry<String, Location> entry : locations.entrySet()) {
+                    if (entry.getValue().segment.number > upTo) {
+                        continue;
+                    }
+                    T document = current.apply(entry.getKey());
+                    if (document == null) {
+                        // Deleted since; the tombstone is in a newer segment
+                        continue;
+                    }
+                    byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                    byte[] json = codec.encode(document);
+                    int length = 3 + key.length + json.length;
+                    ByteBuffer record = ByteBuffer.allocate(HEADER + length);
+                    record.position(HEADER).put(PUT).putShort((short) key.length).put(key).put(json);
+                    crc.reset();
+                    crc.update(record.array(), HEADER, length);
+                    record.putInt(0, length).putInt(4, (int) crc.getValue()).rewind();
+                    while (record.hasRemaining()) {
+                        channel.write(record);
+                    }
+                    compacted.size.addAndGet(HEADER + length);
+                    moved.put(entry.getKey(), new Location(compacted, HEADER + length));
+                }
+                channel.force(true);
+            }
+
+            writeLock.lock();
+            try {
+                Files.move(temporary, compacted.path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                // The old segments must not go before the compacted file is durably in place
+                syncDirectory();
+                moved.forEach((id, location) -> {
+                    Location previous = locations.computeIfPresent(id,
+                            (key, latest) -> latest.segment.number <= upTo && latest.segment != compacted ? location : latest);
+                    if (previous != location) {
+                        // Rewritten in a newer segment while compacting
+                        compacted.garbage.addAndGet(location.size);
+                    }
+                });
+                for (Segment segment : replaced) {
+                    sealed.remove(segment.number);
+                    if (!segment.path.equals(compacted.path)) {
+                        Files.deleteIfExists(segment.path);
+                    }
+                }
+                sealed.put(compacted.number, compacted);
+            } finally {
+                writeLock.unlock();
+            }
+            return before - compacted.size.get();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot compact " + directory, e);
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    void close() {
+        writeLock.lock();
+        try {
+            activeChannel.force(false);
+            activeChannel.close();
+        } catch (IOException e) {
+            logger.warn("Cannot close {}", active.path, e);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static long number(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.indexOf('.')));
+    }
+
+    private static final class Segment {
+
+        private final long number;
+        private final Path path;
+        private final AtomicLong size = new AtomicLong();
+        private final AtomicLong garbage = new AtomicLong();
+
+        Segment(long number, Path path) {
+            this.number = number;
+            this.path = path;
+        }
+    }
+
+    private record Location(Segment segment, int size) {
+    }
+}
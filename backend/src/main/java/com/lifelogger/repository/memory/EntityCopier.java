@@ -0,0 +1,64 @@
+package com.lifelogger.repository.memory;
+
+import org.springframework.beans.BeanUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Copies an entity property by property, with its own lists, sets and maps,
+ * so callers can change what a repository returned or stored without changing
+ * the stored document, as with a database.
+ */
+final class EntityCopier<T> {
+
+    private final Class<T> type;
+    private final List<Method[]> accessors = new ArrayList<>();
+
+    EntityCopier(Class<T> type) {
+        this.type = type;
+        for (PropertyDescriptor property : BeanUtils.getPropertyDescriptors(type)) {
+            if (property.getReadMethod() != null && property.getWriteMethod() != null) {
+                accessors.add(new Method[] { property.getReadMethod(), property.getWriteMethod() });
+            }
+        }
+    }
+
+    T copy(T source) {
+        T copy = BeanUtils.instantiateClass(type);
+        try {
+            for (Method[] accessor : accessors) {
+                accessor[1].invoke(copy, copyValue(accessor[0].invoke(source)));
+            }
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Cannot copy " + type.getSimpleName(), e);
+        }
+        return copy;
+    }
+
+    private static Object copyValue(Object value) {
+        if (value instanceof List<?> list) {
+            return new ArrayList<>(list);
+        }
+        if (value instanceof Set<?> set) {
+            return new LinkedHashSet<>(set);
+        }
+        if (value instanceof Map<?, ?> map) {
+            Map<Object, Object> copy = new LinkedHashMap<>(map.size() * 2);
+            map.forEach((key, nested) -> copy.put(key, copyValue(nested)));
+            return copy;
+        }
+        if (value instanceof Collection<?> collection) {
+            return new ArrayList<>(collection);
+        }
+        return value;
+    }
+}
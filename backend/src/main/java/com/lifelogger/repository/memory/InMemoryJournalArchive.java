@@ -0,0 +1,24 @@
+package com.lifelogger.repository.memory;
+
+import com.lifelogger.model.Journal;
+import com.lifelogger.repository.JournalRepositoryCustom;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Archived journals, kept apart from {@link InMemoryJournalRepository} as they
+ * are in MongoDB and with their own log under the {@code logstore} profile.
+ */
+@Repository
+@Profile("memory")
+class InMemoryJournalArchive extends InMemoryRepository<Journal> {
+
+    InMemoryJournalArchive() {
+        super(Journal.class, Journal::getId, Journal::setId, null, null);
+    }
+
+    @Override
+    protected String collection() {
+        return JournalRepositoryCustom.ARCHIVE_COLLECTION;
+    }
+}
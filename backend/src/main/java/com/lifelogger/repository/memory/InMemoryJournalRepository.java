@@ -0,0 +1,164 @@
+package com.lifelogger.repository.memory;
+
+import com.lifelogger.model.Journal;
+import com.lifelogger.model.Mood;
+import com.lifelogger.repository.JournalRepository;
+import com.lifelogger.util.Projection;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+@Repository
+@Profile("memory")
+public class InMemoryJournalRepository extends InMemoryRepository<Journal> implements JournalRepository {
+
+    @Autowired
+    private InMemoryJournalArchive archive;
+
+    public InMemoryJournalRepository() {
+        super(Journal.class, Journal::getId, Journal::setId, Journal::getUserId,
+                newestFirst(Journal::getId, Journal::getDate, Journal::getTime));
+        indexBy("date", Journal::getDate);
+        indexBy("mood", Journal::getMood);
+        indexByEach("tags", Journal::getTags);
+        indexBy("context", Journal::getContext);
+    }
+
+    @Override
+    protected void beforeSave(Journal journal, boolean isNew) {
+        LocalDateTime now = LocalDateTime.now();
+        if (journal.getCreatedAt() == null) {
+            journal.setCreatedAt(now);
+        }
+        journal.setUpdatedAt(now);
+    }
+
+    @Override
+    public List<Journal> findByUserIdAndIsDeletedFalseOrderByDateDescTimeDesc(String userId, Limit limit) {
+        return find(userId, journal -> !journal.isDeleted(), limit);
+    }
+
+    @Override
+    public List<Journal> findByUserIdAndDateAndIsDeletedFalse(String userId, LocalDate date) {
+        return findBy(userId, "date", date, journal -> !journal.isDeleted());
+    }
+
+    @Override
+    public List<Journal> findByUserIdAndMoodAndIsDeletedFalse(String userId, Mood mood) {
+        return findBy(userId, "mood", mood, journal -> !journal.isDeleted());
+    }
+
+    @Override
+    public List<Journal> findByUserIdAndTagsContainingAndIsDeletedFalse(String userId, String tag) {
+        return findBy(userId, "tags", tag, journal -> !journal.isDeleted());
+    }
+
+    @Override
+    public List<Journal> findByUserIdAndContextAndIsDeletedFalse(String userId, String context) {
+        return findBy(userId, "context", context, journal -> !journal.isDeleted());
+    }
+
+    @Override
+    public List<Journal> findByIsDeletedFalseAndSearchTermsIsNull(Pageable pageable) {
+        return pageOf(allDocuments().filter(journal -> !journal.isDeleted() && journal.getSearchTerms() == null),
+                pageable);
+    }
+
+    @Override
+    public Stream<Journal> streamByUserIdAndIsDeletedFalse(String userId) {
+        return stream(userId, journal -> !journal.isDeleted());
+    }
+
+    @Override
+    public List<Journal> searchByTerms(String userId, List<String> terms, List<String> prefixes) {
+        return find(userId, journal -> !journal.isDeleted() && matches(journal.getSearchTerms(), terms, prefixes));
+    }
+
+    private static boolean matches(List<String> searchTerms, List<String> terms, List<String> prefixes) {
+        if (terms.isEmpty() && prefixes.isEmpty()) {
+            return true;
+        }
+        if (searchTerms == null || !searchTerms.containsAll(terms)) {
+            return false;
+        }
+        return prefixes.stream().allMatch(prefix -> searchTerms.stream().anyMatch(term -> term.startsWith(prefix)));
+    }
+
+    @Override
+    public List<Journal> findPageByUserId(String userId, Journal after, LocalDate from, LocalDate to, int limit,
+                                          Projection projection) {
+        return page(userId, after, journal -> !journal.isDeleted(), Journal::getDate,
+                from, to != null ? to.plusDays(1) : null, limit);
+    }
+
+    @Override
+    public Journal updateActive(Journal journal) {
+        Journal[] previous = new Journal[1];
+        update(journal.getId(), stored -> {
+            if (stored.isDeleted()) {
+                return false;
+            }
+            previous[0] = copy(stored);
+            stored.setContent(journal.getContent());
+            stored.setMood(journal.getMood());
+            stored.setTags(journal.getTags());
+            stored.setContext(journal.getContext());
+            stored.setSearchTerms(journal.getSearchTerms());
+            stored.setUpdatedAt(journal.getUpdatedAt());
+            return true;
+        });
+        return previous[0];
+    }
+
+    @Override
+    public Journal softDelete(String id, LocalDateTime deletedAt) {
+        Journal[] previous = new Journal[1];
+        update(id, stored -> {
+            if (stored.isDeleted()) {
+                return false;
+            }
+            previous[0] = copy(stored);
+            stored.setDeleted(true);
+            stored.setDeletedAt(deletedAt);
+            stored.setUpdatedAt(deletedAt);
+            stored.setSearchTerms(null);
+            return true;
+        });
+        return previous[0];
+    }
+
+    @Override
+    public List<Journal> findDeletedBefore(LocalDateTime cutoff, int limit) {
+        return allDocuments()
+                .filter(journal -> journal.isDeleted() && (journal.getDeletedAt() != null
+                        ? journal.getDeletedAt().isBefore(cutoff)
+                        : journal.getUpdatedAt() != null && journal.getUpdatedAt().isBefore(cutoff)))
+                .limit(limit)
+                .map(this::copy)
+                .toList();
+    }
+
+    @Override
+    public long archiveDeleted(List<Journal> journals) {
+        archive.saveAll(journals);
+        return purgeDeleted(journals.stream().map(Journal::getId).toList());
+    }
+
+    @Override
+    public long purgeDeleted(List<String> ids) {
+        return ids.stream().filter(id -> removeIf(id, Journal::isDeleted) != null).count();
+    }
+
+    @Override
+    public Map<Integer, String> insertUnordered(List<Journal> journals) {
+        return insertEach(journals);
+    }
+}
@@ -0,0 +1,63 @@
+package com.lifelogger.repository.memory;
+
+import com.lifelogger.model.MicroMemory;
+import com.lifelogger.model.Mood;
+import com.lifelogger.repository.MicroMemoryRepository;
+import com.lifelogger.util.Projection;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+@Repository
+@Profile("memory")
+public class InMemoryMicroMemoryRepository extends InMemoryRepository<MicroMemory> implements MicroMemoryRepository {
+
+    public InMemoryMicroMemoryRepository() {
+        super(MicroMemory.class, MicroMemory::getId, MicroMemory::setId, MicroMemory::getUserId,
+                newestFirst(MicroMemory::getId, MicroMemory::getTimestamp));
+        indexBy("mood", MicroMemory::getMood);
+        indexByEach("tags", MicroMemory::getTags);
+    }
+
+    @Override
+    public List<MicroMemory> findByUserIdOrderByTimestampDesc(String userId, Limit limit) {
+        return find(userId, memory -> true, limit);
+    }
+
+    @Override
+    public List<MicroMemory> findByUserIdAndMoodOrderByTimestampDesc(String userId, Mood mood) {
+        return findBy(userId, "mood", mood, memory -> true);
+    }
+
+    @Override
+    public List<MicroMemory> findByUserIdAndTagsContainingOrderByTimestampDesc(String userId, String tag) {
+        return findBy(userId, "tags", tag, memory -> true);
+    }
+
+    @Override
+    public Stream<MicroMemory> streamByUserId(String userId) {
+        return stream(userId, memory -> true);
+    }
+
+    @Override
+    public List<MicroMemory> findPageByUserId(String userId, MicroMemory after, LocalDate from, LocalDate to, int limit,
+                                              Projection projection) {
+        return page(userId, after, memory -> true, MicroMemory::getTimestamp,
+                from != null ? from.atStartOfDay() : null, to != null ? to.plusDays(1).atStartOfDay() : null, limit);
+    }
+
+    @Override
+    public Map<Integer, String> insertUnordered(List<MicroMemory> memories) {
+        return insertEach(memories);
+    }
+
+    @Override
+    public MicroMemory removeOwned(String id, String userId) {
+        return copy(removeIf(id, stored -> stored.getUserId().equals(userId)));
+    }
+}
@@ -0,0 +1,52 @@
+package com.lifelogger.repository.memory;
+
+import com.lifelogger.model.Mood;
+import com.lifelogger.model.MoodRollup;
+import com.lifelogger.repository.MoodRollupRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Range;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+@Repository
+@Profile("memory")
+public class InMemoryMoodRollupRepository extends InMemoryRepository<MoodRollup> implements MoodRollupRepository {
+
+    public InMemoryMoodRollupRepository() {
+        super(MoodRollup.class, MoodRollup::getId, MoodRollup::setId, MoodRollup::getUserId,
+                newestFirst(MoodRollup::getId, MoodRollup::getDate));
+    }
+
+    @Override
+    public List<MoodRollup> findByUserIdAndDateBetweenOrderByDateAsc(String userId, Range<LocalDate> dates) {
+        List<MoodRollup> rollups = find(userId,
+                rollup -> rollup.getDate() != null && dates.contains(rollup.getDate(), LocalDate::compareTo));
+        Collections.reverse(rollups);
+        return rollups;
+    }
+
+    @Override
+    public void deleteByUserId(String userId) {
+        userDocuments(userId).stream().map(MoodRollup::getId).toList().forEach(this::deleteById);
+    }
+
+    @Override
+    public void increment(String userId, LocalDate date, String type, Mood mood, int delta) {
+        upsert(MoodRollup.idOf(userId, date), () -> {
+            MoodRollup rollup = new MoodRollup();
+            rollup.setUserId(userId);
+            rollup.setDate(date);
+            rollup.setCounts(new HashMap<>());
+            return rollup;
+        }, rollup -> {
+            if (rollup.getCounts() == null) {
+                rollup.setCounts(new HashMap<>());
+            }
+            rollup.getCounts().computeIfAbsent(type, key -> new HashMap<>()).merge(mood, delta, Integer::sum);
+        });
+    }
+}
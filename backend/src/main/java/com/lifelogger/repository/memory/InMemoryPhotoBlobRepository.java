@@ -0,0 +1,76 @@
+package com.lifelogger.repository.memory;
+
+import com.lifelogger.model.PhotoBlob;
+import com.lifelogger.repository.PhotoBlobRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+@Profile("memory")
+public class InMemoryPhotoBlobRepository extends InMemoryRepository<PhotoBlob> implements PhotoBlobRepository {
+
+    public InMemoryPhotoBlobRepository() {
+        super(PhotoBlob.class, PhotoBlob::getId, PhotoBlob::setId, null, null);
+    }
+
+    @Override
+    public PhotoBlob acquire(String userId, String contentHash, String imageUrl, long size) {
+        LocalDateTime abandoned = LocalDateTime.now().minus(PhotoBlob.DELETE_TIMEOUT);
+        boolean[] deleting = new boolean[1];
+        PhotoBlob acquired = upsert(PhotoBlob.idOf(userId, contentHash), () -> {
+            PhotoBlob blob = new PhotoBlob();
+            blob.setUserId(userId);
+            blob.setContentHash(contentHash);
+            blob.setImageUrl(imageUrl);
+            blob.setSize(size);
+            blob.setCreatedAt(LocalDateTime.now());
+            return blob;
+        }, blob -> {
+            if (blob.getDeletingAt() != null && blob.getDeletingAt().isAfter(abandoned)) {
+                deleting[0] = true;
+                return;
+            }
+            blob.setDeletingAt(null);
+            blob.setRefCount(blob.getRefCount() + 1);
+        });
+        return deleting[0] ? null : acquired;
+    }
+
+    @Override
+    public PhotoBlob release(String userId, String contentHash) {
+        String id = PhotoBlob.idOf(userId, contentHash);
+        PhotoBlob blob = update(id, stored -> {
+            if (stored.getRefCount() <= 0) {
+                return false;
+            }
+            stored.setRefCount(stored.getRefCount() - 1);
+            return true;
+        });
+        if (blob == null || blob.getRefCount() > 0) {
+            return null;
+        }
+        // Only mark it if no upload re-acquired the blob in the meantime
+        return update(id, stored -> {
+            if (stored.getRefCount() > 0 || stored.getDeletingAt() != null) {
+                return false;
+            }
+            stored.setDeletingAt(LocalDateTime.now());
+            return true;
+        });
+    }
+
+    @Override
+    public void remove(String userId, String contentHash) {
+        removeIf(PhotoBlob.idOf(userId, contentHash), stored -> stored.getDeletingAt() != null);
+    }
+
+    @Override
+    public void updateImageUrl(String userId, String contentHash, String imageUrl) {
+        update(PhotoBlob.idOf(userId, contentHash), blob -> {
+            blob.setImageUrl(imageUrl);
+            return true;
+        });
+    }
+}
@@ -0,0 +1,23 @@
+package com.lifelogger.repository.memory;
+
+import com.lifelogger.model.PhotoRelocation;
+import com.lifelogger.repository.PhotoRelocationRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.stream.Stream;
+
+@Repository
+@Profile("memory")
+public class InMemoryPhotoRelocationRepository extends InMemoryRepository<PhotoRelocation>
+        implements PhotoRelocationRepository {
+
+    public InMemoryPhotoRelocationRepository() {
+        super(PhotoRelocation.class, PhotoRelocation::getId, PhotoRelocation::setId, null, null);
+    }
+
+    @Override
+    public Stream<PhotoRelocation> streamAllBy() {
+        return findAll().stream();
+    }
+}
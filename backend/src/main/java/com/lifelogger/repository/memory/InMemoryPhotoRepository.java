@@ -0,0 +1,118 @@
+package com.lifelogger.repository.memory;
+
+import com.lifelogger.model.Mood;
+import com.lifelogger.model.Photo;
+import com.lifelogger.repository.PhotoRepository;
+import com.lifelogger.util.Projection;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+@Repository
+@Profile("memory")
+public class InMemoryPhotoRepository extends InMemoryRepository<Photo> implements PhotoRepository {
+
+    public InMemoryPhotoRepository() {
+        super(Photo.class, Photo::getId, Photo::setId, Photo::getUserId,
+                newestFirst(Photo::getId, Photo::getDateUploaded));
+        indexBy("mood", Photo::getMood);
+        indexByEach("tags", Photo::getTags);
+    }
+
+    @Override
+    public List<Photo> findByUserIdOrderByDateUploadedDesc(String userId, Limit limit) {
+        return find(userId, photo -> true, limit);
+    }
+
+    @Override
+    public List<Photo> findByUserIdAndMoodOrderByDateUploadedDesc(String userId, Mood mood) {
+        return findBy(userId, "mood", mood, photo -> true);
+    }
+
+    @Override
+    public List<Photo> findByUserIdAndTagsContainingOrderByDateUploadedDesc(String userId, String tag) {
+        return findBy(userId, "tags", tag, photo -> true);
+    }
+
+    @Override
+    public Stream<Photo> streamByUserId(String userId) {
+        return stream(userId, photo -> true);
+    }
+
+    @Override
+    public List<Photo> findByVariantsIsNull(Pageable pageable) {
+        return pageOf(allDocuments().filter(photo -> photo.getVariants() == null), pageable);
+    }
+
+    @Override
+    public Stream<Photo> streamByImageUrlRegex(String pattern) {
+        Pattern regex = Pattern.compile(pattern);
+        return allDocuments()
+                .filter(photo -> photo.getImageUrl() != null && regex.matcher(photo.getImageUrl()).find())
+                .map(this::copy)
+                .toList()
+                .stream();
+    }
+
+    @Override
+    public Optional<Photo> findFirstByUserIdAndImageUrlAndVariantsIsNotNull(String userId, String imageUrl) {
+        return find(userId, photo -> same(photo.getImageUrl(), imageUrl) && photo.getVariants() != null, 1)
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public boolean existsByUserIdAndImageUrl(String userId, String imageUrl) {
+        return !find(userId, photo -> same(photo.getImageUrl(), imageUrl), 1).isEmpty();
+    }
+
+    @Override
+    public List<Photo> findPageByUserId(String userId, Photo after, LocalDate from, LocalDate to, int limit,
+                                        Projection projection) {
+        return page(userId, after, photo -> true, Photo::getDateUploaded,
+                from != null ? from.atStartOfDay() : null, to != null ? to.plusDays(1).atStartOfDay() : null, limit);
+    }
+
+    @Override
+    public long updateVariants(String userId, String imageUrl, Map<String, String> variants) {
+        List<String> ids = userDocuments(userId).stream()
+                .filter(photo -> same(photo.getImageUrl(), imageUrl))
+                .map(Photo::getId)
+                .toList();
+        long matched = 0;
+        for (String id : ids) {
+            Photo updated = update(id, photo -> {
+                if (!same(photo.getImageUrl(), imageUrl)) {
+                    return false;
+                }
+                photo.setVariants(variants != null ? new HashMap<>(variants) : null);
+                return true;
+            });
+            if (updated != null) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    @Override
+    public boolean relocate(String id, String oldImageUrl, String imageUrl, Map<String, String> variants) {
+        return update(id, photo -> {
+            if (!same(photo.getImageUrl(), oldImageUrl)) {
+                return false;
+            }
+            photo.setImageUrl(imageUrl);
+            photo.setVariants(variants != null ? new HashMap<>(variants) : null);
+            return true;
+        }) != null;
+    }
+}
@@ -0,0 +1,209 @@
+package com.lifelogger.repository.memory;
+
+import com.lifelogger.model.Place;
+import com.lifelogger.model.PlaceStatus;
+import com.lifelogger.model.PlaceType;
+import com.lifelogger.repository.PlaceRepository;
+import com.lifelogger.util.Projection;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.GeoResult;
+import org.springframework.data.geo.GeoResults;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.geo.GeoJsonPolygon;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Repository
+@Profile("memory")
+public class InMemoryPlaceRepository extends InMemoryRepository<Place> implements PlaceRepository {
+
+    private static final double EARTH_RADIUS_KM = 6378.1;
+
+    public InMemoryPlaceRepository() {
+        super(Place.class, Place::getId, Place::setId, Place::getUserId,
+                newestFirst(Place::getId, Place::getDateVisited));
+        indexBy("status", Place::getStatus);
+        indexBy("type", Place::getType);
+        indexByEach("tags", Place::getTags);
+    }
+
+    @Override
+    public List<Place> findByUserIdOrderByDateVisitedDesc(String userId, Limit limit) {
+        return find(userId, place -> true, limit);
+    }
+
+    @Override
+    public List<Place> findByUserIdAndStatus(String userId, PlaceStatus status) {
+        return findBy(userId, "status", status, place -> true);
+    }
+
+    @Override
+    public List<Place> findByUserIdAndType(String userId, PlaceType type) {
+        return findBy(userId, "type", type, place -> true);
+    }
+
+    @Override
+    public List<Place> findByUserIdAndTagsContaining(String userId, String tag) {
+        return findBy(userId, "tags", tag, place -> true);
+    }
+
+    @Override
+    public Stream<Place> streamByUserId(String userId) {
+        return stream(userId, place -> true);
+    }
+
+    @Override
+    public List<Place> findPageByUserId(String userId, Place after, LocalDate from, LocalDate to, int limit,
+                                        Projection projection) {
+        return page(userId, after, place -> true, Place::getDateVisited,
+                from, to != null ? to.plusDays(1) : null, limit);
+    }
+
+    @Override
+    public GeoResults<Place> findNear(String userId, GeoJsonPoint point, Distance maxDistance, int limit) {
+        double maxKilometers = maxDistance.in(Metrics.KILOMETERS).getValue();
+        List<GeoResult<Place>> results = new ArrayList<>();
+        for (Place place : userDocuments(userId)) {
+            if (place.getLocation() != null) {
+                double kilometers = haversine(point, place.getLocation());
+                if (kilometers <= maxKilometers) {
+                    results.add(new GeoResult<>(place, new Distance(kilometers, Metrics.KILOMETERS)));
+                }
+            }
+        }
+        List<GeoResult<Place>> nearest = results.stream()
+                .sorted(Comparator.comparingDouble(result -> result.getDistance().getValue()))
+                .limit(limit)
+                .map(result -> new GeoResult<>(copy(result.getContent()), result.getDistance()))
+                .collect(Collectors.toList());
+        return new GeoResults<>(nearest, Metrics.KILOMETERS);
+    }
+
+    @Override
+    public List<Place> findWithin(String userId, List<GeoJsonPolygon> areas, int limit) {
+        List<double[][]> rings = areas.stream().map(InMemoryPlaceRepository::unwrap).toList();
+        return find(userId, place -> place.getLocation() != null
+                && rings.stream().anyMatch(ring -> inside(ring, place.getLocation())), limit);
+    }
+
+    @Override
+    public long backfillLocations() {
+        List<String> unlocated = allDocuments()
+                .filter(place -> place.getLocation() == null && valid(place))
+                .map(Place::getId)
+                .toList();
+        long located = 0;
+        for (String id : unlocated) {
+            Place updated = update(id, place -> {
+                if (place.getLocation() != null || !valid(place)) {
+                    return false;
+                }
+                place.setLocation(new GeoJsonPoint(place.getLongitude(), place.getLatitude()));
+                return true;
+            });
+            if (updated != null) {
+                located++;
+            }
+        }
+        return located;
+    }
+
+    @Override
+    public Map<Integer, String> insertUnordered(List<Place> places) {
+        return insertEach(places);
+    }
+
+    private static boolean valid(Place place) {
+        return place.getLatitude() != null && place.getLongitude() != null
+                && Math.abs(place.getLatitude()) <= 90 && Math.abs(place.getLongitude()) <= 180;
+    }
+
+    private static double haversine(Point a, Point b) {
+        double dLat = Math.toRadians(b.getY() - a.getY());
+        double dLng = Math.toRadians(b.getX() - a.getX());
+        double h = Math.pow(Math.sin(dLat / 2), 2)
+                + Math.cos(Math.toRadians(a.getY())) * Math.cos(Math.toRadians(b.getY())) * Math.pow(Math.sin(dLng / 2), 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(h)));
+    }
+
+    // Outer ring as lng/lat pairs, with longitudes continued past ±180 so an
+    // area across the antimeridian stays one piece
+    private static double[][] unwrap(GeoJsonPolygon polygon) {
+        List<Point> points = polygon.getPoints();
+        double[][] ring = new double[points.size()][];
+        double offset = 0;
+        for (int i = 0; i < points.size(); i++) {
+            double longitude = points.get(i).getX();
+            if (i > 0) {
+                double previous = points.get(i - 1).getX();
+                if (longitude - previous > 180) {
+                    offset -= 360;
+                } else if (longitude - previous < -180) {
+                    offset += 360;
+                }
+            }
+            ring[i] = new double[] { longitude + offset, points.get(i).getY() };
+        }
+        return ring;
+    }
+
+    private static boolean inside(double[][] ring, Point point) {
+        for (double shift : new double[] { 0, 360, -360 }) {
+            if (contains(ring, point.getX() + shift, point.getY())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Ray casting on the planar ring, close enough for the densified boxes the service builds
+    private static boolean contains(double[][] ring, double x, double y) {
+        boolean inside = false;
+        for (int i = 0, j = ring.length - 1; i < ring.length; j = i++) {
+            if ((ring[i][1] > y) != (ring[j][1] > y)
+                    && x < (ring[j][0] - ring[i][0]) * (y - ring[i][1]) / (ring[j][1] - ring[i][1]) + ring[i][0]) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    @Override
+    public Place updateOwned(Place place) {
+        Place[] previous = new Place[1];
+        update(place.getId(), stored -> {
+            if (!stored.getUserId().equals(place.getUserId())) {
+                return false;
+            }
+            previous[0] = copy(stored);
+            stored.setName(place.getName());
+            stored.setType(place.getType());
+            stored.setStatus(place.getStatus());
+            stored.setLatitude(place.getLatitude());
+            stored.setLongitude(place.getLongitude());
+            stored.setLocation(place.getLocation());
+            stored.setDateVisited(place.getDateVisited());
+            stored.setExperienceNote(place.getExperienceNote());
+            stored.setMood(place.getMood());
+            stored.setTags(place.getTags());
+            return true;
+        });
+        return previous[0];
+    }
+
+    @Override
+    public Place removeOwned(String id, String userId) {
+        return copy(removeIf(id, stored -> stored.getUserId().equals(userId)));
+    }
+}
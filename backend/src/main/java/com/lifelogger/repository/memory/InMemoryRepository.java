@@ -0,0 +1,617 @@
+package com.lifelogger.repository.memory;
+
+import com.lifelogger.repository.logstore.LogStore;
+import com.lifelogger.repository.logstore.SegmentLog;
+import jakarta.annotation.PostConstruct;
+import org.bson.types.ObjectId;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.repository.query.FluentQuery;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * {@link MongoRepository} over a concurrent map of documents, for the
+ * {@code memory} profile. Documents are copied on the way in and out, and ids
+ * are generated as ObjectIds, as with MongoDB. Each user's documents are also
+ * kept in a concurrent skip list in the collection's list order (newest
+ * first), which serves the user-scoped derived queries and keyset pages the
+ * way the {@code userId}-prefixed compound indexes do in MongoDB, and
+ * subclasses can add per-user secondary indexes for their equality filters.
+ * <p>
+ * Writes to one document are atomic; like MongoDB without transactions,
+ * nothing spans documents. With the {@code logstore} profile every write is
+ * also appended to the collection's {@link SegmentLog} and synced before the
+ * call returns. Query by example is not supported.
+ */
+public abstract class InMemoryRepository<T> implements MongoRepository<T, String> {
+
+    private final EntityCopier<T> copier;
+    private final Function<T, String> idOf;
+    private final BiConsumer<T, String> setId;
+    private final Function<T, String> userIdOf;
+    private final Comparator<T> order;
+
+    private final Map<String, T> documents = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<T>> byUser = new ConcurrentHashMap<>();
+    // Secondary indexes: per user and key, the matching documents in list order
+    private final Map<String, Function<T, Collection<?>>> indexes = new LinkedHashMap<>();
+    private final Map<IndexKey, NavigableSet<T>> indexed = new ConcurrentHashMap<>();
+
+    private final Class<T> type;
+
+    @Autowired(required = false)
+    private LogStore logStore;
+
+    private SegmentLog<T> log;
+
+    /**
+     * @param userIdOf owner of a document, or {@code null} for collections
+     *                 that are not per user
+     * @param order    list order within a user, which must end with the id
+     *                 so that no two documents compare equal
+     */
+    protected InMemoryRepository(Class<T> type, Function<T, String> idOf, BiConsumer<T, String> setId,
+                                 Function<T, String> userIdOf, Comparator<T> order) {
+        this.type = type;
+        this.copier = new EntityCopier<>(type);
+        this.idOf = idOf;
+        this.setId = setId;
+        this.userIdOf = userIdOf;
+        this.order = order;
+    }
+
+    /**
+     * With the {@code logstore} profile, loads the collection from its log,
+     * which every write is then appended to before it returns.
+     */
+    @PostConstruct
+    public void openLog() {
+        if (logStore == null) {
+            return;
+        }
+        log = logStore.open(collection(), type, documents::get);
+        log.recover(this::restore, this::restoreRemoval);
+    }
+
+    /**
+     * The collection's name, which names its log.
+     */
+    protected String collection() {
+        Document document = type.getAnnotation(Document.class);
+        return document != null ? document.collection() : type.getSimpleName();
+    }
+
+    private void restore(String id, T document) {
+        T previous = documents.put(id, document);
+        checkUnique(previous, document);
+        reindex(previous, document);
+    }
+
+    private void restoreRemoval(String id) {
+        T previous = documents.remove(id);
+        if (previous != null) {
+            reindex(previous, null);
+            afterRemove(previous);
+        }
+    }
+
+    /**
+     * Maintains a per-user secondary index on {@code key}, for {@link #findBy}.
+     * Register indexes in the constructor, before any document is stored.
+     */
+    protected void indexBy(String name, Function<T, ?> key) {
+        indexes.put(name, document -> {
+            Object value = key.apply(document);
+            return value != null ? List.of(value) : List.of();
+        });
+    }
+
+    /**
+     * Like {@link #indexBy} for multi-valued fields such as tags.
+     */
+    protected void indexByEach(String name, Function<T, ? extends Collection<?>> keys) {
+        indexes.put(name, document -> {
+            Collection<?> values = keys.apply(document);
+            return values != null ? new LinkedHashSet<>(values) : List.of();
+        });
+    }
+
+    /**
+     * The user's documents whose {@code index} key is {@code value} and that
+     * match {@code filter}, in list order.
+     */
+    protected List<T> findBy(String userId, String index, Object value, Predicate<T> filter) {
+        NavigableSet<T> entries = value != null ? indexed.get(new IndexKey(index, userId, value)) : null;
+        return entries != null ? find(entries, filter, Integer.MAX_VALUE) : new ArrayList<>();
+    }
+
+    /**
+     * Hook for what auditing would set on save, e.g. timestamps.
+     */
+    protected void beforeSave(T entity, boolean isNew) {
+    }
+
+    /**
+     * Hook for unique indexes; throws {@code DuplicateKeyException} if the
+     * document may not replace {@code previous} (null for an insert).
+     */
+    protected void checkUnique(T previous, T next) {
+    }
+
+    protected void afterRemove(T removed) {
+    }
+
+    // Storage primitives for subclasses
+
+    protected T copy(T entity) {
+        return entity == null ? null : copier.copy(entity);
+    }
+
+    /**
+     * The user's stored documents in list order. Callers must copy what they return.
+     */
+    protected NavigableSet<T> userDocuments(String userId) {
+        NavigableSet<T> documents = userId != null ? byUser.get(userId) : null;
+        return documents != null ? documents : Collections.emptyNavigableSet();
+    }
+
+    /**
+     * All stored documents, in no particular order. Callers must copy what they return.
+     */
+    protected Stream<T> allDocuments() {
+        return documents.values().stream();
+    }
+
+    /**
+     * The first {@code limit} of the user's documents matching {@code filter}, in list order.
+     */
+    protected List<T> find(String userId, Predicate<T> filter, int limit) {
+        return find(userDocuments(userId), filter, limit);
+    }
+
+    protected List<T> find(String userId, Predicate<T> filter, Limit limit) {
+        return find(userId, filter, limit.isLimited() ? limit.max() : Integer.MAX_VALUE);
+    }
+
+    protected List<T> find(String userId, Predicate<T> filter) {
+        return find(userId, filter, Integer.MAX_VALUE);
+    }
+
+    private List<T> find(Iterable<T> documents, Predicate<T> filter, int limit) {
+        List<T> found = new ArrayList<>(Math.min(limit, 64));
+        for (Iterator<T> iterator = documents.iterator(); iterator.hasNext() && found.size() < limit; ) {
+            T document = iterator.next();
+            if (filter.test(document)) {
+                found.add(copier.copy(document));
+            }
+        }
+        return found;
+    }
+
+    protected Stream<T> stream(String userId, Predicate<T> filter) {
+        return userDocuments(userId).stream().filter(filter).map(copier::copy);
+    }
+
+    /**
+     * One keyset page: the user's documents after {@code after} in list order,
+     * matching {@code filter}, whose leading sort key is in
+     * {@code [min, maxExclusive)} when either bound is given.
+     */
+    protected <K extends Comparable<? super K>> List<T> page(String userId, T after, Predicate<T> filter,
+                                                             Function<T, K> leadingKey, K min, K maxExclusive,
+                                                             int limit) {
+        NavigableSet<T> documents = userDocuments(userId);
+        Iterable<T> remaining = after != null ? documents.tailSet(after, false) : documents;
+        List<T> page = new ArrayList<>(Math.min(limit, 256));
+        for (T document : remaining) {
+            if (min != null || maxExclusive != null) {
+                K key = leadingKey.apply(document);
+                if (key == null || (min != null && key.compareTo(min) < 0)) {
+                    // Descending with nulls last: nothing further is in the window
+                    break;
+                }
+                if (maxExclusive != null && key.compareTo(maxExclusive) >= 0) {
+                    continue;
+                }
+            }
+            if (filter.test(document)) {
+                page.add(copier.copy(document));
+                if (page.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Applies {@code change} to a copy of the stored document and stores the
+     * result atomically. Returns the new version, or {@code null} if there is
+     * no such document or {@code change} returns {@code false}.
+     */
+    protected T update(String id, Predicate<T> change) {
+        Object[] updated = new Object[1];
+        long[] ticket = new long[1];
+        documents.computeIfPresent(id, (key, stored) -> {
+            T next = copier.copy(stored);
+            if (!change.test(next)) {
+                return stored;
+            }
+            checkUnique(stored, next);
+            reindex(stored, next);
+            ticket[0] = logPut(id, next);
+            updated[0] = next;
+            return next;
+        });
+        awaitDurable(ticket[0]);
+        return copy(cast(updated[0]));
+    }
+
+    /**
+     * Like {@link #update}, creating the document with {@code create} first if it does not exist.
+     */
+    protected T upsert(String id, Supplier<T> create, Consumer<T> change) {
+        Object[] updated = new Object[1];
+        long[] ticket = new long[1];
+        documents.compute(id, (key, stored) -> {
+            T next = stored != null ? copier.copy(stored) : create.get();
+            setId.accept(next, id);
+            change.accept(next);
+            checkUnique(stored, next);
+            reindex(stored, next);
+            ticket[0] = logPut(id, next);
+            updated[0] = next;
+            return next;
+        });
+        awaitDurable(ticket[0]);
+        return copy(cast(updated[0]));
+    }
+
+    /**
+     * Removes the document if it matches {@code condition}, returning it.
+     */
+    protected T removeIf(String id, Predicate<T> condition) {
+        Object[] removed = new Object[1];
+        long[] ticket = new long[1];
+        documents.computeIfPresent(id, (key, stored) -> {
+            if (!condition.test(stored)) {
+                return stored;
+            }
+            reindex(stored, null);
+            ticket[0] = log != null ? log.delete(id) : 0;
+            removed[0] = stored;
+            return null;
+        });
+        awaitDurable(ticket[0]);
+        T document = cast(removed[0]);
+        if (document != null) {
+            afterRemove(document);
+        }
+        return document;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T cast(Object document) {
+        return (T) document;
+    }
+
+    private void reindex(T previous, T next) {
+        if (userIdOf == null) {
+            return;
+        }
+        if (previous != null) {
+            String userId = userIdOf.apply(previous);
+            NavigableSet<T> documents = byUser.get(userId);
+            if (documents != null) {
+                documents.remove(previous);
+            }
+            indexes.forEach((name, keysOf) -> keysOf.apply(previous).forEach(value -> {
+                NavigableSet<T> entries = indexed.get(new IndexKey(name, userId, value));
+                if (entries != null) {
+                    entries.remove(previous);
+                }
+            }));
+        }
+        if (next != null && userIdOf.apply(next) != null) {
+            String userId = userIdOf.apply(next);
+            byUser.computeIfAbsent(userId, user -> new ConcurrentSkipListSet<>(order)).add(next);
+            indexes.forEach((name, keysOf) -> keysOf.apply(next).forEach(value -> indexed
+                    .computeIfAbsent(new IndexKey(name, userId, value), key -> new ConcurrentSkipListSet<>(order))
+                    .add(next)));
+        }
+    }
+
+    /**
+     * Stores the documents one by one, reporting the ones whose id is already
+     * taken by their index in {@code entities}, like an unordered bulk insert.
+     */
+    protected Map<Integer, String> insertEach(List<T> entities) {
+        Map<Integer, String> errors = new HashMap<>();
+        long ticket = 0;
+        for (int i = 0; i < entities.size(); i++) {
+            try {
+                ticket = Math.max(ticket, store(entities.get(i), true));
+            } catch (DuplicateKeyException e) {
+                errors.put(i, e.getMessage());
+            }
+        }
+        awaitDurable(ticket);
+        return errors;
+    }
+
+    private long logPut(String id, T document) {
+        return log != null ? log.put(id, document) : 0;
+    }
+
+    private void awaitDurable(long ticket) {
+        if (log != null && ticket > 0) {
+            log.awaitDurable(ticket);
+        }
+    }
+
+    // MongoRepository
+
+    @Override
+    public <S extends T> S save(S entity) {
+        awaitDurable(store(entity, false));
+        return entity;
+    }
+
+    @Override
+    public <S extends T> S insert(S entity) {
+        awaitDurable(store(entity, true));
+        return entity;
+    }
+
+    // Stores a copy and returns the log ticket without waiting for it, so batches sync once
+    private long store(T entity, boolean insert) {
+        String id = idOf.apply(entity);
+        boolean isNew = id == null;
+        if (isNew) {
+            id = new ObjectId().toHexString();
+            setId.accept(entity, id);
+        }
+        beforeSave(entity, isNew || insert);
+        T stored = copier.copy(entity);
+        long[] ticket = new long[1];
+        documents.compute(id, (key, previous) -> {
+            if (insert && previous != null) {
+                throw new DuplicateKeyException("E11000 duplicate key error: _id " + key);
+            }
+            checkUnique(previous, stored);
+            reindex(previous, stored);
+            ticket[0] = logPut(key, stored);
+            return stored;
+        });
+        return ticket[0];
+    }
+
+    @Override
+    public <S extends T> List<S> insert(Iterable<S> entities) {
+        List<S> inserted = new ArrayList<>();
+        long ticket = 0;
+        for (S entity : entities) {
+            ticket = Math.max(ticket, store(entity, true));
+            inserted.add(entity);
+        }
+        awaitDurable(ticket);
+        return inserted;
+    }
+
+    @Override
+    public <S extends T> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        long ticket = 0;
+        for (S entity : entities) {
+            ticket = Math.max(ticket, store(entity, false));
+            saved.add(entity);
+        }
+        awaitDurable(ticket);
+        return saved;
+    }
+
+    @Override
+    public Optional<T> findById(String id) {
+        return Optional.ofNullable(copy(documents.get(id)));
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return documents.containsKey(id);
+    }
+
+    @Override
+    public List<T> findAll() {
+        return allDocuments().map(copier::copy).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<T> findAllById(Iterable<String> ids) {
+        List<T> found = new ArrayList<>();
+        ids.forEach(id -> findById(id).ifPresent(found::add));
+        return found;
+    }
+
+    @Override
+    public long count() {
+        return documents.size();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        removeIf(id, document -> true);
+    }
+
+    @Override
+    public void delete(T entity) {
+        deleteById(idOf.apply(entity));
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends String> ids) {
+        ids.forEach(this::deleteById);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends T> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        new ArrayList<>(documents.keySet()).forEach(this::deleteById);
+    }
+
+    @Override
+    public List<T> findAll(Sort sort) {
+        return allDocuments().sorted(comparator(sort)).map(copier::copy).collect(Collectors.toList());
+    }
+
+    @Override
+    public Page<T> findAll(Pageable pageable) {
+        List<T> sorted = allDocuments().sorted(comparator(pageable.getSort())).toList();
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(sorted.stream().map(copier::copy).toList(), pageable, sorted.size());
+        }
+        List<T> content = sorted.stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .map(copier::copy)
+                .toList();
+        return new PageImpl<>(content, pageable, sorted.size());
+    }
+
+    /**
+     * The first page of {@code documents}, for derived queries taking a {@link Pageable}.
+     */
+    protected List<T> pageOf(Stream<T> documents, Pageable pageable) {
+        Stream<T> sorted = pageable.getSort().isSorted() ? documents.sorted(comparator(pageable.getSort())) : documents;
+        if (pageable.isPaged()) {
+            sorted = sorted.skip(pageable.getOffset()).limit(pageable.getPageSize());
+        }
+        return sorted.map(copier::copy).collect(Collectors.toList());
+    }
+
+    // Ascending puts nulls first and descending last, as MongoDB sorts them
+    private Comparator<T> comparator(Sort sort) {
+        Comparator<T> comparator = (a, b) -> 0;
+        for (Sort.Order sortOrder : sort) {
+            Comparator<Comparable<Object>> values = sortOrder.isAscending()
+                    ? Comparator.nullsFirst(Comparator.<Comparable<Object>>naturalOrder())
+                    : Comparator.nullsLast(Comparator.<Comparable<Object>>reverseOrder());
+            comparator = comparator.thenComparing(document -> property(document, sortOrder.getProperty()), values);
+        }
+        return comparator;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> property(Object document, String name) {
+        BeanWrapper wrapper = new BeanWrapperImpl(document);
+        return (Comparable<Object>) wrapper.getPropertyValue(name);
+    }
+
+    /**
+     * List order over the given keys and then the id, all descending with
+     * nulls last, as the keyset pages sort in MongoDB.
+     */
+    @SafeVarargs
+    protected static <T> Comparator<T> newestFirst(Function<T, String> id,
+                                                   Function<T, ? extends Comparable<?>>... keys) {
+        Comparator<T> order = (a, b) -> 0;
+        for (Function<T, ? extends Comparable<?>> key : keys) {
+            order = order.thenComparing(document -> comparable(key.apply(document)),
+                    Comparator.nullsLast(Comparator.<Comparable<Object>>reverseOrder()));
+        }
+        return order.thenComparing(id, Comparator.nullsLast(Comparator.<String>reverseOrder()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Comparable<Object> comparable(Comparable<?> value) {
+        return (Comparable<Object>) value;
+    }
+
+    protected static boolean same(Object a, Object b) {
+        return Objects.equals(a, b);
+    }
+
+    protected static <E> Stream<E> streamOf(Iterable<E> iterable) {
+        return StreamSupport.stream(iterable.spliterator(), false);
+    }
+
+    // Query by example is not used by the application
+
+    @Override
+    public <S extends T> Optional<S> findOne(Example<S> example) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example, Sort sort) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends T> Page<S> findAll(Example<S> example, Pageable pageable) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends T> long count(Example<S> example) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends T> boolean exists(Example<S> example) {
+        throw unsupported();
+    }
+
+    @Override
+    public <S extends T, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        throw unsupported();
+    }
+
+    private record IndexKey(String index, String userId, Object value) {
+    }
+
+    private static UnsupportedOperationException unsupported() {
+        return new UnsupportedOperationException("Query by example is not supported by the in-memory store");
+    }
+}
@@ -0,0 +1,46 @@
+package com.lifelogger.repository.memory;
+
+import com.lifelogger.model.TagCount;
+import com.lifelogger.repository.TagCountRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashMap;
+import java.util.List;
+
+@Repository
+@Profile("memory")
+public class InMemoryTagCountRepository extends InMemoryRepository<TagCount> implements TagCountRepository {
+
+    public InMemoryTagCountRepository() {
+        super(TagCount.class, TagCount::getId, TagCount::setId, TagCount::getUserId,
+                newestFirst(TagCount::getId));
+    }
+
+    @Override
+    public List<TagCount> findByUserIdAndTotalGreaterThan(String userId, int total) {
+        return find(userId, count -> count.getTotal() > total);
+    }
+
+    @Override
+    public void deleteByUserId(String userId) {
+        userDocuments(userId).stream().map(TagCount::getId).toList().forEach(this::deleteById);
+    }
+
+    @Override
+    public void increment(String userId, String tag, String type, int delta) {
+        upsert(TagCount.idOf(userId, tag), () -> {
+            TagCount count = new TagCount();
+            count.setUserId(userId);
+            count.setTag(tag);
+            count.setCounts(new HashMap<>());
+            return count;
+        }, count -> {
+            count.setTotal(count.getTotal() + delta);
+            if (count.getCounts() == null) {
+                count.setCounts(new HashMap<>());
+            }
+            count.getCounts().merge(type, delta, Integer::sum);
+        });
+    }
+}
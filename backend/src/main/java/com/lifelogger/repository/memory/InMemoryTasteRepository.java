@@ -0,0 +1,100 @@
+package com.lifelogger.repository.memory;
+
+import com.lifelogger.model.Taste;
+import com.lifelogger.model.TasteType;
+import com.lifelogger.repository.TasteRepository;
+import com.lifelogger.util.Projection;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Repository
+@Profile("memory")
+public class InMemoryTasteRepository extends InMemoryRepository<Taste> implements TasteRepository {
+
+    public InMemoryTasteRepository() {
+        super(Taste.class, Taste::getId, Taste::setId, Taste::getUserId,
+                newestFirst(Taste::getId, Taste::getDateConsumed));
+        indexBy("type", Taste::getType);
+        indexByEach("tags", Taste::getTags);
+    }
+
+    @Override
+    public List<Taste> findByUserIdOrderByDateConsumedDesc(String userId, Limit limit) {
+        return find(userId, taste -> true, limit);
+    }
+
+    @Override
+    public List<Taste> findByUserIdAndTypeOrderByDateConsumedDesc(String userId, TasteType type) {
+        return findBy(userId, "type", type, taste -> true);
+    }
+
+    @Override
+    public List<Taste> findByUserIdOrderByRatingDesc(String userId) {
+        return stream(userId, taste -> true)
+                .sorted(Comparator.comparing(Taste::getRating, Comparator.nullsLast(Comparator.reverseOrder())))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Taste> searchByTitleOrNote(String userId, String searchText) {
+        Pattern pattern = Pattern.compile(searchText, Pattern.CASE_INSENSITIVE);
+        return find(userId, taste -> (taste.getTitle() != null && pattern.matcher(taste.getTitle()).find())
+                || (taste.getPersonalNote() != null && pattern.matcher(taste.getPersonalNote()).find()));
+    }
+
+    @Override
+    public List<Taste> findByUserIdAndTagsContaining(String userId, String tag) {
+        return findBy(userId, "tags", tag, taste -> true);
+    }
+
+    @Override
+    public Stream<Taste> streamByUserId(String userId) {
+        return stream(userId, taste -> true);
+    }
+
+    @Override
+    public List<Taste> findPageByUserId(String userId, Taste after, LocalDate from, LocalDate to, int limit,
+                                        Projection projection) {
+        return page(userId, after, taste -> true, Taste::getDateConsumed,
+                from, to != null ? to.plusDays(1) : null, limit);
+    }
+
+    @Override
+    public Map<Integer, String> insertUnordered(List<Taste> tastes) {
+        return insertEach(tastes);
+    }
+
+    @Override
+    public Taste updateOwned(Taste taste) {
+        Taste[] previous = new Taste[1];
+        update(taste.getId(), stored -> {
+            if (!stored.getUserId().equals(taste.getUserId())) {
+                return false;
+            }
+            previous[0] = copy(stored);
+            stored.setType(taste.getType());
+            stored.setTitle(taste.getTitle());
+            stored.setDateConsumed(taste.getDateConsumed());
+            stored.setPersonalNote(taste.getPersonalNote());
+            stored.setRating(taste.getRating());
+            stored.setMood(taste.getMood());
+            stored.setTags(taste.getTags());
+            return true;
+        });
+        return previous[0];
+    }
+
+    @Override
+    public Taste removeOwned(String id, String userId) {
+        return copy(removeIf(id, stored -> stored.getUserId().equals(userId)));
+    }
+}
@@ -0,0 +1,93 @@
+package com.lifelogger.repository.memory;
+
+import com.lifelogger.model.User;
+import com.lifelogger.repository.UserRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+@Repository
+@Profile("memory")
+public class InMemoryUserRepository extends InMemoryRepository<User> implements UserRepository {
+
+    // Stands in for the unique username index
+    private final Map<String, String> idsByUsername = new ConcurrentHashMap<>();
+
+    public InMemoryUserRepository() {
+        super(User.class, User::getId, User::setId, null, null);
+    }
+
+    @Override
+    protected void beforeSave(User user, boolean isNew) {
+        if (user.getCreatedAt() == null) {
+            user.setCreatedAt(LocalDateTime.now());
+        }
+    }
+
+    @Override
+    protected void checkUnique(User previous, User next) {
+        if (next.getUsername() == null) {
+            return;
+        }
+        String owner = idsByUsername.putIfAbsent(next.getUsername(), next.getId());
+        if (owner != null && !owner.equals(next.getId())) {
+            throw new DuplicateKeyException("E11000 duplicate key error: username " + next.getUsername());
+        }
+        if (previous != null && previous.getUsername() != null
+                && !previous.getUsername().equals(next.getUsername())) {
+            idsByUsername.remove(previous.getUsername(), previous.getId());
+        }
+    }
+
+    @Override
+    protected void afterRemove(User user) {
+        if (user.getUsername() != null) {
+            idsByUsername.remove(user.getUsername(), user.getId());
+        }
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        String id = idsByUsername.get(username);
+        return id != null ? findById(id) : Optional.empty();
+    }
+
+    @Override
+    public boolean existsByUsername(String username) {
+        return idsByUsername.containsKey(username);
+    }
+
+    @Override
+    public boolean existsByEmail(String email) {
+        return allDocuments().anyMatch(user -> same(user.getEmail(), email));
+    }
+
+    @Override
+    public Stream<User> streamAllBy() {
+        return findAll().stream();
+    }
+
+    @Override
+    public long incrementCollectionVersion(String userId, String type) {
+        User user = update(userId, next -> {
+            Map<String, Long> versions = next.getCollectionVersions() != null
+                    ? new HashMap<>(next.getCollectionVersions()) : new HashMap<>();
+            versions.merge(type, 1L, Long::sum);
+            next.setCollectionVersions(versions);
+            return true;
+        });
+        return user != null ? user.getCollectionVersions().get(type) : 0;
+    }
+
+    @Override
+    public Map<String, Long> findCollectionVersions(String userId) {
+        return findById(userId).map(User::getCollectionVersions).orElse(Map.of());
+    }
+}
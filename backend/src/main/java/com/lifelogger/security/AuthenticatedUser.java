@@ -0,0 +1,30 @@
+package com.lifelogger.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * Principal built straight from the JWT claims, so authenticated requests know
+ * the caller's user id without reading the users collection.
+ */
+@Getter
+@AllArgsConstructor
+public class AuthenticatedUser implements Principal {
+
+    private final String id;
+    private final String username;
+    private final List<String> roles;
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    public List<GrantedAuthority> getAuthorities() {
+        return Roles.authorities(roles);
+    }
+}
@@ -0,0 +1,60 @@
+package com.lifelogger.security;
+
+import com.lifelogger.util.RateLimitedLog;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Reactive counterpart of {@link JwtRequestFilter}: puts the token's principal
+ * into the Reactor context instead of a thread-bound security context.
+ */
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    private static final RateLimitedLog rejectedTokens =
+            new RateLimitedLog(LoggerFactory.getLogger(JwtAuthenticationWebFilter.class), Duration.ofSeconds(10));
+
+    private final JwtTokenUtil jwtTokenUtil;
+    private final ScrapeToken scrapeToken;
+
+    public JwtAuthenticationWebFilter(JwtTokenUtil jwtTokenUtil, ScrapeToken scrapeToken) {
+        this.jwtTokenUtil = jwtTokenUtil;
+        this.scrapeToken = scrapeToken;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String requestTokenHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+
+        Authentication authentication = null;
+        if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
+            String token = requestTokenHeader.substring(7);
+            authentication = scrapeToken.authenticate(
+                    exchange.getRequest().getPath().pathWithinApplication().value(), token);
+            if (authentication == null) {
+                try {
+                    AuthenticatedUser user = jwtTokenUtil.getAuthenticatedUser(token);
+                    if (user != null) {
+                        authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+                    }
+                } catch (Exception e) {
+                    rejectedTokens.warn("Rejected bearer token: {}", e.getMessage());
+                }
+            }
+        }
+
+        if (authentication == null) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+    }
+}
@@ -1,56 +1,71 @@
 package com.lifelogger.security;
 
+import com.lifelogger.util.RateLimitedLog;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Duration;
 
 @Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class JwtRequestFilter extends OncePerRequestFilter {
 
-    @Autowired
-    private UserDetailsService userDetailsService;
+    // Expired or forged tokens arrive with every request of the client sending them
+    private static final RateLimitedLog rejectedTokens =
+            new RateLimitedLog(LoggerFactory.getLogger(JwtRequestFilter.class), Duration.ofSeconds(10));
 
     @Autowired
     private JwtTokenUtil jwtTokenUtil;
 
+    @Autowired
+    private ScrapeToken scrapeToken;
+
+    // Looked up once rather than through the static holder on every request
+    private final SecurityContextHolderStrategy contextHolder = SecurityContextHolder.getContextHolderStrategy();
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
 
         final String requestTokenHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwtToken = null;
+        Authentication authentication = null;
 
         if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-            jwtToken = requestTokenHeader.substring(7);
-            try {
-                username = jwtTokenUtil.getUsernameFromToken(jwtToken);
-            } catch (Exception e) {
-                logger.error("Unable to get JWT Token or token has expired", e);
+            String jwtToken = requestTokenHeader.substring(7);
+            authentication = scrapeToken.authenticate(
+                    request.getRequestURI().substring(request.getContextPath().length()), jwtToken);
+            if (authentication == null) {
+                try {
+                    AuthenticatedUser user = jwtTokenUtil.getAuthenticatedUser(jwtToken);
+                    if (user != null) {
+                        authentication = UsernamePasswordAuthenticationToken.authenticated(
+                                user, null, user.getAuthorities());
+                    }
+                } catch (Exception e) {
+                    rejectedTokens.warn("Rejected bearer token: {}", e.getMessage());
+                }
             }
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-
-            if (jwtTokenUtil.validateToken(jwtToken, userDetails)) {
-                UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authenticationToken);
-            }
+        // A new context rather than mutating the current one, which may be shared
+        if (authentication != null && contextHolder.getContext().getAuthentication() == null) {
+            SecurityContext context = contextHolder.createEmptyContext();
+            context.setAuthentication(authentication);
+            contextHolder.setContext(context);
         }
         chain.doFilter(request, response);
     }
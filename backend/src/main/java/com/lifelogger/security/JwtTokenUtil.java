@@ -1,30 +1,63 @@
 package com.lifelogger.security;
 
+import com.lifelogger.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
 
 @Component
 public class JwtTokenUtil {
 
+    static final String USER_ID_CLAIM = "uid";
+    static final String ROLES_CLAIM = "roles";
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
     private Long expiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    @Value("${jwt.cache.max-entries:10000}")
+    private int cacheMaxEntries;
+
+    private SecretKey signingKey;
+
+    private JwtParser jwtParser;
+
+    // Tokens whose signature has already been verified, keyed by SHA-256 of the token;
+    // access-ordered, so the least recently used token is evicted first
+    private final Map<String, VerifiedToken> verifiedTokens = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+            return size() > cacheMaxEntries;
+        }
+    };
+
+    // Guards the cache above
+    private final Lock verifiedTokensLock = new ReentrantLock();
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        jwtParser = Jwts.parser().verifyWith(signingKey).build();
     }
 
     public String getUsernameFromToken(String token) {
@@ -41,21 +74,16 @@ public class JwtTokenUtil {
     }
 
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-    }
-
-    private Boolean isTokenExpired(String token) {
-        final Date expirationDate = getExpirationDateFromToken(token);
-        return expirationDate.before(new Date());
+        return jwtParser.parseSignedClaims(token).getPayload();
     }
 
-    public String generateToken(UserDetails userDetails) {
+    public String generateToken(User user) {
         Map<String, Object> claims = new HashMap<>();
-        return doGenerateToken(claims, userDetails.getUsername());
+        claims.put(USER_ID_CLAIM, user.getId());
+        if (user.getRoles() != null && !user.getRoles().isEmpty()) {
+            claims.put(ROLES_CLAIM, user.getRoles());
+        }
+        return doGenerateToken(claims, user.getUsername());
     }
 
     private String doGenerateToken(Map<String, Object> claims, String subject) {
@@ -67,12 +95,62 @@ public class JwtTokenUtil {
                 .subject(subject)
                 .issuedAt(createdDate)
                 .expiration(expirationDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = getUsernameFromToken(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    /**
+     * Verifies the token and returns its principal, or {@code null} for tokens
+     * issued before the user id was embedded, which must log in again. The
+     * signature is checked once per token; repeat calls are served from a
+     * bounded cache until the token expires.
+     */
+    public AuthenticatedUser getAuthenticatedUser(String token) {
+        final String key = hash(token);
+        final long now = System.currentTimeMillis();
+
+        verifiedTokensLock.lock();
+        try {
+            VerifiedToken cached = verifiedTokens.get(key);
+            if (cached != null) {
+                if (cached.expiresAt() > now) {
+                    return cached.user();
+                }
+                verifiedTokens.remove(key);
+            }
+        } finally {
+            verifiedTokensLock.unlock();
+        }
+
+        final Claims claims = getAllClaimsFromToken(token);
+        final String userId = claims.get(USER_ID_CLAIM, String.class);
+        final Date expirationDate = claims.getExpiration();
+        if (userId == null || expirationDate.getTime() <= now) {
+            return null;
+        }
+        final List<?> roles = claims.get(ROLES_CLAIM, List.class);
+        AuthenticatedUser user = new AuthenticatedUser(userId, claims.getSubject(),
+                roles != null ? roles.stream().map(String::valueOf).toList() : List.of());
+
+        verifiedTokensLock.lock();
+        try {
+            // Expired tokens left in the cache are dropped when read or age out as least recently used
+            verifiedTokens.put(key, new VerifiedToken(user, expirationDate.getTime()));
+        } finally {
+            verifiedTokensLock.unlock();
+        }
+        return user;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record VerifiedToken(AuthenticatedUser user, long expiresAt) {
     }
 }
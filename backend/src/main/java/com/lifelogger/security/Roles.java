@@ -0,0 +1,42 @@
+package com.lifelogger.security;
+
+import org.springframework.boot.actuate.endpoint.SecurityContext;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+/**
+ * Roles a user can hold ({@code User.roles}). Ordinary accounts have none;
+ * {@link #ADMIN} is granted by an operator and unlocks the actuator endpoints,
+ * which act on every user's data.
+ */
+public final class Roles {
+
+    public static final String ADMIN = "ADMIN";
+
+    // Held only by the Prometheus scraper, see ScrapeToken
+    public static final String METRICS = "METRICS";
+
+    private Roles() {
+    }
+
+    public static List<GrantedAuthority> authorities(List<String> roles) {
+        if (roles == null) {
+            return List.of();
+        }
+        return roles.stream().<GrantedAuthority>map(role -> new SimpleGrantedAuthority("ROLE_" + role)).toList();
+    }
+
+    /**
+     * Rejects the caller of an actuator operation unless they are an admin.
+     * The security chains already restrict {@code /actuator/**}; this keeps
+     * operations that start global jobs closed if they are reached some other way.
+     */
+    public static void requireAdmin(SecurityContext context) {
+        if (context == null || !context.isUserInRole(ADMIN)) {
+            throw new AccessDeniedException("Admin role required");
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.lifelogger.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+/**
+ * The static bearer token ({@code metrics.scrape-token}) a Prometheus server
+ * scrapes {@code /actuator/prometheus} with, so scraping does not depend on an
+ * admin's JWT that expires. It is accepted on that path only and grants
+ * nothing else. Empty disables it.
+ */
+@Component
+public class ScrapeToken {
+
+    public static final String PATH = "/actuator/prometheus";
+
+    private final byte[] token;
+
+    public ScrapeToken(@Value("${metrics.scrape-token:}") String token) {
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The scraper's authentication if {@code bearer} is the scrape token and
+     * {@code path} the scrape endpoint, otherwise {@code null}.
+     */
+    public Authentication authenticate(String path, String bearer) {
+        if (token.length == 0 || !PATH.equals(path)
+                || !MessageDigest.isEqual(token, bearer.getBytes(StandardCharsets.UTF_8))) {
+            return null;
+        }
+        return UsernamePasswordAuthenticationToken.authenticated("prometheus", null,
+                Roles.authorities(List.of(Roles.METRICS)));
+    }
+}
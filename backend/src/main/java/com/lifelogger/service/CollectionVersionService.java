@@ -0,0 +1,106 @@
+package com.lifelogger.service;
+
+import com.lifelogger.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-user, per-entry-type versions that change whenever any entry of that
+ * type changes, so list responses can be revalidated with an ETag. Versions
+ * are kept in {@code users.collectionVersions} and cached here for the most
+ * recently active users; a cached user's reads are answered without Mongo.
+ * The cache sees only this instance's writes, so the API must run as a single
+ * instance (as it does today) for a cached version to be current.
+ */
+@Service
+public class CollectionVersionService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${versions.cache.max-users:10000}")
+    private int cacheMaxUsers;
+
+    // Access-ordered, so the least recently used user's versions are evicted first
+    private final Map<String, Map<String, Long>> versions = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Map<String, Long>> eldest) {
+            return size() > cacheMaxUsers;
+        }
+    };
+
+    // Guards the cache above; the per-user maps are concurrent
+    private final Lock versionsLock = new ReentrantLock();
+
+    // Counts writes, so a load that overlapped one is not cached
+    private final AtomicLong writes = new AtomicLong();
+
+    /**
+     * Records a write to the user's entries of {@code type}. Must be called
+     * after the write, so no response pairs the new version with older data.
+     */
+    public void changed(String userId, String type) {
+        long version = userRepository.incrementCollectionVersion(userId, type);
+        writes.incrementAndGet();
+        Map<String, Long> cached = cached(userId);
+        if (cached != null) {
+            // Concurrent writes may return out of order; keep the highest
+            cached.merge(type, version, Math::max);
+        }
+    }
+
+    /**
+     * The weak ETag for a response built from the user's entries of
+     * {@code types}, e.g. {@code W/"64f1c0...-journal.12"}.
+     */
+    public String etag(String userId, String... types) {
+        Map<String, Long> current = versionsOf(userId);
+        StringBuilder etag = new StringBuilder("W/\"").append(userId);
+        for (String type : types) {
+            etag.append('-').append(type).append('.').append(current.getOrDefault(type, 0L));
+        }
+        return etag.append('"').toString();
+    }
+
+    private Map<String, Long> versionsOf(String userId) {
+        Map<String, Long> cached = cached(userId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long writesBefore = writes.get();
+        Map<String, Long> loaded = new ConcurrentHashMap<>(userRepository.findCollectionVersions(userId));
+        versionsLock.lock();
+        try {
+            Map<String, Long> raced = versions.get(userId);
+            if (raced != null) {
+                loaded.forEach((type, version) -> raced.merge(type, version, Math::max));
+                return raced;
+            }
+            // A write that landed after the load read its versions would be missing from them
+            if (writes.get() == writesBefore) {
+                versions.put(userId, loaded);
+            }
+            return loaded;
+        } finally {
+            versionsLock.unlock();
+        }
+    }
+
+    private Map<String, Long> cached(String userId) {
+        versionsLock.lock();
+        try {
+            return versions.get(userId);
+        } finally {
+            versionsLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.lifelogger.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.lifelogger.exception.TooManyRequestsException;
+import com.lifelogger.model.Photo;
+import com.lifelogger.repository.JournalRepository;
+import com.lifelogger.repository.MicroMemoryRepository;
+import com.lifelogger.repository.PhotoRepository;
+import com.lifelogger.repository.PlaceRepository;
+import com.lifelogger.repository.TasteRepository;
+import com.lifelogger.util.ThrottledOutputStream;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Streams a user's whole account as a zip: one NDJSON file per entity type,
+ * read through Mongo cursors, followed by the photo files. Nothing is
+ * buffered beyond the current cursor batch.
+ */
+@Service
+public class ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    @Autowired
+    private JournalRepository journalRepository;
+
+    @Autowired
+    private MicroMemoryRepository microMemoryRepository;
+
+    @Autowired
+    private TasteRepository tasteRepository;
+
+    @Autowired
+    private PlaceRepository placeRepository;
+
+    @Autowired
+    private PhotoRepository photoRepository;
+
+    @Autowired
+    private PhotoService photoService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${export.max-concurrent:2}")
+    private int maxConcurrentExports;
+
+    @Value("${export.max-bytes-per-second:0}")
+    private long maxBytesPerSecond;
+
+    @Value("${export.timeout-seconds:3600}")
+    private long exportTimeoutSeconds;
+
+    private Semaphore exportPermits;
+
+    @PostConstruct
+    void init() {
+        exportPermits = new Semaphore(maxConcurrentExports);
+    }
+
+    /**
+     * Writes the user's export to {@code response} on the MVC async executor.
+     * The task has its own timeout ({@code export.timeout-seconds}), so only
+     * exports may run for that long. Its permit is released once, by whichever
+     * of the task's end, timeout or completion callbacks runs first.
+     */
+    public WebAsyncTask<Void> exportAccount(String userId, HttpServletResponse response) {
+        if (!exportPermits.tryAcquire()) {
+            throw new TooManyRequestsException("Too many exports in progress, please try again later");
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                exportPermits.release();
+            }
+        };
+
+        WebAsyncTask<Void> task = new WebAsyncTask<>(TimeUnit.SECONDS.toMillis(exportTimeoutSeconds), () -> {
+            try {
+                OutputStream out = response.getOutputStream();
+                OutputStream target = maxBytesPerSecond > 0 ? new ThrottledOutputStream(out, maxBytesPerSecond) : out;
+                writeArchive(userId, target);
+                target.flush();
+                return null;
+            } finally {
+                release.run();
+            }
+        });
+        task.onTimeout(() -> {
+            release.run();
+            throw new AsyncRequestTimeoutException();
+        });
+        // Also runs after a timeout, an error or a dropped connection
+        task.onCompletion(release);
+        return task;
+    }
+
+    private void writeArchive(String userId, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        ObjectWriter writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n");
+
+        try (Stream<?> journals = journalRepository.streamByUserIdAndIsDeletedFalse(userId)) {
+            writeNdjson(zip, writer, "journals.ndjson", journals);
+        }
+        try (Stream<?> memories = microMemoryRepository.streamByUserId(userId)) {
+            writeNdjson(zip, writer, "micro-memories.ndjson", memories);
+        }
+        try (Stream<?> tastes = tasteRepository.streamByUserId(userId)) {
+            writeNdjson(zip, writer, "tastes.ndjson", tastes);
+        }
+        try (Stream<?> places = placeRepository.streamByUserId(userId)) {
+            writeNdjson(zip, writer, "places.ndjson", places);
+        }
+        try (Stream<?> photos = photoRepository.streamByUserId(userId)) {
+            writeNdjson(zip, writer, "photos.ndjson", photos);
+        }
+
+        // Photos are already compressed; store them without spending CPU on deflate
+        zip.setLevel(Deflater.NO_COMPRESSION);
+        try (Stream<Photo> photos = photoRepository.streamByUserId(userId)) {
+            Iterator<Photo> iterator = photos.iterator();
+            while (iterator.hasNext()) {
+                writePhotoFile(zip, iterator.next());
+            }
+        }
+
+        zip.finish();
+        zip.flush();
+    }
+
+    private void writeNdjson(ZipOutputStream zip, ObjectWriter writer, String name, Stream<?> entities)
+            throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(zip);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        boolean empty = true;
+        try (SequenceWriter sequence = writer.writeValues(generator)) {
+            Iterator<?> iterator = entities.iterator();
+            while (iterator.hasNext()) {
+                sequence.write(iterator.next());
+                empty = false;
+            }
+        }
+        generator.flush();
+        if (!empty) {
+            zip.write('\n');
+        }
+        zip.closeEntry();
+    }
+
+    private void writePhotoFile(ZipOutputStream zip, Photo photo) throws IOException {
+        Path file = photoService.resolveFile(photo);
+        if (!Files.isRegularFile(file)) {
+            logger.warn("Photo file missing for photo {}: {}", photo.getId(), file);
+            return;
+        }
+
+        try {
+            zip.putNextEntry(new ZipEntry("photos/" + file.getFileName()));
+        } catch (ZipException e) {
+            // Several photos can share one stored file; it only needs to be exported once
+            return;
+        }
+        Files.copy(file, zip);
+        zip.closeEntry();
+    }
+}
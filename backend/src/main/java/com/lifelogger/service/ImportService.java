@@ -0,0 +1,205 @@
+package com.lifelogger.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lifelogger.dto.ImportResult;
+import com.lifelogger.model.EntryTypes;
+import com.lifelogger.model.Journal;
+import com.lifelogger.model.MicroMemory;
+import com.lifelogger.model.Place;
+import com.lifelogger.model.Taste;
+import com.lifelogger.repository.BulkInsertRepository;
+import com.lifelogger.repository.JournalRepository;
+import com.lifelogger.repository.MicroMemoryRepository;
+import com.lifelogger.repository.PlaceRepository;
+import com.lifelogger.repository.TasteRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Imports NDJSON (one JSON object per line) into one entity type. Records are
+ * parsed and validated one by one and written in unordered bulk inserts, and
+ * every line gets its own result.
+ */
+@Service
+public class ImportService {
+
+    @Autowired
+    private JournalRepository journalRepository;
+
+    @Autowired
+    private MicroMemoryRepository microMemoryRepository;
+
+    @Autowired
+    private TasteRepository tasteRepository;
+
+    @Autowired
+    private PlaceRepository placeRepository;
+
+    @Autowired
+    private JournalSearchService journalSearchService;
+
+    @Autowired
+    private PlaceService placeService;
+
+    @Autowired
+    private PlaceClusterService placeClusterService;
+
+    @Autowired
+    private MoodRollupService moodRollupService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private CollectionVersionService collectionVersionService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${import.batch-size:1000}")
+    private int batchSize;
+
+    public ImportResult importRecords(String type, InputStream input, String userId) throws IOException {
+        return switch (type) {
+            case "journals" -> importRecords(input, Journal.class, journalRepository, Journal::getId, journal -> {
+                journal.setId(new ObjectId().toHexString());
+                journal.setUserId(userId);
+                if (journal.getDate() == null) {
+                    journal.setDate(LocalDate.now());
+                }
+                if (journal.getTime() == null) {
+                    journal.setTime(LocalTime.now());
+                }
+                journal.setDeleted(false);
+                journalSearchService.index(journal);
+            }, inserted -> {
+                moodRollupService.addedAll(userId, EntryTypes.JOURNAL, inserted, Journal::getDate, Journal::getMood);
+                tagService.addedAll(userId, EntryTypes.JOURNAL, inserted, Journal::getTags);
+                collectionVersionService.changed(userId, EntryTypes.JOURNAL);
+            });
+            case "memories" -> importRecords(input, MicroMemory.class, microMemoryRepository, MicroMemory::getId, memory -> {
+                memory.setId(new ObjectId().toHexString());
+                memory.setUserId(userId);
+                if (memory.getTimestamp() == null) {
+                    memory.setTimestamp(LocalDateTime.now());
+                }
+            }, inserted -> {
+                moodRollupService.addedAll(userId, EntryTypes.MEMORY, inserted,
+                        memory -> MoodRollupService.dayOf(memory.getTimestamp()), MicroMemory::getMood);
+                tagService.addedAll(userId, EntryTypes.MEMORY, inserted, MicroMemory::getTags);
+                collectionVersionService.changed(userId, EntryTypes.MEMORY);
+            });
+            case "tastes" -> importRecords(input, Taste.class, tasteRepository, Taste::getId, taste -> {
+                taste.setId(new ObjectId().toHexString());
+                taste.setUserId(userId);
+            }, inserted -> {
+                moodRollupService.addedAll(userId, EntryTypes.TASTE, inserted, Taste::getDateConsumed, Taste::getMood);
+                tagService.addedAll(userId, EntryTypes.TASTE, inserted, Taste::getTags);
+                collectionVersionService.changed(userId, EntryTypes.TASTE);
+            });
+            case "places" -> importRecords(input, Place.class, placeRepository, Place::getId, place -> {
+                place.setId(new ObjectId().toHexString());
+                place.setUserId(userId);
+                placeService.locate(place);
+            }, inserted -> {
+                moodRollupService.addedAll(userId, EntryTypes.PLACE, inserted, Place::getDateVisited, Place::getMood);
+                tagService.addedAll(userId, EntryTypes.PLACE, inserted, Place::getTags);
+                placeClusterService.savedAll(userId, inserted);
+                collectionVersionService.changed(userId, EntryTypes.PLACE);
+            });
+            default -> throw new IllegalArgumentException("Unsupported import type: " + type
+                    + ". Supported types are journals, memories, tastes and places");
+        };
+    }
+
+    private <T> ImportResult importRecords(InputStream input, Class<T> type, BulkInsertRepository<T> repository,
+                                           Function<T, String> idOf, Consumer<T> prepare,
+                                           Consumer<List<T>> afterInsert) throws IOException {
+        ImportResult result = new ImportResult();
+        List<T> batch = new ArrayList<>(batchSize);
+        List<Integer> batchLines = new ArrayList<>(batchSize);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            T entity;
+            try {
+                entity = objectMapper.readValue(line, type);
+            } catch (JsonProcessingException e) {
+                result.addFailed(lineNumber, "Invalid JSON: " + e.getOriginalMessage());
+                continue;
+            }
+
+            prepare.accept(entity);
+            Set<ConstraintViolation<T>> violations = validator.validate(entity);
+            if (!violations.isEmpty()) {
+                result.addFailed(lineNumber, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                continue;
+            }
+
+            batch.add(entity);
+            batchLines.add(lineNumber);
+            if (batch.size() >= batchSize) {
+                flush(repository, idOf, afterInsert, batch, batchLines, result);
+            }
+        }
+        flush(repository, idOf, afterInsert, batch, batchLines, result);
+        return result;
+    }
+
+    private <T> void flush(BulkInsertRepository<T> repository, Function<T, String> idOf,
+                           Consumer<List<T>> afterInsert, List<T> batch, List<Integer> batchLines,
+                           ImportResult result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, String> errors = repository.insertUnordered(batch);
+        List<T> inserted = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            String error = errors.get(i);
+            if (error != null) {
+                result.addFailed(batchLines.get(i), error);
+            } else {
+                result.addInserted(batchLines.get(i), idOf.apply(batch.get(i)));
+                inserted.add(batch.get(i));
+            }
+        }
+        afterInsert.accept(inserted);
+        batch.clear();
+        batchLines.clear();
+    }
+}
@@ -0,0 +1,35 @@
+package com.lifelogger.service;
+
+import com.lifelogger.security.Roles;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.SecurityContext;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code /actuator/journalarchive}: {@code GET} reports the last run,
+ * {@code POST} archives deleted journals past retention now.
+ */
+@Component
+@Endpoint(id = "journalarchive")
+public class JournalArchiveEndpoint {
+
+    @Autowired
+    private JournalArchiveService journalArchiveService;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return journalArchiveService.status();
+    }
+
+    @WriteOperation
+    public Map<String, Object> start(SecurityContext securityContext) {
+        Roles.requireAdmin(securityContext);
+        journalArchiveService.start();
+        return journalArchiveService.status();
+    }
+}
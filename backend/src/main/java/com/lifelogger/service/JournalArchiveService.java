@@ -0,0 +1,149 @@
+package com.lifelogger.service;
+
+import com.lifelogger.model.Journal;
+import com.lifelogger.repository.JournalRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves journals that were soft-deleted more than
+ * {@code journals.archive.retention-days} ago out of {@code journals}, into
+ * the archive collection or, with {@code journals.archive.mode=purge}, for
+ * good. Runs every {@code journals.archive.interval-minutes} and on demand, in
+ * batches with a pause between them so it never competes with requests for
+ * long.
+ */
+@Service
+public class JournalArchiveService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalArchiveService.class);
+
+    @Autowired
+    private JournalRepository journalRepository;
+
+    @Value("${journals.archive.mode:archive}")
+    private String mode;
+
+    @Value("${journals.archive.retention-days:30}")
+    private int retentionDays;
+
+    @Value("${journals.archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${journals.archive.batch-pause-ms:200}")
+    private long batchPauseMillis;
+
+    @Value("${journals.archive.interval-minutes:360}")
+    private long intervalMinutes;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong journalsRemoved = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    public void schedule() {
+        if (!mode.equals("archive") && !mode.equals("purge")) {
+            throw new IllegalArgumentException("journals.archive.mode must be archive or purge, not " + mode);
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-archive");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // 0 leaves the job to the journalarchive endpoint
+        if (intervalMinutes > 0) {
+            executor.scheduleWithFixedDelay(this::run, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+        }
+    }
+
+    /**
+     * Starts a run in the background. Returns {@code false} if one is already
+     * running.
+     */
+    public boolean start() {
+        if (running.get()) {
+            return false;
+        }
+        executor.execute(this::run);
+        return true;
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", running.get());
+        status.put("mode", mode);
+        status.put("retentionDays", retentionDays);
+        status.put("startedAt", startedAt);
+        status.put("finishedAt", finishedAt);
+        status.put("batches", batches.get());
+        status.put("journalsRemoved", journalsRemoved.get());
+        status.put("failures", failures.get());
+        return status;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        batches.set(0);
+        journalsRemoved.set(0);
+        failures.set(0);
+        startedAt = LocalDateTime.now();
+        finishedAt = null;
+
+        LocalDateTime cutoff = startedAt.minusDays(retentionDays);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                List<Journal> journals = journalRepository.findDeletedBefore(cutoff, batchSize);
+                if (journals.isEmpty()) {
+                    break;
+                }
+                long removed = mode.equals("purge")
+                        ? journalRepository.purgeDeleted(journals.stream().map(Journal::getId).toList())
+                        : journalRepository.archiveDeleted(journals);
+                batches.incrementAndGet();
+                journalsRemoved.addAndGet(removed);
+                if (journals.size() < batchSize || removed == 0) {
+                    break;
+                }
+                Thread.sleep(batchPauseMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // The next run picks up where this one stopped
+            logger.error("Journal archiving stopped", e);
+            failures.incrementAndGet();
+        } finally {
+            finishedAt = LocalDateTime.now();
+            running.set(false);
+            if (journalsRemoved.get() > 0 || failures.get() > 0) {
+                logger.info("Journal archiving finished: {}", status());
+            }
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.lifelogger.service;
+
+import com.lifelogger.model.Journal;
+import com.lifelogger.repository.JournalRepository;
+import com.lifelogger.util.TextAnalyzer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Full-text search over journal content backed by the per-user
+ * {@code userId + searchTerms} multikey index. Each journal stores its distinct
+ * stems and raw tokens; a query only loads the journals that contain every
+ * query term, then ranks them by term frequency.
+ */
+@Service
+public class JournalSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalSearchService.class);
+
+    private static final Pattern PHRASE = Pattern.compile("\"([^\"]*)\"");
+    private static final int BACKFILL_BATCH_SIZE = 500;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double PHRASE_WEIGHT = 2.0;
+
+    @Autowired
+    private JournalRepository journalRepository;
+
+    public void index(Journal journal) {
+        journal.setSearchTerms(TextAnalyzer.indexTerms(journal.getContent()));
+    }
+
+    public List<Journal> search(String userId, String queryText) {
+        ParsedQuery query = ParsedQuery.parse(queryText);
+        if (query.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Journal> candidates = journalRepository.searchByTerms(
+                userId, new ArrayList<>(query.terms), new ArrayList<>(query.prefixes));
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+
+        List<List<String>> tokenLists = new ArrayList<>(candidates.size());
+        long totalLength = 0;
+        for (Journal journal : candidates) {
+            List<String> tokens = TextAnalyzer.tokenize(journal.getContent());
+            tokenLists.add(tokens);
+            totalLength += tokens.size();
+        }
+        double averageLength = Math.max(1.0, (double) totalLength / candidates.size());
+
+        List<ScoredJournal> hits = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            double score = score(query, tokenLists.get(i), averageLength);
+            if (score > 0) {
+                hits.add(new ScoredJournal(candidates.get(i), score));
+            }
+        }
+
+        hits.sort(Comparator.comparingDouble(ScoredJournal::score).reversed()
+                .thenComparing(hit -> hit.journal().getDate(), Comparator.nullsLast(Comparator.reverseOrder()))
+                .thenComparing(hit -> hit.journal().getTime(), Comparator.nullsLast(Comparator.reverseOrder())));
+
+        List<Journal> results = new ArrayList<>(hits.size());
+        for (ScoredJournal hit : hits) {
+            results.add(hit.journal());
+        }
+        return results;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void indexUnindexedJournals() {
+        int indexed = 0;
+        List<Journal> batch;
+        do {
+            batch = journalRepository.findByIsDeletedFalseAndSearchTermsIsNull(PageRequest.of(0, BACKFILL_BATCH_SIZE));
+            batch.forEach(this::index);
+            journalRepository.saveAll(batch);
+            indexed += batch.size();
+        } while (batch.size() == BACKFILL_BATCH_SIZE);
+
+        if (indexed > 0) {
+            logger.info("Built search terms for {} existing journals", indexed);
+        }
+    }
+
+    private double score(ParsedQuery query, List<String> tokens, double averageLength) {
+        List<String> stems = TextAnalyzer.stems(tokens);
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String stem : stems) {
+            frequencies.merge(stem, 1, Integer::sum);
+        }
+
+        double lengthNorm = K1 * (1 - B + B * tokens.size() / averageLength);
+        double score = 0;
+
+        for (String term : query.terms) {
+            int tf = frequencies.getOrDefault(term, 0);
+            if (tf == 0) {
+                return 0;
+            }
+            score += tf * (K1 + 1) / (tf + lengthNorm);
+        }
+
+        for (String prefix : query.prefixes) {
+            int tf = 0;
+            for (String token : tokens) {
+                if (token.startsWith(prefix)) {
+                    tf++;
+                }
+            }
+            if (tf == 0) {
+                return 0;
+            }
+            score += tf * (K1 + 1) / (tf + lengthNorm);
+        }
+
+        for (List<String> phrase : query.phrases) {
+            int occurrences = countOccurrences(stems, phrase);
+            if (occurrences == 0) {
+                return 0;
+            }
+            score += PHRASE_WEIGHT * occurrences * (K1 + 1) / (occurrences + lengthNorm);
+        }
+
+        return score;
+    }
+
+    private static int countOccurrences(List<String> stems, List<String> phrase) {
+        int count = 0;
+        for (int i = 0; i + phrase.size() <= stems.size(); i++) {
+            if (stems.subList(i, i + phrase.size()).equals(phrase)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private record ScoredJournal(Journal journal, double score) {
+    }
+
+    /**
+     * Query syntax: bare words must all appear (after stemming), {@code word*}
+     * matches any word starting with {@code word}, and {@code "quoted words"}
+     * must appear consecutively.
+     */
+    private static final class ParsedQuery {
+
+        private final Set<String> terms = new LinkedHashSet<>();
+        private final Set<String> prefixes = new LinkedHashSet<>();
+        private final List<List<String>> phrases = new ArrayList<>();
+
+        static ParsedQuery parse(String text) {
+            ParsedQuery query = new ParsedQuery();
+            if (text == null) {
+                return query;
+            }
+
+            Matcher matcher = PHRASE.matcher(text);
+            StringBuilder rest = new StringBuilder();
+            while (matcher.find()) {
+                List<String> stems = TextAnalyzer.stems(TextAnalyzer.tokenize(matcher.group(1)));
+                if (stems.size() == 1) {
+                    query.terms.add(stems.get(0));
+                } else if (!stems.isEmpty()) {
+                    query.phrases.add(stems);
+                    query.terms.addAll(stems);
+                }
+                matcher.appendReplacement(rest, " ");
+            }
+            matcher.appendTail(rest);
+
+            for (String word : rest.toString().trim().split("\\s+")) {
+                List<String> tokens = TextAnalyzer.tokenize(word);
+                if (tokens.isEmpty()) {
+                    continue;
+                }
+                boolean prefix = word.endsWith("*");
+                for (int i = 0; i < tokens.size(); i++) {
+                    if (prefix && i == tokens.size() - 1) {
+                        query.prefixes.add(tokens.get(i));
+                    } else {
+                        query.terms.add(TextAnalyzer.stem(tokens.get(i)));
+                    }
+                }
+            }
+            return query;
+        }
+
+        boolean isEmpty() {
+            return terms.isEmpty() && prefixes.isEmpty();
+        }
+    }
+}
@@ -1,14 +1,20 @@
 package com.lifelogger.service;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.lifelogger.dto.CursorPage;
 import com.lifelogger.exception.ResourceNotFoundException;
+import com.lifelogger.model.EntryTypes;
 import com.lifelogger.model.Journal;
 import com.lifelogger.model.Mood;
 import com.lifelogger.repository.JournalRepository;
+import com.lifelogger.util.CursorCodec;
+import com.lifelogger.util.PageLimits;
+import com.lifelogger.util.Projection;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-//import java.time.LocalDateTime;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
 
@@ -18,12 +24,32 @@ public class JournalService {
     @Autowired
     private JournalRepository journalRepository;
 
+    @Autowired
+    private JournalSearchService journalSearchService;
+
+    @Autowired
+    private MoodRollupService moodRollupService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private CollectionVersionService collectionVersionService;
+
+    @Autowired
+    private PageLimits pageLimits;
+
     public Journal createJournal(Journal journal, String userId) {
         journal.setUserId(userId);
         journal.setDate(LocalDate.now());
         journal.setTime(LocalTime.now());
         journal.setDeleted(false);
-        return journalRepository.save(journal);
+        journalSearchService.index(journal);
+        Journal saved = journalRepository.save(journal);
+        moodRollupService.added(userId, EntryTypes.JOURNAL, saved.getDate(), saved.getMood());
+        tagService.added(userId, EntryTypes.JOURNAL, saved.getTags());
+        collectionVersionService.changed(userId, EntryTypes.JOURNAL);
+        return saved;
     }
 
     public Journal updateJournal(String id, Journal journalDetails, String userId) {
@@ -42,8 +68,20 @@ public class JournalService {
         journal.setMood(journalDetails.getMood());
         journal.setTags(journalDetails.getTags());
         journal.setContext(journalDetails.getContext());
+        journal.setUpdatedAt(LocalDateTime.now());
+        journalSearchService.index(journal);
 
-        return journalRepository.save(journal);
+        // Conditional on the journal still being active, with the rollup and tag deltas taken from
+        // the version it replaced, so concurrent updates and deletes are each counted once
+        Journal previous = journalRepository.updateActive(journal);
+        if (previous == null) {
+            throw new IllegalArgumentException("Cannot update a deleted journal");
+        }
+        moodRollupService.changed(userId, EntryTypes.JOURNAL, previous.getDate(), previous.getMood(),
+                journal.getDate(), journal.getMood());
+        tagService.changed(userId, EntryTypes.JOURNAL, previous.getTags(), journal.getTags());
+        collectionVersionService.changed(userId, EntryTypes.JOURNAL);
+        return journal;
     }
 
     public void softDeleteJournal(String id, String userId) {
@@ -54,12 +92,51 @@ public class JournalService {
             throw new IllegalArgumentException("You don't have permission to delete this journal");
         }
 
-        journal.setDeleted(true);
-        journalRepository.save(journal);
+        if (journal.isDeleted()) {
+            return;
+        }
+
+        Journal previous = journalRepository.softDelete(id, LocalDateTime.now());
+        if (previous == null) {
+            // Deleted by a concurrent request, which counted it
+            return;
+        }
+        moodRollupService.removed(userId, EntryTypes.JOURNAL, previous.getDate(), previous.getMood());
+        tagService.removed(userId, EntryTypes.JOURNAL, previous.getTags());
+        collectionVersionService.changed(userId, EntryTypes.JOURNAL);
     }
 
     public List<Journal> getAllJournals(String userId) {
-        return journalRepository.findByUserIdAndIsDeletedFalseOrderByDateDescTimeDesc(userId);
+        return journalRepository.findByUserIdAndIsDeletedFalseOrderByDateDescTimeDesc(userId, pageLimits.listCap());
+    }
+
+    public List<ObjectNode> getAllJournals(String userId, Projection projection) {
+        return projection.render(journalRepository.findPageByUserId(userId, null, null, null,
+                pageLimits.listCap().max(), projection));
+    }
+
+    public CursorPage<Journal> getJournalsPage(String userId, Integer limit, String after) {
+        return journalsPage(userId, limit, after, null);
+    }
+
+    public CursorPage<ObjectNode> getJournalsPage(String userId, Integer limit, String after, Projection projection) {
+        return journalsPage(userId, limit, after, projection).map(projection::render);
+    }
+
+    private CursorPage<Journal> journalsPage(String userId, Integer limit, String after, Projection projection) {
+        int pageSize = pageLimits.pageSize(limit);
+        Journal cursor = null;
+        if (after != null) {
+            String[] parts = CursorCodec.decode(after, 3);
+            cursor = new Journal();
+            cursor.setDate(CursorCodec.parse(parts[0], LocalDate::parse));
+            cursor.setTime(CursorCodec.parse(parts[1], LocalTime::parse));
+            cursor.setId(parts[2]);
+        }
+        List<Journal> journals = journalRepository.findPageByUserId(userId, cursor, null, null, pageSize + 1,
+                projection);
+        return CursorPage.of(journals, pageSize,
+                journal -> CursorCodec.encode(journal.getDate(), journal.getTime(), journal.getId()));
     }
 
     public Journal getJournalById(String id, String userId) {
@@ -82,7 +159,7 @@ public class JournalService {
     }
 
     public List<Journal> searchJournals(String userId, String searchText) {
-        return journalRepository.searchByContent(userId, searchText);
+        return journalSearchService.search(userId, searchText);
     }
 
     public List<Journal> filterByMood(String userId, Mood mood) {
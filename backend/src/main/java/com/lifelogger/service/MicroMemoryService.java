@@ -1,9 +1,15 @@
 package com.lifelogger.service;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.lifelogger.dto.CursorPage;
 import com.lifelogger.exception.ResourceNotFoundException;
+import com.lifelogger.model.EntryTypes;
 import com.lifelogger.model.MicroMemory;
 import com.lifelogger.model.Mood;
 import com.lifelogger.repository.MicroMemoryRepository;
+import com.lifelogger.util.CursorCodec;
+import com.lifelogger.util.PageLimits;
+import com.lifelogger.util.Projection;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -16,10 +22,27 @@ public class MicroMemoryService {
     @Autowired
     private MicroMemoryRepository microMemoryRepository;
 
+    @Autowired
+    private MoodRollupService moodRollupService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private CollectionVersionService collectionVersionService;
+
+    @Autowired
+    private PageLimits pageLimits;
+
     public MicroMemory createMicroMemory(MicroMemory microMemory, String userId) {
         microMemory.setUserId(userId);
         microMemory.setTimestamp(LocalDateTime.now());
-        return microMemoryRepository.save(microMemory);
+        MicroMemory saved = microMemoryRepository.save(microMemory);
+        moodRollupService.added(userId, EntryTypes.MEMORY,
+                MoodRollupService.dayOf(saved.getTimestamp()), saved.getMood());
+        tagService.added(userId, EntryTypes.MEMORY, saved.getTags());
+        collectionVersionService.changed(userId, EntryTypes.MEMORY);
+        return saved;
     }
 
     public void deleteMicroMemory(String id, String userId) {
@@ -30,11 +53,49 @@ public class MicroMemoryService {
             throw new IllegalArgumentException("You don't have permission to delete this memory");
         }
 
-        microMemoryRepository.delete(microMemory);
+        MicroMemory removed = microMemoryRepository.removeOwned(id, userId);
+        if (removed == null) {
+            // Deleted by a concurrent request, which counted it
+            return;
+        }
+        moodRollupService.removed(userId, EntryTypes.MEMORY,
+                MoodRollupService.dayOf(removed.getTimestamp()), removed.getMood());
+        tagService.removed(userId, EntryTypes.MEMORY, removed.getTags());
+        collectionVersionService.changed(userId, EntryTypes.MEMORY);
     }
 
     public List<MicroMemory> getAllMicroMemories(String userId) {
-        return microMemoryRepository.findByUserIdOrderByTimestampDesc(userId);
+        return microMemoryRepository.findByUserIdOrderByTimestampDesc(userId, pageLimits.listCap());
+    }
+
+    public List<ObjectNode> getAllMicroMemories(String userId, Projection projection) {
+        return projection.render(microMemoryRepository.findPageByUserId(userId, null, null, null,
+                pageLimits.listCap().max(), projection));
+    }
+
+    public CursorPage<MicroMemory> getMicroMemoriesPage(String userId, Integer limit, String after) {
+        return microMemoriesPage(userId, limit, after, null);
+    }
+
+    public CursorPage<ObjectNode> getMicroMemoriesPage(String userId, Integer limit, String after,
+                                                       Projection projection) {
+        return microMemoriesPage(userId, limit, after, projection).map(projection::render);
+    }
+
+    private CursorPage<MicroMemory> microMemoriesPage(String userId, Integer limit, String after,
+                                                      Projection projection) {
+        int pageSize = pageLimits.pageSize(limit);
+        MicroMemory cursor = null;
+        if (after != null) {
+            String[] parts = CursorCodec.decode(after, 2);
+            cursor = new MicroMemory();
+            cursor.setTimestamp(CursorCodec.parse(parts[0], LocalDateTime::parse));
+            cursor.setId(parts[1]);
+        }
+        List<MicroMemory> memories = microMemoryRepository.findPageByUserId(userId, cursor, null, null,
+                pageSize + 1, projection);
+        return CursorPage.of(memories, pageSize,
+                memory -> CursorCodec.encode(memory.getTimestamp(), memory.getId()));
     }
 
     public List<MicroMemory> filterByMood(String userId, Mood mood) {
@@ -0,0 +1,99 @@
+package com.lifelogger.service;
+
+import com.lifelogger.dto.MoodPoint;
+import com.lifelogger.model.EntryTypes;
+import com.lifelogger.model.Mood;
+import com.lifelogger.model.MoodRollup;
+import com.lifelogger.repository.MoodRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Range;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * Mood analytics read from the daily {@code moodRollups}, so a query costs one
+ * row per day in range however many entries the user has.
+ */
+@Service
+public class MoodAnalyticsService {
+
+    private static final Set<String> TYPES = Set.of(
+            EntryTypes.JOURNAL, EntryTypes.MEMORY, EntryTypes.TASTE, EntryTypes.PLACE, EntryTypes.PHOTO);
+
+    @Autowired
+    private MoodRollupRepository moodRollupRepository;
+
+    /**
+     * One point per day that has any counted entry, oldest first.
+     */
+    public List<MoodPoint> getDailyMoods(String userId, LocalDate from, LocalDate to, String type) {
+        return getMoods(userId, from, to, type, UnaryOperator.identity());
+    }
+
+    /**
+     * One point per week (starting Monday), month or year, oldest first.
+     */
+    public List<MoodPoint> getMoodDistribution(String userId, String period, LocalDate from, LocalDate to,
+                                               String type) {
+        UnaryOperator<LocalDate> periodStart = switch (period) {
+            case "week" -> date -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case "month" -> date -> date.withDayOfMonth(1);
+            case "year" -> date -> date.withDayOfYear(1);
+            default -> throw new IllegalArgumentException("Unsupported period: " + period
+                    + ". Supported periods are week, month and year");
+        };
+        return getMoods(userId, from, to, type, periodStart);
+    }
+
+    private List<MoodPoint> getMoods(String userId, LocalDate from, LocalDate to, String type,
+                                     UnaryOperator<LocalDate> bucketOf) {
+        if (type != null && !TYPES.contains(type)) {
+            throw new IllegalArgumentException("Unsupported type: " + type
+                    + ". Supported types are journal, memory, taste, place and photo");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+
+        Range<LocalDate> dates = Range.of(
+                from != null ? Range.Bound.inclusive(from) : Range.Bound.unbounded(),
+                to != null ? Range.Bound.inclusive(to) : Range.Bound.unbounded());
+
+        Map<LocalDate, MoodPoint> points = new LinkedHashMap<>();
+        for (MoodRollup rollup : moodRollupRepository.findByUserIdAndDateBetweenOrderByDateAsc(userId, dates)) {
+            if (rollup.getCounts() == null) {
+                continue;
+            }
+            MoodPoint point = points.computeIfAbsent(bucketOf.apply(rollup.getDate()),
+                    date -> new MoodPoint(date, new EnumMap<>(Mood.class), 0));
+            rollup.getCounts().forEach((rollupType, moods) -> {
+                if (type == null || type.equals(rollupType)) {
+                    moods.forEach((mood, count) -> {
+                        if (count > 0) {
+                            point.getCounts().merge(mood, count, Integer::sum);
+                            point.setTotal(point.getTotal() + count);
+                        }
+                    });
+                }
+            });
+        }
+
+        List<MoodPoint> result = new ArrayList<>(points.size());
+        for (MoodPoint point : points.values()) {
+            if (point.getTotal() > 0) {
+                result.add(point);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,35 @@
+package com.lifelogger.service;
+
+import com.lifelogger.security.Roles;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.SecurityContext;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code /actuator/moodrollups}: {@code GET} reports whether a rebuild is
+ * running, {@code POST} recomputes all mood rollups from the entries.
+ */
+@Component
+@Endpoint(id = "moodrollups")
+public class MoodRollupEndpoint {
+
+    @Autowired
+    private MoodRollupService moodRollupService;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return moodRollupService.status();
+    }
+
+    @WriteOperation
+    public Map<String, Object> rebuild(SecurityContext securityContext) {
+        Roles.requireAdmin(securityContext);
+        moodRollupService.startRebuild();
+        return moodRollupService.status();
+    }
+}
@@ -0,0 +1,204 @@
+package com.lifelogger.service;
+
+import com.lifelogger.model.EntryTypes;
+import com.lifelogger.model.Journal;
+import com.lifelogger.model.MicroMemory;
+import com.lifelogger.model.Mood;
+import com.lifelogger.model.MoodRollup;
+import com.lifelogger.model.Photo;
+import com.lifelogger.model.Place;
+import com.lifelogger.model.Taste;
+import com.lifelogger.model.User;
+import com.lifelogger.repository.JournalRepository;
+import com.lifelogger.repository.MicroMemoryRepository;
+import com.lifelogger.repository.MoodRollupRepository;
+import com.lifelogger.repository.PhotoRepository;
+import com.lifelogger.repository.PlaceRepository;
+import com.lifelogger.repository.TasteRepository;
+import com.lifelogger.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Maintains the per-user, per-day mood counts in {@code moodRollups}. The
+ * services report every change to an entry's day or mood here, so analytics
+ * read one row per day instead of every entry. {@link #rebuild()} recomputes
+ * everything from the entries themselves.
+ */
+@Service
+public class MoodRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MoodRollupService.class);
+
+    @Autowired
+    private MoodRollupRepository moodRollupRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JournalRepository journalRepository;
+
+    @Autowired
+    private MicroMemoryRepository microMemoryRepository;
+
+    @Autowired
+    private TasteRepository tasteRepository;
+
+    @Autowired
+    private PlaceRepository placeRepository;
+
+    @Autowired
+    private PhotoRepository photoRepository;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private volatile LocalDateTime lastRebuiltAt;
+
+    public void added(String userId, String type, LocalDate day, Mood mood) {
+        if (day != null && mood != null) {
+            moodRollupRepository.increment(userId, day, type, mood, 1);
+        }
+    }
+
+    public void removed(String userId, String type, LocalDate day, Mood mood) {
+        if (day != null && mood != null) {
+            moodRollupRepository.increment(userId, day, type, mood, -1);
+        }
+    }
+
+    public void changed(String userId, String type, LocalDate oldDay, Mood oldMood, LocalDate newDay, Mood newMood) {
+        if (Objects.equals(oldDay, newDay) && oldMood == newMood) {
+            return;
+        }
+        removed(userId, type, oldDay, oldMood);
+        added(userId, type, newDay, newMood);
+    }
+
+    /**
+     * Counts a batch of new entries with one update per distinct day and mood.
+     */
+    public <T> void addedAll(String userId, String type, List<T> entries,
+                             Function<T, LocalDate> dayOf, Function<T, Mood> moodOf) {
+        Map<LocalDate, Map<Mood, Integer>> counts = new HashMap<>();
+        for (T entry : entries) {
+            LocalDate day = dayOf.apply(entry);
+            Mood mood = moodOf.apply(entry);
+            if (day != null && mood != null) {
+                counts.computeIfAbsent(day, d -> new HashMap<>()).merge(mood, 1, Integer::sum);
+            }
+        }
+        counts.forEach((day, moods) -> moods.forEach(
+                (mood, count) -> moodRollupRepository.increment(userId, day, type, mood, count)));
+    }
+
+    public static LocalDate dayOf(LocalDateTime timestamp) {
+        return timestamp != null ? timestamp.toLocalDate() : null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfMissing() {
+        if (moodRollupRepository.count() == 0) {
+            startRebuild();
+        }
+    }
+
+    /**
+     * Starts {@link #rebuild()} in the background. Returns {@code false} if one
+     * is already running.
+     */
+    public boolean startRebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread thread = new Thread(this::rebuildAll, "mood-rollup-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("rebuilding", rebuilding.get());
+        status.put("lastRebuiltAt", lastRebuiltAt);
+        return status;
+    }
+
+    /**
+     * Recomputes every user's rollups from their entries, one user at a time.
+     * Changes made to a user's entries while that user is being recomputed can
+     * be miscounted until the next rebuild.
+     */
+    public void rebuild() {
+        if (rebuilding.compareAndSet(false, true)) {
+            rebuildAll();
+        }
+    }
+
+    // Called with rebuilding set
+    private void rebuildAll() {
+        try (Stream<User> users = userRepository.streamAllBy()) {
+            Iterator<User> iterator = users.iterator();
+            int rebuilt = 0;
+            while (iterator.hasNext()) {
+                rebuildUser(iterator.next().getId());
+                rebuilt++;
+            }
+            lastRebuiltAt = LocalDateTime.now();
+            logger.info("Rebuilt mood rollups for {} users", rebuilt);
+        } catch (RuntimeException e) {
+            logger.error("Mood rollup rebuild failed", e);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private void rebuildUser(String userId) {
+        Map<LocalDate, MoodRollup> rollups = new HashMap<>();
+        try (Stream<Journal> journals = journalRepository.streamByUserIdAndIsDeletedFalse(userId)) {
+            journals.forEach(journal -> count(rollups, userId, EntryTypes.JOURNAL, journal.getDate(), journal.getMood()));
+        }
+        try (Stream<MicroMemory> memories = microMemoryRepository.streamByUserId(userId)) {
+            memories.forEach(memory -> count(rollups, userId, EntryTypes.MEMORY,
+                    dayOf(memory.getTimestamp()), memory.getMood()));
+        }
+        try (Stream<Taste> tastes = tasteRepository.streamByUserId(userId)) {
+            tastes.forEach(taste -> count(rollups, userId, EntryTypes.TASTE, taste.getDateConsumed(), taste.getMood()));
+        }
+        try (Stream<Place> places = placeRepository.streamByUserId(userId)) {
+            places.forEach(place -> count(rollups, userId, EntryTypes.PLACE, place.getDateVisited(), place.getMood()));
+        }
+        try (Stream<Photo> photos = photoRepository.streamByUserId(userId)) {
+            photos.forEach(photo -> count(rollups, userId, EntryTypes.PHOTO,
+                    dayOf(photo.getDateUploaded()), photo.getMood()));
+        }
+
+        moodRollupRepository.deleteByUserId(userId);
+        moodRollupRepository.saveAll(rollups.values());
+    }
+
+    private static void count(Map<LocalDate, MoodRollup> rollups, String userId, String type,
+                              LocalDate day, Mood mood) {
+        if (day == null || mood == null) {
+            return;
+        }
+        MoodRollup rollup = rollups.computeIfAbsent(day,
+                d -> new MoodRollup(MoodRollup.idOf(userId, d), userId, d, new HashMap<>()));
+        rollup.getCounts().computeIfAbsent(type, t -> new HashMap<>()).merge(mood, 1, Integer::sum);
+    }
+}
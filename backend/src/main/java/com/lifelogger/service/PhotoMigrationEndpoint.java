@@ -0,0 +1,35 @@
+package com.lifelogger.service;
+
+import com.lifelogger.security.Roles;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.SecurityContext;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code /actuator/photomigration}: {@code GET} reports progress, {@code POST}
+ * starts moving flat-layout photo files into the sharded layout.
+ */
+@Component
+@Endpoint(id = "photomigration")
+public class PhotoMigrationEndpoint {
+
+    @Autowired
+    private PhotoStorageMigration photoStorageMigration;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return photoStorageMigration.status();
+    }
+
+    @WriteOperation
+    public Map<String, Object> start(SecurityContext securityContext) {
+        Roles.requireAdmin(securityContext);
+        photoStorageMigration.start();
+        return photoStorageMigration.status();
+    }
+}
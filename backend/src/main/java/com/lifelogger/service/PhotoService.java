@@ -1,56 +1,171 @@
 package com.lifelogger.service;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.lifelogger.dto.CursorPage;
 import com.lifelogger.exception.ResourceNotFoundException;
+import com.lifelogger.model.EntryTypes;
 import com.lifelogger.model.Mood;
 import com.lifelogger.model.Photo;
+import com.lifelogger.model.PhotoBlob;
+import com.lifelogger.repository.PhotoBlobRepository;
 import com.lifelogger.repository.PhotoRepository;
+import com.lifelogger.util.CursorCodec;
+import com.lifelogger.util.PageLimits;
+import com.lifelogger.util.Projection;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 import java.util.List;
-import java.util.UUID;
+import java.util.Locale;
 
 @Service
 public class PhotoService {
 
+    private static final int ACQUIRE_ATTEMPTS = 50;
+    private static final long ACQUIRE_RETRY_DELAY_MS = 20;
+
     @Autowired
     private PhotoRepository photoRepository;
 
-    @Value("${file.upload.dir}")
-    private String uploadDir;
+    @Autowired
+    private PhotoBlobRepository photoBlobRepository;
+
+    @Autowired
+    private MoodRollupService moodRollupService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private CollectionVersionService collectionVersionService;
+
+    @Autowired
+    private PageLimits pageLimits;
+
+    @Autowired
+    private PhotoStorage photoStorage;
+
+    @Autowired
+    private PhotoVariantService photoVariantService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private DistributionSummary uploadBytes;
+
+    @PostConstruct
+    void registerMeters() {
+        uploadBytes = DistributionSummary.builder("photos.upload.bytes")
+                .description("Size of uploaded photo files")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
 
     public Photo uploadPhoto(MultipartFile file, Photo photoMetadata, String userId) throws IOException {
+        try (InputStream content = file.getInputStream()) {
+            return uploadPhoto(content, file.getOriginalFilename(), photoMetadata, userId);
+        }
+    }
+
+    public Photo uploadPhoto(InputStream content, String originalFilename, Photo photoMetadata, String userId)
+            throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            Photo saved = storePhoto(content, originalFilename, photoMetadata, userId);
+            outcome = "success";
+            return saved;
+        } finally {
+            sample.stop(Timer.builder("photos.upload")
+                    .description("Time to store an uploaded photo, from first byte read to saved metadata")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private Photo storePhoto(InputStream content, String originalFilename, Photo photoMetadata, String userId)
+            throws IOException {
         // Create upload directory if it doesn't exist
-        Path uploadPath = Paths.get(uploadDir);
+        Path uploadPath = photoStorage.root();
         if (!Files.exists(uploadPath)) {
             Files.createDirectories(uploadPath);
         }
 
-        // Generate unique filename
-        String originalFilename = file.getOriginalFilename();
         String extension = originalFilename != null && originalFilename.contains(".")
-                ? originalFilename.substring(originalFilename.lastIndexOf("."))
+                ? originalFilename.substring(originalFilename.lastIndexOf(".")).toLowerCase(Locale.ROOT)
                 : "";
-        String filename = UUID.randomUUID().toString() + extension;
 
-        // Save file
-        Path filePath = uploadPath.resolve(filename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+        // Hash the file while it streams to a temporary name, then keep one copy per distinct content
+        PhotoBlob blob;
+        Path tempFile = Files.createTempFile(uploadPath, "upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            long size;
+            try (InputStream input = new DigestInputStream(content, digest)) {
+                size = Files.copy(input, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            uploadBytes.record(size);
+            String contentHash = HexFormat.of().formatHex(digest.digest());
+
+            blob = acquireBlob(userId, contentHash,
+                    photoStorage.urlOf(photoStorage.blobPath(userId, contentHash, extension)), size);
+            try {
+                Path blobFile = photoStorage.resolve(blob.getImageUrl());
+                if (!Files.exists(blobFile)) {
+                    Files.createDirectories(blobFile.getParent());
+                    Files.move(tempFile, blobFile, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } catch (IOException | RuntimeException e) {
+                PhotoBlob released = photoBlobRepository.release(userId, contentHash);
+                if (released != null) {
+                    discard(released, null);
+                }
+                throw e;
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
 
         // Save metadata
         photoMetadata.setUserId(userId);
-        photoMetadata.setImageUrl("/uploads/photos/" + filename);
+        photoMetadata.setImageUrl(blob.getImageUrl());
+        photoMetadata.setContentHash(blob.getContentHash());
         photoMetadata.setDateUploaded(LocalDateTime.now());
+        photoMetadata.setVariants(null);
 
-        return photoRepository.save(photoMetadata);
+        boolean duplicate = blob.getRefCount() > 1;
+        if (duplicate) {
+            // Reuse the variants of the existing file; if they are still being generated
+            // the pending job fills them in for every photo sharing it
+            photoRepository.findFirstByUserIdAndImageUrlAndVariantsIsNotNull(userId, blob.getImageUrl())
+                    .ifPresent(existing -> photoMetadata.setVariants(existing.getVariants()));
+        }
+
+        Photo saved = photoRepository.save(photoMetadata);
+        moodRollupService.added(userId, EntryTypes.PHOTO,
+                MoodRollupService.dayOf(saved.getDateUploaded()), saved.getMood());
+        tagService.added(userId, EntryTypes.PHOTO, saved.getTags());
+        collectionVersionService.changed(userId, EntryTypes.PHOTO);
+        if (!duplicate) {
+            photoVariantService.generateVariantsAsync(saved);
+        }
+        return saved;
     }
 
     public void deletePhoto(String id, String userId) throws IOException {
@@ -61,17 +176,99 @@ public class PhotoService {
             throw new IllegalArgumentException("You don't have permission to delete this photo");
         }
 
-        // Delete file from filesystem
-        String filename = photo.getImageUrl().substring(photo.getImageUrl().lastIndexOf("/") + 1);
-        Path filePath = Paths.get(uploadDir).resolve(filename);
-        Files.deleteIfExists(filePath);
-
         // Delete from database
         photoRepository.delete(photo);
+        moodRollupService.removed(userId, EntryTypes.PHOTO,
+                MoodRollupService.dayOf(photo.getDateUploaded()), photo.getMood());
+        tagService.removed(userId, EntryTypes.PHOTO, photo.getTags());
+        collectionVersionService.changed(userId, EntryTypes.PHOTO);
+
+        // Delete file and its resized variants once no other photo shares them
+        if (photo.getContentHash() == null) {
+            photoVariantService.deleteVariants(photo);
+            Files.deleteIfExists(resolveFile(photo));
+            return;
+        }
+        PhotoBlob released = photoBlobRepository.release(photo.getUserId(), photo.getContentHash());
+        if (released != null) {
+            discard(released, photo);
+        }
+    }
+
+    /**
+     * Acquires the blob, waiting while a delete of the same content finishes
+     * removing its file, so the upload does not adopt a file about to go.
+     */
+    private PhotoBlob acquireBlob(String userId, String contentHash, String imageUrl, long size)
+            throws IOException {
+        for (int attempt = 0; attempt < ACQUIRE_ATTEMPTS; attempt++) {
+            PhotoBlob blob = photoBlobRepository.acquire(userId, contentHash, imageUrl, size);
+            if (blob != null) {
+                return blob;
+            }
+            try {
+                Thread.sleep(ACQUIRE_RETRY_DELAY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for photo " + contentHash + " to be deleted");
+            }
+        }
+        throw new IOException("Photo " + contentHash + " is still being deleted");
+    }
+
+    // Deletes the files of a blob that release() marked as deleting, then the blob itself
+    private void discard(PhotoBlob blob, Photo photo) throws IOException {
+        try {
+            if (photo != null) {
+                photoVariantService.deleteVariants(photo);
+            }
+            Files.deleteIfExists(photoStorage.resolve(blob.getImageUrl()));
+        } finally {
+            photoBlobRepository.remove(blob.getUserId(), blob.getContentHash());
+        }
+    }
+
+    public Path resolveFile(Photo photo) {
+        return photoStorage.resolve(photo.getImageUrl());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
     public List<Photo> getAllPhotos(String userId) {
-        return photoRepository.findByUserIdOrderByDateUploadedDesc(userId);
+        return photoRepository.findByUserIdOrderByDateUploadedDesc(userId, pageLimits.listCap());
+    }
+
+    public List<ObjectNode> getAllPhotos(String userId, Projection projection) {
+        return projection.render(photoRepository.findPageByUserId(userId, null, null, null,
+                pageLimits.listCap().max(), projection));
+    }
+
+    public CursorPage<Photo> getPhotosPage(String userId, Integer limit, String after) {
+        return photosPage(userId, limit, after, null);
+    }
+
+    public CursorPage<ObjectNode> getPhotosPage(String userId, Integer limit, String after, Projection projection) {
+        return photosPage(userId, limit, after, projection).map(projection::render);
+    }
+
+    private CursorPage<Photo> photosPage(String userId, Integer limit, String after, Projection projection) {
+        int pageSize = pageLimits.pageSize(limit);
+        Photo cursor = null;
+        if (after != null) {
+            String[] parts = CursorCodec.decode(after, 2);
+            cursor = new Photo();
+            cursor.setDateUploaded(CursorCodec.parse(parts[0], LocalDateTime::parse));
+            cursor.setId(parts[1]);
+        }
+        List<Photo> photos = photoRepository.findPageByUserId(userId, cursor, null, null, pageSize + 1, projection);
+        return CursorPage.of(photos, pageSize,
+                photo -> CursorCodec.encode(photo.getDateUploaded(), photo.getId()));
     }
 
     public Photo getPhotoById(String id, String userId) {
@@ -0,0 +1,71 @@
+package com.lifelogger.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Maps between public photo URLs ({@code /uploads/photos/...}) and files under
+ * {@code file.upload.dir}. Files live in {@code <userId>/<ab>/<cd>/<name>},
+ * where {@code ab} and {@code cd} are the first characters of the (hex) file
+ * name, so no directory grows beyond a few thousand entries. Files uploaded
+ * before the sharded layout sit directly under the root until migrated.
+ */
+@Component
+public class PhotoStorage {
+
+    public static final String URL_PREFIX = "/uploads/photos/";
+
+    private final Path root;
+
+    public PhotoStorage(@Value("${file.upload.dir}") String uploadDir) {
+        this.root = Paths.get(uploadDir).toAbsolutePath().normalize();
+    }
+
+    public Path root() {
+        return root;
+    }
+
+    /**
+     * Where the user's file with this content hash is stored.
+     */
+    public Path blobPath(String userId, String contentHash, String extension) {
+        return shardedPath(userId, contentHash + extension);
+    }
+
+    public Path shardedPath(String userId, String filename) {
+        String shard = filename.length() >= 4 ? filename : String.format("%-4s", filename).replace(' ', '_');
+        Path file = root.resolve(userId)
+                .resolve(shard.substring(0, 2))
+                .resolve(shard.substring(2, 4))
+                .resolve(filename)
+                .normalize();
+        if (!file.startsWith(root) || file.getParent().equals(root)) {
+            throw new IllegalArgumentException("Invalid photo path: " + userId + "/" + filename);
+        }
+        return file;
+    }
+
+    /**
+     * Whether the URL points at a file stored directly under the root, i.e. in the
+     * flat layout that predates sharding.
+     */
+    public boolean isFlat(String url) {
+        return url.startsWith(URL_PREFIX) && url.indexOf('/', URL_PREFIX.length()) < 0;
+    }
+
+    public Path resolve(String url) {
+        String relative = url.startsWith(URL_PREFIX) ? url.substring(URL_PREFIX.length()) : url;
+        Path file = root.resolve(relative).normalize();
+        if (!file.startsWith(root)) {
+            throw new IllegalArgumentException("Invalid photo path: " + url);
+        }
+        return file;
+    }
+
+    public String urlOf(Path file) {
+        return URL_PREFIX + root.relativize(file.toAbsolutePath().normalize()).toString().replace('\\', '/');
+    }
+}
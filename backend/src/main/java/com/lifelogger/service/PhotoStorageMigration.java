@@ -0,0 +1,317 @@
+package com.lifelogger.service;
+
+import com.lifelogger.model.EntryTypes;
+import com.lifelogger.model.Photo;
+import com.lifelogger.model.PhotoRelocation;
+import com.lifelogger.repository.PhotoBlobRepository;
+import com.lifelogger.repository.PhotoRelocationRepository;
+import com.lifelogger.repository.PhotoRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Moves photo files from the flat upload directory into the sharded layout
+ * while the application keeps serving. Each file is copied into its user's
+ * shard after its old URL is recorded in {@code photoRelocations}, so old
+ * links resolve throughout, and the photo document is then pointed at the new
+ * URL. A flat file may be shared by photos of several users, so it is only
+ * deleted at the end of the run, once no photo refers to it any more.
+ */
+@Service
+public class PhotoStorageMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(PhotoStorageMigration.class);
+
+    private static final String FLAT_URL_PATTERN = "^" + PhotoStorage.URL_PREFIX + "[^/]+$";
+
+    @Autowired
+    private PhotoRepository photoRepository;
+
+    @Autowired
+    private PhotoBlobRepository photoBlobRepository;
+
+    @Autowired
+    private PhotoRelocationRepository photoRelocationRepository;
+
+    @Autowired
+    private PhotoStorage photoStorage;
+
+    @Autowired
+    private CollectionVersionService collectionVersionService;
+
+    @Value("${photo.migration.threads:4}")
+    private int threads;
+
+    // Migrations in flight per user and flat URL, which share the shard file they copy it to
+    private final Map<String, Integer> migrating = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong photosScanned = new AtomicLong();
+    private final AtomicLong photosMoved = new AtomicLong();
+    private final AtomicLong filesMoved = new AtomicLong();
+    private final AtomicLong filesMissing = new AtomicLong();
+    private final AtomicLong flatFilesDeleted = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile ThreadPoolExecutor executor;
+    private volatile boolean stopping;
+
+    /**
+     * Starts a migration in the background. Returns {@code false} if one is
+     * already running.
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        photosScanned.set(0);
+        photosMoved.set(0);
+        filesMoved.set(0);
+        filesMissing.set(0);
+        flatFilesDeleted.set(0);
+        failures.set(0);
+        startedAt = LocalDateTime.now();
+        finishedAt = null;
+
+        Thread coordinator = new Thread(this::run, "photo-migration");
+        coordinator.setDaemon(true);
+        coordinator.start();
+        return true;
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", running.get());
+        status.put("startedAt", startedAt);
+        status.put("finishedAt", finishedAt);
+        status.put("photosScanned", photosScanned.get());
+        status.put("photosMoved", photosMoved.get());
+        status.put("filesMoved", filesMoved.get());
+        status.put("filesMissing", filesMissing.get());
+        status.put("flatFilesDeleted", flatFilesDeleted.get());
+        status.put("failures", failures.get());
+        return status;
+    }
+
+    /**
+     * Where a file that used to be served at {@code url} lives now, if it moved.
+     */
+    public Optional<Path> findRelocated(String url) {
+        return photoRelocationRepository.findById(url)
+                .map(relocation -> photoStorage.resolve(relocation.getImageUrl()));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        stopping = true;
+        ThreadPoolExecutor pool = executor;
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    private void run() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        // The caller runs tasks when the queue is full, so the photo stream is read no faster than files move
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 4), runnable -> {
+                    Thread thread = new Thread(runnable, "photo-migration-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+
+        try (Stream<Photo> photos = photoRepository.streamByImageUrlRegex(FLAT_URL_PATTERN)) {
+            Iterator<Photo> iterator = photos.iterator();
+            while (iterator.hasNext() && !executor.isShutdown()) {
+                Photo photo = iterator.next();
+                photosScanned.incrementAndGet();
+                executor.execute(() -> migrate(photo));
+            }
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            if (!stopping) {
+                deleteMigratedFlatFiles();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            logger.error("Photo storage migration stopped", e);
+            failures.incrementAndGet();
+        } finally {
+            executor.shutdownNow();
+            finishedAt = LocalDateTime.now();
+            running.set(false);
+            logger.info("Photo storage migration finished: {}", status());
+        }
+    }
+
+    private void migrate(Photo photo) {
+        String oldUrl = photo.getImageUrl();
+        String key = photo.getUserId() + "\n" + oldUrl;
+        migrating.merge(key, 1, Integer::sum);
+        // Shard URLs by the flat URLs this migration copied to them
+        Map<String, String> copied = new LinkedHashMap<>();
+        String newUrl = null;
+        boolean relocated = false;
+        try {
+            newUrl = move(photo.getUserId(), oldUrl, copied);
+            if (newUrl == null) {
+                filesMissing.incrementAndGet();
+                return;
+            }
+
+            Map<String, String> variants = null;
+            if (photo.getVariants() != null) {
+                variants = new LinkedHashMap<>();
+                for (Map.Entry<String, String> variant : photo.getVariants().entrySet()) {
+                    String url = variant.getValue().equals(oldUrl)
+                            ? newUrl : move(photo.getUserId(), variant.getValue(), copied);
+                    // A missing variant file is dropped; the photo falls back to the original
+                    if (url != null) {
+                        variants.put(variant.getKey(), url);
+                    }
+                }
+            }
+
+            relocated = photoRepository.relocate(photo.getId(), oldUrl, newUrl, variants);
+            if (relocated) {
+                photosMoved.incrementAndGet();
+                collectionVersionService.changed(photo.getUserId(), EntryTypes.PHOTO);
+                if (photo.getContentHash() != null) {
+                    photoBlobRepository.updateImageUrl(photo.getUserId(), photo.getContentHash(), newUrl);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            failures.incrementAndGet();
+            logger.warn("Could not migrate photo {}: {}", photo.getId(), e.getMessage());
+        } finally {
+            String shardUrl = newUrl;
+            boolean keep = relocated || copied.isEmpty();
+            migrating.compute(key, (k, count) -> {
+                // The photo was deleted or changed meanwhile. Its copies are dropped unless another
+                // migration is about to use them or another photo of the user already does; photos
+                // sharing a variant file share the original too.
+                if (!keep && count == 1 && !photoRepository.existsByUserIdAndImageUrl(photo.getUserId(), shardUrl)) {
+                    discard(copied);
+                }
+                return count == 1 ? null : count - 1;
+            });
+        }
+    }
+
+    /**
+     * Copies a flat-layout file into the user's shard and returns its new URL,
+     * or {@code null} if the file is gone. A file shared by several of the
+     * user's photos is copied by the first of them; the rest find it in place.
+     * Photos of other users get their own copy in their own shard. Copies are
+     * added to {@code copied}.
+     */
+    private String move(String userId, String url, Map<String, String> copied) throws IOException {
+        if (!photoStorage.isFlat(url)) {
+            return url;
+        }
+        Path oldFile = photoStorage.resolve(url);
+        Path newFile = photoStorage.shardedPath(userId, oldFile.getFileName().toString());
+        String newUrl = photoStorage.urlOf(newFile);
+
+        if (Files.exists(newFile)) {
+            return newUrl;
+        }
+        if (!Files.exists(oldFile)) {
+            return null;
+        }
+        // Record the move first so the old URL resolves as soon as the flat file is deleted
+        photoRelocationRepository.save(new PhotoRelocation(url, newUrl, LocalDateTime.now()));
+        Files.createDirectories(newFile.getParent());
+        // Copied under a temporary name, so a crash never leaves a partial file at the new URL
+        Path temporary = Files.createTempFile(newFile.getParent(), "migrate-", ".tmp");
+        try {
+            Files.copy(oldFile, temporary, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temporary, newFile, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        copied.put(url, newUrl);
+        filesMoved.incrementAndGet();
+        return newUrl;
+    }
+
+    /**
+     * Deletes shard copies no photo was pointed at, with their relocation
+     * records unless another copy of the flat file has been recorded since.
+     */
+    private void discard(Map<String, String> copied) {
+        copied.forEach((url, newUrl) -> {
+            try {
+                photoRelocationRepository.findById(url)
+                        .filter(relocation -> newUrl.equals(relocation.getImageUrl()))
+                        .ifPresent(photoRelocationRepository::delete);
+                if (Files.deleteIfExists(photoStorage.resolve(newUrl))) {
+                    filesMoved.decrementAndGet();
+                }
+            } catch (IOException | RuntimeException e) {
+                failures.incrementAndGet();
+                logger.warn("Could not delete unused copy {}: {}", newUrl, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Deletes the flat files that were copied into a shard and that no photo
+     * refers to any more. Files still used by a photo that could not be
+     * migrated stay for the next run.
+     */
+    private void deleteMigratedFlatFiles() {
+        Set<String> stillUsed = new HashSet<>();
+        try (Stream<Photo> photos = photoRepository.streamByImageUrlRegex(FLAT_URL_PATTERN)) {
+            photos.forEach(photo -> {
+                stillUsed.add(photo.getImageUrl());
+                if (photo.getVariants() != null) {
+                    stillUsed.addAll(photo.getVariants().values());
+                }
+            });
+        }
+        try (Stream<PhotoRelocation> relocations = photoRelocationRepository.streamAllBy()) {
+            Iterator<PhotoRelocation> iterator = relocations.iterator();
+            while (iterator.hasNext()) {
+                String url = iterator.next().getId();
+                if (!photoStorage.isFlat(url) || stillUsed.contains(url)) {
+                    continue;
+                }
+                try {
+                    if (Files.deleteIfExists(photoStorage.resolve(url))) {
+                        flatFilesDeleted.incrementAndGet();
+                    }
+                } catch (IOException e) {
+                    failures.incrementAndGet();
+                    logger.warn("Could not delete migrated file {}: {}", url, e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.lifelogger.service;
+
+import com.lifelogger.model.EntryTypes;
+import com.lifelogger.model.Photo;
+import com.lifelogger.repository.PhotoRepository;
+import com.lifelogger.util.RateLimitedLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates resized copies of uploaded photos on a small bounded thread pool,
+ * so gallery views can load thumbnails instead of full-size originals.
+ */
+@Service
+public class PhotoVariantService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PhotoVariantService.class);
+    // A burst of uploads overflows the queue once per upload
+    private static final RateLimitedLog queueFull = new RateLimitedLog(logger, Duration.ofSeconds(10));
+
+    // Longest edge in pixels, largest first so each variant is scaled down from the previous one
+    private static final Map<String, Integer> VARIANTS = new LinkedHashMap<>();
+
+    static {
+        VARIANTS.put("large", 2048);
+        VARIANTS.put("medium", 1024);
+        VARIANTS.put("thumbnail", 256);
+    }
+
+    private static final int LARGEST_EDGE = 2048;
+    private static final float JPEG_QUALITY = 0.85f;
+    private static final int BACKFILL_BATCH_SIZE = 100;
+
+    @Autowired
+    private PhotoRepository photoRepository;
+
+    @Autowired
+    private PhotoStorage photoStorage;
+
+    @Autowired
+    private CollectionVersionService collectionVersionService;
+
+    @Value("${photo.variants.threads:2}")
+    private int threads;
+
+    @Value("${photo.variants.queue-capacity:200}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "photo-variants-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public void generateVariantsAsync(Photo photo) {
+        try {
+            executor.execute(() -> generateAndStore(photo));
+        } catch (RejectedExecutionException e) {
+            // Left with variants == null, so the next startup backfill picks it up
+            queueFull.warn("Variant queue full, skipping variants for photo {} for now", photo.getId());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillVariants() {
+        try {
+            executor.execute(() -> {
+                List<Photo> batch;
+                do {
+                    batch = photoRepository.findByVariantsIsNull(PageRequest.of(0, BACKFILL_BATCH_SIZE));
+                    batch.forEach(this::generateAndStore);
+                } while (batch.size() == BACKFILL_BATCH_SIZE);
+            });
+        } catch (RejectedExecutionException e) {
+            logger.warn("Variant queue full, skipping variant backfill");
+        }
+    }
+
+    public void deleteVariants(Photo photo) throws IOException {
+        if (photo.getVariants() == null) {
+            return;
+        }
+        for (String url : photo.getVariants().values()) {
+            if (!url.equals(photo.getImageUrl())) {
+                Files.deleteIfExists(photoStorage.resolve(url));
+            }
+        }
+    }
+
+    private void generateAndStore(Photo photo) {
+        Map<String, String> variants;
+        try {
+            variants = generateVariants(photo);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not generate variants for photo {}: {}", photo.getId(), e.getMessage());
+            // Empty map marks the photo as processed so it is not retried on every startup
+            variants = Map.of();
+        }
+
+        if (photoRepository.updateVariants(photo.getUserId(), photo.getImageUrl(), variants) > 0) {
+            collectionVersionService.changed(photo.getUserId(), EntryTypes.PHOTO);
+        } else {
+            // Every photo using this file was deleted while its variants were being generated
+            Photo orphan = new Photo();
+            orphan.setImageUrl(photo.getImageUrl());
+            orphan.setVariants(variants);
+            try {
+                deleteVariants(orphan);
+            } catch (IOException e) {
+                logger.warn("Could not delete variants of deleted photo {}: {}", photo.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private Map<String, String> generateVariants(Photo photo) throws IOException {
+        Path original = photoStorage.resolve(photo.getImageUrl());
+        BufferedImage image = readDownsampled(original);
+        if (image == null) {
+            return Map.of();
+        }
+
+        String filename = original.getFileName().toString();
+        int dot = filename.lastIndexOf('.');
+        String baseName = dot > 0 ? filename.substring(0, dot) : filename;
+        boolean png = filename.toLowerCase(Locale.ROOT).endsWith(".png");
+        String format = png ? "png" : "jpg";
+
+        Map<String, String> variants = new LinkedHashMap<>();
+        boolean scaled = false;
+        for (Map.Entry<String, Integer> variant : VARIANTS.entrySet()) {
+            int maxEdge = variant.getValue();
+            if (!scaled && Math.max(image.getWidth(), image.getHeight()) <= maxEdge) {
+                // Original is already small enough for this size
+                variants.put(variant.getKey(), photo.getImageUrl());
+                continue;
+            }
+
+            image = scaleToFit(image, maxEdge, png);
+            scaled = true;
+            Path target = original.resolveSibling(baseName + "_" + variant.getKey() + "." + format);
+            write(image, format, target);
+            variants.put(variant.getKey(), photoStorage.urlOf(target));
+        }
+        return variants;
+    }
+
+    /**
+     * Decodes the image with source subsampling so a 40-megapixel upload is
+     * never fully materialised just to produce a 2048px variant.
+     */
+    private static BufferedImage readDownsampled(Path file) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longestEdge = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int subsampling = Math.max(1, longestEdge / (2 * LARGEST_EDGE));
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage scaleToFit(BufferedImage source, int maxEdge, boolean keepAlpha) {
+        double scale = Math.min(1.0, (double) maxEdge / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        BufferedImage scaled = new BufferedImage(width, height,
+                keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private static void write(BufferedImage image, String format, Path target) throws IOException {
+        if (!"jpg".equals(format)) {
+            ImageIO.write(image, format, target.toFile());
+            return;
+        }
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(target.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.lifelogger.service;
+
+import com.lifelogger.dto.PlaceCluster;
+import com.lifelogger.model.Place;
+import com.lifelogger.repository.PlaceRepository;
+import com.lifelogger.util.PlaceGrid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Map markers for a viewport, clustered on a per-user {@link PlaceGrid} that is
+ * built from the user's places on their first map request, kept current as
+ * places change and held for the most recently active users.
+ */
+@Service
+public class PlaceClusterService {
+
+    // Grid cells per 256px map tile side, i.e. clusters are about 64px apart
+    private static final int CELLS_PER_TILE_LEVEL = 2;
+    // A 4K screen at 64px per cell is 60 x 34 cells
+    private static final int MAX_CLUSTERS = 2048;
+
+    private static final int WRITE_STRIPES = 64;
+
+    @Autowired
+    private PlaceRepository placeRepository;
+
+    @Value("${places.clusters.cache.max-users:200}")
+    private int cacheMaxUsers;
+
+    // Access-ordered, so the least recently used user's grid is evicted first
+    private final Map<String, PlaceGrid> grids = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PlaceGrid> eldest) {
+            return size() > cacheMaxUsers;
+        }
+    };
+
+    // Guards the cache above and the write counts below
+    private final Lock gridsLock = new ReentrantLock();
+
+    // Place writes applied to the cache, by stripe of user ids; a grid loaded while one was applied
+    // may have missed it. Grid puts and removes are idempotent, so writes still in flight when a
+    // grid is published need no count: they patch it once they get here.
+    private final long[] writesApplied = new long[WRITE_STRIPES];
+
+    public List<PlaceCluster> getClusters(String userId, double minLatitude, double minLongitude,
+                                          double maxLatitude, double maxLongitude, int zoom) {
+        PlaceService.checkCoordinates(minLatitude, minLongitude);
+        PlaceService.checkCoordinates(maxLatitude, maxLongitude);
+        if (minLatitude > maxLatitude) {
+            throw new IllegalArgumentException("minLat must not be greater than maxLat");
+        }
+        if (zoom < 0) {
+            throw new IllegalArgumentException("Zoom must not be negative");
+        }
+        return gridFor(userId).clusters(minLatitude, minLongitude, maxLatitude, maxLongitude,
+                zoom + CELLS_PER_TILE_LEVEL, MAX_CLUSTERS);
+    }
+
+    public void saved(Place place) {
+        PlaceGrid grid = applyingWrite(place.getUserId());
+        if (grid != null) {
+            put(grid, place);
+        }
+    }
+
+    public void savedAll(String userId, List<Place> places) {
+        PlaceGrid grid = applyingWrite(userId);
+        if (grid != null) {
+            places.forEach(place -> put(grid, place));
+        }
+    }
+
+    public void removed(Place place) {
+        PlaceGrid grid = applyingWrite(place.getUserId());
+        if (grid != null) {
+            grid.remove(place.getId());
+        }
+    }
+
+    // Counts a write to the user's places and returns their cached grid, which the caller patches
+    private PlaceGrid applyingWrite(String userId) {
+        gridsLock.lock();
+        try {
+            writesApplied[stripe(userId)]++;
+            return grids.get(userId);
+        } finally {
+            gridsLock.unlock();
+        }
+    }
+
+    private static int stripe(String userId) {
+        return Math.floorMod(userId.hashCode(), WRITE_STRIPES);
+    }
+
+    private PlaceGrid gridFor(String userId) {
+        int stripe = stripe(userId);
+        long writesBefore;
+        gridsLock.lock();
+        try {
+            PlaceGrid grid = grids.get(userId);
+            if (grid != null) {
+                return grid;
+            }
+            writesBefore = writesApplied[stripe];
+        } finally {
+            gridsLock.unlock();
+        }
+
+        PlaceGrid loaded = new PlaceGrid();
+        try (Stream<Place> places = placeRepository.streamByUserId(userId)) {
+            places.forEach(place -> put(loaded, place));
+        }
+        gridsLock.lock();
+        try {
+            PlaceGrid raced = grids.get(userId);
+            if (raced != null) {
+                return raced;
+            }
+            // Only publish a load no write overlapped; the next request loads again otherwise
+            if (writesApplied[stripe] == writesBefore) {
+                grids.put(userId, loaded);
+            }
+            return loaded;
+        } finally {
+            gridsLock.unlock();
+        }
+    }
+
+    private static void put(PlaceGrid grid, Place place) {
+        grid.put(place.getId(), place.getLatitude(), place.getLongitude(), place.getType(), place.getStatus());
+    }
+}
@@ -1,24 +1,71 @@
 package com.lifelogger.service;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.lifelogger.dto.CursorPage;
+import com.lifelogger.dto.NearbyPlace;
 import com.lifelogger.exception.ResourceNotFoundException;
+import com.lifelogger.model.EntryTypes;
 import com.lifelogger.model.Place;
 import com.lifelogger.model.PlaceStatus;
 import com.lifelogger.model.PlaceType;
 import com.lifelogger.repository.PlaceRepository;
+import com.lifelogger.util.CursorCodec;
+import com.lifelogger.util.PageLimits;
+import com.lifelogger.util.Projection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.GeoResult;
+import org.springframework.data.geo.Metrics;
+import org.springframework.data.geo.Point;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+import org.springframework.data.mongodb.core.geo.GeoJsonPolygon;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
 public class PlaceService {
 
+    private static final Logger logger = LoggerFactory.getLogger(PlaceService.class);
+
+    // Widest longitude span of one search polygon, well under a hemisphere
+    private static final double MAX_AREA_WIDTH = 90;
+    // Longest edge between polygon vertices, so box edges follow parallels closely
+    private static final double MAX_EDGE_DEGREES = 10;
+
     @Autowired
     private PlaceRepository placeRepository;
 
+    @Autowired
+    private MoodRollupService moodRollupService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private CollectionVersionService collectionVersionService;
+
+    @Autowired
+    private PlaceClusterService placeClusterService;
+
+    @Autowired
+    private PageLimits pageLimits;
+
     public Place createPlace(Place place, String userId) {
         place.setUserId(userId);
-        return placeRepository.save(place);
+        locate(place);
+        Place saved = placeRepository.save(place);
+        moodRollupService.added(userId, EntryTypes.PLACE, saved.getDateVisited(), saved.getMood());
+        tagService.added(userId, EntryTypes.PLACE, saved.getTags());
+        placeClusterService.saved(saved);
+        collectionVersionService.changed(userId, EntryTypes.PLACE);
+        return saved;
     }
 
     public Place updatePlace(String id, Place placeDetails, String userId) {
@@ -34,12 +81,23 @@ public class PlaceService {
         place.setStatus(placeDetails.getStatus());
         place.setLatitude(placeDetails.getLatitude());
         place.setLongitude(placeDetails.getLongitude());
+        locate(place);
         place.setDateVisited(placeDetails.getDateVisited());
         place.setExperienceNote(placeDetails.getExperienceNote());
         place.setMood(placeDetails.getMood());
         place.setTags(placeDetails.getTags());
 
-        return placeRepository.save(place);
+        // Deltas come from the version the write replaced, so concurrent writes are each counted once
+        Place previous = placeRepository.updateOwned(place);
+        if (previous == null) {
+            throw new ResourceNotFoundException("Place", "id", id);
+        }
+        moodRollupService.changed(userId, EntryTypes.PLACE, previous.getDateVisited(), previous.getMood(),
+                place.getDateVisited(), place.getMood());
+        tagService.changed(userId, EntryTypes.PLACE, previous.getTags(), place.getTags());
+        placeClusterService.saved(place);
+        collectionVersionService.changed(userId, EntryTypes.PLACE);
+        return place;
     }
 
     public void deletePlace(String id, String userId) {
@@ -50,11 +108,46 @@ public class PlaceService {
             throw new IllegalArgumentException("You don't have permission to delete this place");
         }
 
-        placeRepository.delete(place);
+        Place removed = placeRepository.removeOwned(id, userId);
+        if (removed == null) {
+            // Deleted by a concurrent request, which counted it
+            return;
+        }
+        moodRollupService.removed(userId, EntryTypes.PLACE, removed.getDateVisited(), removed.getMood());
+        tagService.removed(userId, EntryTypes.PLACE, removed.getTags());
+        placeClusterService.removed(removed);
+        collectionVersionService.changed(userId, EntryTypes.PLACE);
     }
 
     public List<Place> getAllPlaces(String userId) {
-        return placeRepository.findByUserId(userId);
+        return placeRepository.findByUserIdOrderByDateVisitedDesc(userId, pageLimits.listCap());
+    }
+
+    public List<ObjectNode> getAllPlaces(String userId, Projection projection) {
+        return projection.render(placeRepository.findPageByUserId(userId, null, null, null,
+                pageLimits.listCap().max(), projection));
+    }
+
+    public CursorPage<Place> getPlacesPage(String userId, Integer limit, String after) {
+        return placesPage(userId, limit, after, null);
+    }
+
+    public CursorPage<ObjectNode> getPlacesPage(String userId, Integer limit, String after, Projection projection) {
+        return placesPage(userId, limit, after, projection).map(projection::render);
+    }
+
+    private CursorPage<Place> placesPage(String userId, Integer limit, String after, Projection projection) {
+        int pageSize = pageLimits.pageSize(limit);
+        Place cursor = null;
+        if (after != null) {
+            String[] parts = CursorCodec.decode(after, 2);
+            cursor = new Place();
+            cursor.setDateVisited(CursorCodec.parse(parts[0], LocalDate::parse));
+            cursor.setId(parts[1]);
+        }
+        List<Place> places = placeRepository.findPageByUserId(userId, cursor, null, null, pageSize + 1, projection);
+        return CursorPage.of(places, pageSize,
+                place -> CursorCodec.encode(place.getDateVisited(), place.getId()));
     }
 
     public Place getPlaceById(String id, String userId) {
@@ -80,4 +173,117 @@ public class PlaceService {
         return placeRepository.findByUserIdAndTagsContaining(userId, tag);
     }
 
+    public List<NearbyPlace> findNear(String userId, double latitude, double longitude, double radius, Integer limit) {
+        checkCoordinates(latitude, longitude);
+        if (radius <= 0) {
+            throw new IllegalArgumentException("Radius must be positive");
+        }
+
+        List<NearbyPlace> nearby = new ArrayList<>();
+        for (GeoResult<Place> result : placeRepository.findNear(userId, new GeoJsonPoint(longitude, latitude),
+                new Distance(radius / 1000, Metrics.KILOMETERS), pageLimits.pageSize(limit))) {
+            nearby.add(new NearbyPlace(result.getContent(), result.getDistance().getValue() * 1000));
+        }
+        return nearby;
+    }
+
+    /**
+     * Places inside a latitude/longitude box. A box whose west edge is east of its
+     * east edge crosses the antimeridian.
+     */
+    public List<Place> findWithinBox(String userId, double minLatitude, double minLongitude,
+                                     double maxLatitude, double maxLongitude, Integer limit) {
+        checkCoordinates(minLatitude, minLongitude);
+        checkCoordinates(maxLatitude, maxLongitude);
+        if (minLatitude >= maxLatitude) {
+            throw new IllegalArgumentException("minLat must be less than maxLat");
+        }
+        if (minLongitude == maxLongitude) {
+            throw new IllegalArgumentException("minLng must differ from maxLng");
+        }
+
+        double west = minLongitude;
+        double east = maxLongitude > minLongitude ? maxLongitude : maxLongitude + 360;
+        int slices = (int) Math.ceil((east - west) / MAX_AREA_WIDTH);
+        double width = (east - west) / slices;
+
+        List<GeoJsonPolygon> areas = new ArrayList<>(slices);
+        for (int i = 0; i < slices; i++) {
+            areas.add(box(minLatitude, west + i * width, maxLatitude, west + (i + 1) * width));
+        }
+        return placeRepository.findWithin(userId, areas, pageLimits.pageSize(limit));
+    }
+
+    /**
+     * Places inside a polygon given as {@code lat,lng} vertices.
+     */
+    public List<Place> findWithinPolygon(String userId, List<double[]> vertices, Integer limit) {
+        if (vertices.size() < 3) {
+            throw new IllegalArgumentException("A polygon needs at least 3 points");
+        }
+        List<Point> ring = new ArrayList<>(vertices.size() + 1);
+        for (double[] vertex : vertices) {
+            checkCoordinates(vertex[0], vertex[1]);
+            ring.add(new Point(vertex[1], vertex[0]));
+        }
+        if (!ring.get(0).equals(ring.get(ring.size() - 1))) {
+            ring.add(ring.get(0));
+        }
+        return placeRepository.findWithin(userId, List.of(new GeoJsonPolygon(ring)), pageLimits.pageSize(limit));
+    }
+
+    // "lat,lng;lat,lng;..."
+    public static List<double[]> parseVertices(String polygon) {
+        List<double[]> vertices = new ArrayList<>();
+        for (String vertex : polygon.split(";")) {
+            String[] parts = vertex.split(",");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Polygon points must be given as lat,lng;lat,lng;...");
+            }
+            try {
+                vertices.add(new double[] { Double.parseDouble(parts[0].trim()), Double.parseDouble(parts[1].trim()) });
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid polygon point: " + vertex);
+            }
+        }
+        return vertices;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void locateUnlocatedPlaces() {
+        long located = placeRepository.backfillLocations();
+        if (located > 0) {
+            logger.info("Set GeoJSON locations for {} existing places", located);
+        }
+    }
+
+    public void locate(Place place) {
+        place.setLocation(place.getLatitude() != null && place.getLongitude() != null
+                ? new GeoJsonPoint(place.getLongitude(), place.getLatitude())
+                : null);
+    }
+
+    private static GeoJsonPolygon box(double south, double west, double north, double east) {
+        int segments = (int) Math.ceil((east - west) / MAX_EDGE_DEGREES);
+        List<Point> ring = new ArrayList<>(2 * segments + 3);
+        for (int i = 0; i <= segments; i++) {
+            ring.add(new Point(normalizeLongitude(west + (east - west) * i / segments), south));
+        }
+        for (int i = segments; i >= 0; i--) {
+            ring.add(new Point(normalizeLongitude(west + (east - west) * i / segments), north));
+        }
+        ring.add(ring.get(0));
+        return new GeoJsonPolygon(ring);
+    }
+
+    private static double normalizeLongitude(double longitude) {
+        return longitude > 180 ? longitude - 360 : longitude;
+    }
+
+    static void checkCoordinates(double latitude, double longitude) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Coordinates out of range: " + latitude + "," + longitude);
+        }
+    }
+
 }
@@ -0,0 +1,35 @@
+package com.lifelogger.service;
+
+import com.lifelogger.security.Roles;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.SecurityContext;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code /actuator/tagcounts}: {@code GET} reports whether a rebuild is
+ * running, {@code POST} recomputes all tag counts from the entries.
+ */
+@Component
+@Endpoint(id = "tagcounts")
+public class TagCountEndpoint {
+
+    @Autowired
+    private TagService tagService;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return tagService.status();
+    }
+
+    @WriteOperation
+    public Map<String, Object> rebuild(SecurityContext securityContext) {
+        Roles.requireAdmin(securityContext);
+        tagService.startRebuild();
+        return tagService.status();
+    }
+}
@@ -0,0 +1,337 @@
+package com.lifelogger.service;
+
+import com.lifelogger.dto.TagUsage;
+import com.lifelogger.model.EntryTypes;
+import com.lifelogger.model.Journal;
+import com.lifelogger.model.MicroMemory;
+import com.lifelogger.model.Photo;
+import com.lifelogger.model.Place;
+import com.lifelogger.model.TagCount;
+import com.lifelogger.model.Taste;
+import com.lifelogger.model.User;
+import com.lifelogger.repository.JournalRepository;
+import com.lifelogger.repository.MicroMemoryRepository;
+import com.lifelogger.repository.PhotoRepository;
+import com.lifelogger.repository.PlaceRepository;
+import com.lifelogger.repository.TagCountRepository;
+import com.lifelogger.repository.TasteRepository;
+import com.lifelogger.repository.UserRepository;
+import com.lifelogger.util.PageLimits;
+import com.lifelogger.util.TagTrie;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Per-user tag dictionary. Usage counts live in {@code tagCounts} and are
+ * adjusted on every change to an entry's tags; autocomplete is answered from a
+ * {@link TagTrie} built from them on a user's first lookup and kept for the
+ * most recently active users.
+ */
+@Service
+public class TagService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TagService.class);
+
+    private static final int WRITE_STRIPES = 64;
+
+    @Autowired
+    private TagCountRepository tagCountRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JournalRepository journalRepository;
+
+    @Autowired
+    private MicroMemoryRepository microMemoryRepository;
+
+    @Autowired
+    private TasteRepository tasteRepository;
+
+    @Autowired
+    private PlaceRepository placeRepository;
+
+    @Autowired
+    private PhotoRepository photoRepository;
+
+    @Autowired
+    private PageLimits pageLimits;
+
+    @Value("${tags.cache.max-users:1000}")
+    private int cacheMaxUsers;
+
+    // Access-ordered, so the least recently used user's trie is evicted first
+    private final Map<String, TagTrie> tries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, TagTrie> eldest) {
+            return size() > cacheMaxUsers;
+        }
+    };
+
+    // Guards the cache above and the write counts below
+    private final Lock triesLock = new ReentrantLock();
+
+    // Writes to tagCounts started but not yet applied to the cache, and those finished, by
+    // stripe of user ids; a trie loaded while either changed may miss a write or count it twice
+    private final int[] writesInFlight = new int[WRITE_STRIPES];
+    private final long[] writesDone = new long[WRITE_STRIPES];
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private volatile LocalDateTime lastRebuiltAt;
+
+    public List<TagUsage> getTags(String userId, String prefix, Integer limit) {
+        return trieFor(userId).search(prefix != null ? prefix.trim() : "", pageLimits.pageSize(limit));
+    }
+
+    public void added(String userId, String type, List<String> tags) {
+        for (String tag : distinct(tags)) {
+            increment(userId, tag, type, 1);
+        }
+    }
+
+    public void removed(String userId, String type, List<String> tags) {
+        for (String tag : distinct(tags)) {
+            increment(userId, tag, type, -1);
+        }
+    }
+
+    public void changed(String userId, String type, List<String> oldTags, List<String> newTags) {
+        Set<String> before = distinct(oldTags);
+        Set<String> after = distinct(newTags);
+        for (String tag : before) {
+            if (!after.contains(tag)) {
+                increment(userId, tag, type, -1);
+            }
+        }
+        for (String tag : after) {
+            if (!before.contains(tag)) {
+                increment(userId, tag, type, 1);
+            }
+        }
+    }
+
+    /**
+     * Counts the tags of a batch of new entries with one update per distinct tag.
+     */
+    public <T> void addedAll(String userId, String type, List<T> entries, Function<T, List<String>> tagsOf) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (T entry : entries) {
+            for (String tag : distinct(tagsOf.apply(entry))) {
+                counts.merge(tag, 1, Integer::sum);
+            }
+        }
+        counts.forEach((tag, count) -> increment(userId, tag, type, count));
+    }
+
+    private void increment(String userId, String tag, String type, int delta) {
+        beginWrite(userId);
+        try {
+            tagCountRepository.increment(userId, tag, type, delta);
+        } catch (RuntimeException e) {
+            endWrite(userId);
+            throw e;
+        }
+        TagTrie trie = endWrite(userId);
+        if (trie != null) {
+            trie.add(tag, type, delta);
+        }
+    }
+
+    private void beginWrite(String userId) {
+        triesLock.lock();
+        try {
+            writesInFlight[stripe(userId)]++;
+        } finally {
+            triesLock.unlock();
+        }
+    }
+
+    // Returns the user's cached trie, which the caller patches with the write
+    private TagTrie endWrite(String userId) {
+        triesLock.lock();
+        try {
+            int stripe = stripe(userId);
+            writesInFlight[stripe]--;
+            writesDone[stripe]++;
+            return tries.get(userId);
+        } finally {
+            triesLock.unlock();
+        }
+    }
+
+    private static int stripe(String userId) {
+        return Math.floorMod(userId.hashCode(), WRITE_STRIPES);
+    }
+
+    private TagTrie trieFor(String userId) {
+        int stripe = stripe(userId);
+        long writesBefore;
+        triesLock.lock();
+        try {
+            TagTrie trie = tries.get(userId);
+            if (trie != null) {
+                return trie;
+            }
+            writesBefore = writesInFlight[stripe] == 0 ? writesDone[stripe] : -1;
+        } finally {
+            triesLock.unlock();
+        }
+
+        TagTrie loaded = new TagTrie();
+        for (TagCount count : tagCountRepository.findByUserIdAndTotalGreaterThan(userId, 0)) {
+            if (count.getCounts() != null) {
+                count.getCounts().forEach((type, n) -> loaded.add(count.getTag(), type, n));
+            }
+        }
+        triesLock.lock();
+        try {
+            TagTrie raced = tries.get(userId);
+            if (raced != null) {
+                return raced;
+            }
+            // Only publish a load no write overlapped; the next lookup loads again otherwise
+            if (writesBefore >= 0 && writesInFlight[stripe] == 0 && writesDone[stripe] == writesBefore) {
+                tries.put(userId, loaded);
+            }
+            return loaded;
+        } finally {
+            triesLock.unlock();
+        }
+    }
+
+    private static Set<String> distinct(Collection<String> tags) {
+        Set<String> distinct = new LinkedHashSet<>();
+        if (tags != null) {
+            for (String tag : tags) {
+                if (tag != null && !tag.isBlank()) {
+                    distinct.add(tag.trim());
+                }
+            }
+        }
+        return distinct;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfMissing() {
+        if (tagCountRepository.count() == 0) {
+            startRebuild();
+        }
+    }
+
+    /**
+     * Starts {@link #rebuild()} in the background. Returns {@code false} if one
+     * is already running.
+     */
+    public boolean startRebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread thread = new Thread(this::rebuildAll, "tag-count-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("rebuilding", rebuilding.get());
+        status.put("lastRebuiltAt", lastRebuiltAt);
+        triesLock.lock();
+        try {
+            status.put("cachedUsers", tries.size());
+        } finally {
+            triesLock.unlock();
+        }
+        return status;
+    }
+
+    /**
+     * Recomputes every user's tag counts from their entries, one user at a time.
+     */
+    public void rebuild() {
+        if (rebuilding.compareAndSet(false, true)) {
+            rebuildAll();
+        }
+    }
+
+    // Called with rebuilding set
+    private void rebuildAll() {
+        try (Stream<User> users = userRepository.streamAllBy()) {
+            Iterator<User> iterator = users.iterator();
+            int rebuilt = 0;
+            while (iterator.hasNext()) {
+                rebuildUser(iterator.next().getId());
+                rebuilt++;
+            }
+            lastRebuiltAt = LocalDateTime.now();
+            logger.info("Rebuilt tag counts for {} users", rebuilt);
+        } catch (RuntimeException e) {
+            logger.error("Tag count rebuild failed", e);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private void rebuildUser(String userId) {
+        Map<String, TagCount> counts = new HashMap<>();
+        try (Stream<Journal> journals = journalRepository.streamByUserIdAndIsDeletedFalse(userId)) {
+            journals.forEach(journal -> count(counts, userId, EntryTypes.JOURNAL, journal.getTags()));
+        }
+        try (Stream<MicroMemory> memories = microMemoryRepository.streamByUserId(userId)) {
+            memories.forEach(memory -> count(counts, userId, EntryTypes.MEMORY, memory.getTags()));
+        }
+        try (Stream<Taste> tastes = tasteRepository.streamByUserId(userId)) {
+            tastes.forEach(taste -> count(counts, userId, EntryTypes.TASTE, taste.getTags()));
+        }
+        try (Stream<Place> places = placeRepository.streamByUserId(userId)) {
+            places.forEach(place -> count(counts, userId, EntryTypes.PLACE, place.getTags()));
+        }
+        try (Stream<Photo> photos = photoRepository.streamByUserId(userId)) {
+            photos.forEach(photo -> count(counts, userId, EntryTypes.PHOTO, photo.getTags()));
+        }
+
+        beginWrite(userId);
+        try {
+            tagCountRepository.deleteByUserId(userId);
+            tagCountRepository.saveAll(counts.values());
+        } finally {
+            endWrite(userId);
+            triesLock.lock();
+            try {
+                tries.remove(userId);
+            } finally {
+                triesLock.unlock();
+            }
+        }
+    }
+
+    private static void count(Map<String, TagCount> counts, String userId, String type, List<String> tags) {
+        for (String tag : distinct(tags)) {
+            TagCount count = counts.computeIfAbsent(tag,
+                    key -> new TagCount(TagCount.idOf(userId, key), userId, key, 0, new HashMap<>()));
+            count.setTotal(count.getTotal() + 1);
+            count.getCounts().merge(type, 1, Integer::sum);
+        }
+    }
+}
@@ -1,12 +1,19 @@
 package com.lifelogger.service;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.lifelogger.dto.CursorPage;
 import com.lifelogger.exception.ResourceNotFoundException;
+import com.lifelogger.model.EntryTypes;
 import com.lifelogger.model.Taste;
 import com.lifelogger.model.TasteType;
 import com.lifelogger.repository.TasteRepository;
+import com.lifelogger.util.CursorCodec;
+import com.lifelogger.util.PageLimits;
+import com.lifelogger.util.Projection;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Service
@@ -15,9 +22,25 @@ public class TasteService {
     @Autowired
     private TasteRepository tasteRepository;
 
+    @Autowired
+    private MoodRollupService moodRollupService;
+
+    @Autowired
+    private TagService tagService;
+
+    @Autowired
+    private CollectionVersionService collectionVersionService;
+
+    @Autowired
+    private PageLimits pageLimits;
+
     public Taste createTaste(Taste taste, String userId) {
         taste.setUserId(userId);
-        return tasteRepository.save(taste);
+        Taste saved = tasteRepository.save(taste);
+        moodRollupService.added(userId, EntryTypes.TASTE, saved.getDateConsumed(), saved.getMood());
+        tagService.added(userId, EntryTypes.TASTE, saved.getTags());
+        collectionVersionService.changed(userId, EntryTypes.TASTE);
+        return saved;
     }
 
     public Taste updateTaste(String id, Taste tasteDetails, String userId) {
@@ -36,7 +59,16 @@ public class TasteService {
         taste.setMood(tasteDetails.getMood());
         taste.setTags(tasteDetails.getTags());
 
-        return tasteRepository.save(taste);
+        // Deltas come from the version the write replaced, so concurrent writes are each counted once
+        Taste previous = tasteRepository.updateOwned(taste);
+        if (previous == null) {
+            throw new ResourceNotFoundException("Taste", "id", id);
+        }
+        moodRollupService.changed(userId, EntryTypes.TASTE, previous.getDateConsumed(), previous.getMood(),
+                taste.getDateConsumed(), taste.getMood());
+        tagService.changed(userId, EntryTypes.TASTE, previous.getTags(), taste.getTags());
+        collectionVersionService.changed(userId, EntryTypes.TASTE);
+        return taste;
     }
 
     public void deleteTaste(String id, String userId) {
@@ -47,11 +79,45 @@ public class TasteService {
             throw new IllegalArgumentException("You don't have permission to delete this item");
         }
 
-        tasteRepository.delete(taste);
+        Taste removed = tasteRepository.removeOwned(id, userId);
+        if (removed == null) {
+            // Deleted by a concurrent request, which counted it
+            return;
+        }
+        moodRollupService.removed(userId, EntryTypes.TASTE, removed.getDateConsumed(), removed.getMood());
+        tagService.removed(userId, EntryTypes.TASTE, removed.getTags());
+        collectionVersionService.changed(userId, EntryTypes.TASTE);
     }
 
     public List<Taste> getAllTastes(String userId) {
-        return tasteRepository.findByUserIdOrderByDateConsumedDesc(userId);
+        return tasteRepository.findByUserIdOrderByDateConsumedDesc(userId, pageLimits.listCap());
+    }
+
+    public List<ObjectNode> getAllTastes(String userId, Projection projection) {
+        return projection.render(tasteRepository.findPageByUserId(userId, null, null, null,
+                pageLimits.listCap().max(), projection));
+    }
+
+    public CursorPage<Taste> getTastesPage(String userId, Integer limit, String after) {
+        return tastesPage(userId, limit, after, null);
+    }
+
+    public CursorPage<ObjectNode> getTastesPage(String userId, Integer limit, String after, Projection projection) {
+        return tastesPage(userId, limit, after, projection).map(projection::render);
+    }
+
+    private CursorPage<Taste> tastesPage(String userId, Integer limit, String after, Projection projection) {
+        int pageSize = pageLimits.pageSize(limit);
+        Taste cursor = null;
+        if (after != null) {
+            String[] parts = CursorCodec.decode(after, 2);
+            cursor = new Taste();
+            cursor.setDateConsumed(CursorCodec.parse(parts[0], LocalDate::parse));
+            cursor.setId(parts[1]);
+        }
+        List<Taste> tastes = tasteRepository.findPageByUserId(userId, cursor, null, null, pageSize + 1, projection);
+        return CursorPage.of(tastes, pageSize,
+                taste -> CursorCodec.encode(taste.getDateConsumed(), taste.getId()));
     }
 
     public Taste getTasteById(String id, String userId) {
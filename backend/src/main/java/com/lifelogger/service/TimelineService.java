@@ -0,0 +1,306 @@
+package com.lifelogger.service;
+
+import com.lifelogger.dto.CursorPage;
+import com.lifelogger.dto.TimelineItem;
+import com.lifelogger.model.EntryTypes;
+import com.lifelogger.model.Journal;
+import com.lifelogger.model.MicroMemory;
+import com.lifelogger.model.Photo;
+import com.lifelogger.model.Place;
+import com.lifelogger.model.Taste;
+import com.lifelogger.repository.JournalRepository;
+import com.lifelogger.repository.MicroMemoryRepository;
+import com.lifelogger.repository.PhotoRepository;
+import com.lifelogger.repository.PlaceRepository;
+import com.lifelogger.repository.TasteRepository;
+import com.lifelogger.util.CursorCodec;
+import com.lifelogger.util.PageLimits;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Merges journals, micro-memories, tastes, places and photos into one
+ * newest-first feed. Each page queries every source concurrently for at most
+ * {@code limit + 1} rows after its own keyset position, then k-way merges the
+ * sorted results. The page cursor carries one position per source, so the next
+ * page resumes each source exactly where this one stopped taking from it.
+ */
+@Service
+public class TimelineService {
+
+    // Position of a source that has not been read yet, and of one with nothing left
+    private static final String START = "-";
+    private static final String EXHAUSTED = "~";
+
+    // Newest first; nulls last, as in each source's own order. Ties go to the source listed first.
+    private static final Comparator<SourceCursor<?>> HEAD_ORDER =
+            Comparator.comparing((SourceCursor<?> cursor) -> cursor.headTime(),
+                            Comparator.nullsLast(Comparator.reverseOrder()))
+                    .thenComparingInt(cursor -> cursor.sourceIndex());
+
+    @Autowired
+    private JournalRepository journalRepository;
+
+    @Autowired
+    private MicroMemoryRepository microMemoryRepository;
+
+    @Autowired
+    private TasteRepository tasteRepository;
+
+    @Autowired
+    private PlaceRepository placeRepository;
+
+    @Autowired
+    private PhotoRepository photoRepository;
+
+    @Autowired
+    private PageLimits pageLimits;
+
+    @Autowired
+    private Environment environment;
+
+    @Value("${timeline.query-threads:10}")
+    private int queryThreads;
+
+    private Executor executor;
+
+    private List<Source<?>> sources;
+
+    @PostConstruct
+    void init() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            // One virtual thread per source query, so the fan-out never queues behind other requests
+            SimpleAsyncTaskExecutor virtualExecutor = new SimpleAsyncTaskExecutor("timeline-query-");
+            virtualExecutor.setVirtualThreads(true);
+            executor = virtualExecutor;
+        } else {
+            AtomicInteger threadNumber = new AtomicInteger();
+            // The request thread runs its own queries when the queue is full, so a burst cannot pile up work
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(queryThreads, queryThreads, 60L, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(queryThreads * 4), runnable -> {
+                        Thread thread = new Thread(runnable, "timeline-query-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }, new ThreadPoolExecutor.CallerRunsPolicy());
+            pool.allowCoreThreadTimeOut(true);
+            executor = pool;
+        }
+
+        sources = List.of(
+                new Source<Journal>(EntryTypes.JOURNAL,
+                        (userId, after, from, to, limit) -> {
+                            Journal cursor = null;
+                            if (after != null) {
+                                String[] parts = CursorCodec.decode(after, 3);
+                                cursor = new Journal();
+                                cursor.setDate(CursorCodec.parse(parts[0], LocalDate::parse));
+                                cursor.setTime(CursorCodec.parse(parts[1], LocalTime::parse));
+                                cursor.setId(parts[2]);
+                            }
+                            return journalRepository.findPageByUserId(userId, cursor, from, to, limit);
+                        },
+                        journal -> CursorCodec.encode(journal.getDate(), journal.getTime(), journal.getId()),
+                        journal -> journal.getDate() == null ? null
+                                : journal.getDate().atTime(journal.getTime() != null ? journal.getTime() : LocalTime.MIN)),
+                new Source<MicroMemory>(EntryTypes.MEMORY,
+                        (userId, after, from, to, limit) -> {
+                            MicroMemory cursor = null;
+                            if (after != null) {
+                                String[] parts = CursorCodec.decode(after, 2);
+                                cursor = new MicroMemory();
+                                cursor.setTimestamp(CursorCodec.parse(parts[0], LocalDateTime::parse));
+                                cursor.setId(parts[1]);
+                            }
+                            return microMemoryRepository.findPageByUserId(userId, cursor, from, to, limit);
+                        },
+                        memory -> CursorCodec.encode(memory.getTimestamp(), memory.getId()),
+                        MicroMemory::getTimestamp),
+                new Source<Taste>(EntryTypes.TASTE,
+                        (userId, after, from, to, limit) -> {
+                            Taste cursor = null;
+                            if (after != null) {
+                                String[] parts = CursorCodec.decode(after, 2);
+                                cursor = new Taste();
+                                cursor.setDateConsumed(CursorCodec.parse(parts[0], LocalDate::parse));
+                                cursor.setId(parts[1]);
+                            }
+                            return tasteRepository.findPageByUserId(userId, cursor, from, to, limit);
+                        },
+                        taste -> CursorCodec.encode(taste.getDateConsumed(), taste.getId()),
+                        taste -> taste.getDateConsumed() == null ? null : taste.getDateConsumed().atStartOfDay()),
+                new Source<Place>(EntryTypes.PLACE,
+                        (userId, after, from, to, limit) -> {
+                            Place cursor = null;
+                            if (after != null) {
+                                String[] parts = CursorCodec.decode(after, 2);
+                                cursor = new Place();
+                                cursor.setDateVisited(CursorCodec.parse(parts[0], LocalDate::parse));
+                                cursor.setId(parts[1]);
+                            }
+                            return placeRepository.findPageByUserId(userId, cursor, from, to, limit);
+                        },
+                        place -> CursorCodec.encode(place.getDateVisited(), place.getId()),
+                        place -> place.getDateVisited() == null ? null : place.getDateVisited().atStartOfDay()),
+                new Source<Photo>(EntryTypes.PHOTO,
+                        (userId, after, from, to, limit) -> {
+                            Photo cursor = null;
+                            if (after != null) {
+                                String[] parts = CursorCodec.decode(after, 2);
+                                cursor = new Photo();
+                                cursor.setDateUploaded(CursorCodec.parse(parts[0], LocalDateTime::parse));
+                                cursor.setId(parts[1]);
+                            }
+                            return photoRepository.findPageByUserId(userId, cursor, from, to, limit);
+                        },
+                        photo -> CursorCodec.encode(photo.getDateUploaded(), photo.getId()),
+                        Photo::getDateUploaded));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (executor instanceof ExecutorService pool) {
+            pool.shutdownNow();
+        }
+    }
+
+    public CursorPage<TimelineItem> getTimeline(String userId, LocalDate from, LocalDate to,
+                                                Integer limit, String after) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        int pageSize = pageLimits.pageSize(limit);
+        String[] positions = after != null ? CursorCodec.decode(after, sources.size()) : null;
+
+        // Query every source that still has rows, all at once
+        List<CompletableFuture<List<?>>> fetches = new ArrayList<>(sources.size());
+        for (int i = 0; i < sources.size(); i++) {
+            String position = positions != null ? positions[i] : START;
+            if (EXHAUSTED.equals(position)) {
+                fetches.add(CompletableFuture.completedFuture(List.of()));
+                continue;
+            }
+            Source<?> source = sources.get(i);
+            String sourceAfter = START.equals(position) ? null : position;
+            fetches.add(CompletableFuture.supplyAsync(
+                    () -> source.query().fetch(userId, sourceAfter, from, to, pageSize + 1), executor));
+        }
+
+        List<SourceCursor<?>> cursors = new ArrayList<>(sources.size());
+        try {
+            for (int i = 0; i < sources.size(); i++) {
+                cursors.add(cursor(i, sources.get(i), fetches.get(i).join()));
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+
+        // k-way merge: repeatedly take the newest head among the sources
+        PriorityQueue<SourceCursor<?>> heads = new PriorityQueue<>(HEAD_ORDER);
+        for (SourceCursor<?> cursor : cursors) {
+            if (cursor.hasNext()) {
+                heads.add(cursor);
+            }
+        }
+        List<TimelineItem> items = new ArrayList<>(pageSize);
+        while (items.size() < pageSize && !heads.isEmpty()) {
+            SourceCursor<?> newest = heads.poll();
+            items.add(newest.take());
+            if (newest.hasNext()) {
+                heads.add(newest);
+            }
+        }
+
+        boolean hasMore = !heads.isEmpty();
+        String nextCursor = null;
+        if (hasMore) {
+            String[] nextPositions = new String[sources.size()];
+            for (int i = 0; i < sources.size(); i++) {
+                String position = positions != null ? positions[i] : START;
+                nextPositions[i] = cursors.get(i).nextPosition(position, pageSize + 1);
+            }
+            nextCursor = CursorCodec.encode((Object[]) nextPositions);
+        }
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> SourceCursor<T> cursor(int index, Source<T> source, List<?> rows) {
+        return new SourceCursor<>(index, source, (List<T>) rows);
+    }
+
+    @FunctionalInterface
+    private interface PageQuery<T> {
+        List<T> fetch(String userId, String after, LocalDate from, LocalDate to, int limit);
+    }
+
+    private record Source<T>(String type, PageQuery<T> query, Function<T, String> cursorOf,
+                             Function<T, LocalDateTime> timeOf) {
+    }
+
+    /**
+     * Read position within one source's fetched rows during a merge.
+     */
+    private static final class SourceCursor<T> {
+
+        private final int sourceIndex;
+        private final Source<T> source;
+        private final List<T> rows;
+        private int taken;
+
+        SourceCursor(int sourceIndex, Source<T> source, List<T> rows) {
+            this.sourceIndex = sourceIndex;
+            this.source = source;
+            this.rows = rows;
+        }
+
+        int sourceIndex() {
+            return sourceIndex;
+        }
+
+        boolean hasNext() {
+            return taken < rows.size();
+        }
+
+        LocalDateTime headTime() {
+            return source.timeOf().apply(rows.get(taken));
+        }
+
+        TimelineItem take() {
+            T row = rows.get(taken++);
+            return new TimelineItem(source.type(), source.timeOf().apply(row), row);
+        }
+
+        String nextPosition(String previous, int fetchLimit) {
+            if (taken == rows.size() && rows.size() < fetchLimit) {
+                return EXHAUSTED;
+            }
+            return taken == 0 ? previous : source.cursorOf().apply(rows.get(taken - 1));
+        }
+    }
+}
@@ -1,22 +1,14 @@
 package com.lifelogger.util;
 
-import com.lifelogger.model.User;
-import com.lifelogger.repository.UserRepository;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.lifelogger.security.AuthenticatedUser;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 @Component
 public class AuthUtil {
 
-    @Autowired
-    private UserRepository userRepository;
-
     public String getUserId(Authentication authentication) {
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        User user = userRepository.findByUsername(userDetails.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
         return user.getId();
     }
 }
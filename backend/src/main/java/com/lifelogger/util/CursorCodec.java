@@ -0,0 +1,56 @@
+package com.lifelogger.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.function.Function;
+
+/**
+ * Encodes the sort-key values of the last row of a page into an opaque,
+ * URL-safe cursor string and back.
+ */
+public final class CursorCodec {
+
+    private static final String SEPARATOR = "\n";
+
+    private CursorCodec() {
+    }
+
+    public static String encode(Object... values) {
+        StringBuilder raw = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                raw.append(SEPARATOR);
+            }
+            if (values[i] != null) {
+                raw.append(values[i]);
+            }
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String[] decode(String cursor, int expectedParts) {
+        String[] parts;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            parts = raw.split(SEPARATOR, -1);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (parts.length != expectedParts || parts[parts.length - 1].isEmpty()) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return parts;
+    }
+
+    public static <T> T parse(String part, Function<String, T> parser) {
+        if (part.isEmpty()) {
+            return null;
+        }
+        try {
+            return parser.apply(part);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.lifelogger.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PageLimits {
+
+    @Value("${app.pagination.default-limit:50}")
+    private int defaultLimit;
+
+    @Value("${app.pagination.max-limit:200}")
+    private int maxLimit;
+
+    @Value("${app.list.max-results:1000}")
+    private int maxListResults;
+
+    public int pageSize(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return defaultLimit;
+        }
+        return Math.min(requested, maxLimit);
+    }
+
+    public Limit listCap() {
+        return Limit.of(maxListResults);
+    }
+}
@@ -0,0 +1,267 @@
+package com.lifelogger.util;
+
+import com.lifelogger.dto.PlaceCluster;
+import com.lifelogger.model.PlaceStatus;
+import com.lifelogger.model.PlaceType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One user's places bucketed into a Web Mercator grid at every level from the
+ * whole world ({@code 0}) down to {@link #MAX_LEVEL}, where level {@code n}
+ * has {@code 2^n} cells per side. Each cell keeps a running count, coordinate
+ * sums and type/status tallies, so adding or removing a place touches one cell
+ * per level and a viewport is clustered by reading the cells it covers.
+ * Viewports are clustered concurrently; changes take the grid exclusively.
+ */
+public class PlaceGrid {
+
+    public static final int MAX_LEVEL = 24;
+
+    private static final double MAX_LATITUDE = 85.05112878;
+
+    private final List<Map<Long, Cell>> levels = new ArrayList<>(MAX_LEVEL + 1);
+    private final Map<String, Entry> entries = new HashMap<>();
+    // Ids per finest cell, to name the place behind a single-place cluster
+    private final Map<Long, Set<String>> leaves = new HashMap<>();
+    // Not synchronized: a virtual thread blocked on a monitor pins its carrier thread
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public PlaceGrid() {
+        for (int level = 0; level <= MAX_LEVEL; level++) {
+            levels.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Adds the place, replacing any earlier position of the same id. Places
+     * without coordinates are removed instead.
+     */
+    public void put(String id, Double latitude, Double longitude, PlaceType type, PlaceStatus status) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(id);
+            if (latitude == null || longitude == null) {
+                return;
+            }
+
+            Entry entry = new Entry(latitude, longitude, type, status,
+                    cellOf(projectX(longitude), MAX_LEVEL), cellOf(projectY(latitude), MAX_LEVEL));
+            entries.put(id, entry);
+            update(entry, 1);
+            leaves.computeIfAbsent(key(entry.x, entry.y), key -> new HashSet<>(2)).add(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Clusters the places inside the viewport at the grid level {@code level}.
+     * If the viewport spans more than {@code maxCells} cells at that level a
+     * coarser one is used, so the result never has more than {@code maxCells}
+     * clusters. A viewport with {@code west > east} crosses the antimeridian.
+     */
+    public List<PlaceCluster> clusters(double south, double west, double north, double east,
+                                       int level, int maxCells) {
+        lock.readLock().lock();
+        try {
+            return collect(south, west, north, east, level, maxCells);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<PlaceCluster> collect(double south, double west, double north, double east,
+                                       int level, int maxCells) {
+        level = Math.max(0, Math.min(level, MAX_LEVEL));
+        double top = projectY(north);
+        double bottom = projectY(south);
+        double left = projectX(west);
+        double right = projectX(east);
+
+        int[][] columns;
+        int minRow;
+        int maxRow;
+        while (true) {
+            minRow = cellOf(top, level);
+            maxRow = cellOf(bottom, level);
+            columns = west <= east
+                    ? new int[][] { { cellOf(left, level), cellOf(right, level) } }
+                    : new int[][] { { cellOf(left, level), (1 << level) - 1 }, { 0, cellOf(right, level) } };
+            long cells = 0;
+            for (int[] range : columns) {
+                cells += (long) (range[1] - range[0] + 1) * (maxRow - minRow + 1);
+            }
+            if (cells <= maxCells || level == 0) {
+                Map<Long, Cell> grid = levels.get(level);
+                List<PlaceCluster> clusters = new ArrayList<>();
+                if (cells <= grid.size()) {
+                    for (int[] range : columns) {
+                        for (int x = range[0]; x <= range[1]; x++) {
+                            for (int y = minRow; y <= maxRow; y++) {
+                                Cell cell = grid.get(key(x, y));
+                                if (cell != null) {
+                                    clusters.add(toCluster(cell, x, y, level));
+                                }
+                            }
+                        }
+                    }
+                } else {
+                    // Fewer occupied cells than cells in view: scan the occupied ones
+                    for (Map.Entry<Long, Cell> occupied : grid.entrySet()) {
+                        int x = (int) (occupied.getKey() >>> 32);
+                        int y = (int) (long) occupied.getKey();
+                        if (y >= minRow && y <= maxRow && inColumns(columns, x)) {
+                            clusters.add(toCluster(occupied.getValue(), x, y, level));
+                        }
+                    }
+                }
+                return clusters;
+            }
+            level--;
+        }
+    }
+
+    private void removeEntry(String id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+
+        update(entry, -1);
+        long leaf = key(entry.x, entry.y);
+        Set<String> ids = leaves.get(leaf);
+        ids.remove(id);
+        if (ids.isEmpty()) {
+            leaves.remove(leaf);
+        }
+    }
+
+    private void update(Entry entry, int delta) {
+        for (int level = 0; level <= MAX_LEVEL; level++) {
+            int shift = MAX_LEVEL - level;
+            long key = key(entry.x >> shift, entry.y >> shift);
+            Map<Long, Cell> grid = levels.get(level);
+            Cell cell = grid.computeIfAbsent(key, k -> new Cell());
+            cell.count += delta;
+            cell.latitudeSum += delta * entry.latitude;
+            cell.longitudeSum += delta * entry.longitude;
+            if (entry.type != null) {
+                cell.types[entry.type.ordinal()] += delta;
+            }
+            if (entry.status != null) {
+                cell.statuses[entry.status.ordinal()] += delta;
+            }
+            if (cell.count == 0) {
+                grid.remove(key);
+            }
+        }
+    }
+
+    private PlaceCluster toCluster(Cell cell, int x, int y, int level) {
+        String placeId = cell.count == 1 ? singleId(x, y, level) : null;
+        return new PlaceCluster(cell.latitudeSum / cell.count, cell.longitudeSum / cell.count, cell.count,
+                mostCommon(PlaceType.values(), cell.types), mostCommon(PlaceStatus.values(), cell.statuses),
+                placeId);
+    }
+
+    // Follows the one occupied child of each cell down to the finest level
+    private String singleId(int x, int y, int level) {
+        while (level < MAX_LEVEL) {
+            level++;
+            Map<Long, Cell> grid = levels.get(level);
+            int childX = x << 1;
+            int childY = y << 1;
+            if (grid.containsKey(key(childX, childY))) {
+                x = childX;
+                y = childY;
+            } else if (grid.containsKey(key(childX + 1, childY))) {
+                x = childX + 1;
+                y = childY;
+            } else if (grid.containsKey(key(childX, childY + 1))) {
+                x = childX;
+                y = childY + 1;
+            } else {
+                x = childX + 1;
+                y = childY + 1;
+            }
+        }
+        Set<String> ids = leaves.get(key(x, y));
+        return ids != null && !ids.isEmpty() ? ids.iterator().next() : null;
+    }
+
+    private static <E> E mostCommon(E[] values, int[] counts) {
+        E best = null;
+        int bestCount = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > bestCount) {
+                best = values[i];
+                bestCount = counts[i];
+            }
+        }
+        return best;
+    }
+
+    private static boolean inColumns(int[][] columns, int x) {
+        for (int[] range : columns) {
+            if (x >= range[0] && x <= range[1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static double projectX(double longitude) {
+        return (longitude + 180) / 360;
+    }
+
+    private static double projectY(double latitude) {
+        double sin = Math.sin(Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude))));
+        return 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+    }
+
+    private static int cellOf(double projected, int level) {
+        int size = 1 << level;
+        return Math.max(0, Math.min(size - 1, (int) (projected * size)));
+    }
+
+    private static long key(int x, int y) {
+        return ((long) x << 32) | (y & 0xffffffffL);
+    }
+
+    private record Entry(double latitude, double longitude, PlaceType type, PlaceStatus status, int x, int y) {
+    }
+
+    private static class Cell {
+        int count;
+        double latitudeSum;
+        double longitudeSum;
+        final int[] types = new int[PlaceType.values().length];
+        final int[] statuses = new int[PlaceStatus.values().length];
+    }
+}
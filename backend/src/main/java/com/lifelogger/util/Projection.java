@@ -0,0 +1,87 @@
+package com.lifelogger.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.data.mongodb.MongoExpression;
+import org.springframework.data.mongodb.core.query.Field;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The properties one list request asked for, built by {@link Projections}.
+ * {@link #applyTo} narrows a Mongo query to them, cutting the snippet's text
+ * down in the database; {@link #render} writes only them.
+ */
+public final class Projection {
+
+    static final String SNIPPET = "snippet";
+
+    private final ObjectMapper objectMapper;
+    private final List<String> names;
+    private final Set<String> properties;
+    private final String snippetOf;
+
+    /**
+     * @param names      JSON properties to write, in order
+     * @param properties entity properties to read
+     * @param snippetOf  entity property to cut the snippet from, or {@code null}
+     *                   if no snippet was asked for
+     */
+    Projection(ObjectMapper objectMapper, List<String> names, Set<String> properties, String snippetOf) {
+        this.objectMapper = objectMapper;
+        this.names = names;
+        this.properties = properties;
+        this.snippetOf = snippetOf;
+    }
+
+    /**
+     * Reads only the requested properties, and {@code keys} (the query's sort
+     * keys, which page cursors are built from).
+     */
+    public Query applyTo(Query query, String... keys) {
+        Field fields = query.fields();
+        fields.include(properties.toArray(String[]::new));
+        fields.include(keys);
+        if (snippetOf != null && !properties.contains(snippetOf)) {
+            // One character more than a snippet holds, so render can tell the text was cut
+            fields.project(MongoExpression.create("{ $substrCP: [ { $ifNull: [ '$" + snippetOf + "', '' ] }, 0, "
+                    + (Projections.SNIPPET_LENGTH + 1) + " ] }")).as(snippetOf);
+        }
+        return query;
+    }
+
+    public ObjectNode render(Object entity) {
+        JsonNode full = objectMapper.valueToTree(entity);
+        ObjectNode node = objectMapper.createObjectNode();
+        for (String name : names) {
+            if (name.equals(SNIPPET)) {
+                node.put(SNIPPET, snippet(full.path(snippetOf).asText(null)));
+            } else {
+                node.set(name, full.get(name));
+            }
+        }
+        return node;
+    }
+
+    public List<ObjectNode> render(List<?> entities) {
+        return entities.stream().map(this::render).toList();
+    }
+
+    /**
+     * The first line of {@code text}, cut to {@link Projections#SNIPPET_LENGTH}
+     * characters with an ellipsis.
+     */
+    static String snippet(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        String line = text.strip().lines().findFirst().orElse("").strip();
+        if (line.codePointCount(0, line.length()) <= Projections.SNIPPET_LENGTH) {
+            return line;
+        }
+        return line.substring(0, line.offsetByCodePoints(0, Projections.SNIPPET_LENGTH)).stripTrailing() + "…";
+    }
+}
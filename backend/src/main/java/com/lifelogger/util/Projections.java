@@ -0,0 +1,117 @@
+package com.lifelogger.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.lifelogger.model.Journal;
+import com.lifelogger.model.MicroMemory;
+import com.lifelogger.model.Photo;
+import com.lifelogger.model.Place;
+import com.lifelogger.model.Taste;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parses the {@code fields} and {@code view} parameters of the list endpoints
+ * into a {@link Projection}. {@code fields} names JSON properties of the
+ * entity, plus {@code snippet}; {@code view=card} stands for the properties a
+ * list row shows.
+ */
+@Component
+public class Projections {
+
+    public static final int SNIPPET_LENGTH = 160;
+
+    private static final String CARD = "card";
+
+    private static final Map<Class<?>, Summary> SUMMARIES = Map.of(
+            Journal.class, new Summary("content",
+                    List.of("id", "date", "time", "mood", "tags", Projection.SNIPPET)),
+            MicroMemory.class, new Summary("shortText",
+                    List.of("id", "timestamp", "mood", "tags", Projection.SNIPPET)),
+            Taste.class, new Summary("personalNote",
+                    List.of("id", "type", "title", "dateConsumed", "rating", "mood", Projection.SNIPPET)),
+            Place.class, new Summary("experienceNote",
+                    List.of("id", "name", "type", "status", "dateVisited", "latitude", "longitude", "mood",
+                            Projection.SNIPPET)),
+            Photo.class, new Summary("story",
+                    List.of("id", "imageUrl", "variants", "dateUploaded", "mood", Projection.SNIPPET)));
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Per entity, its JSON property names and the entity properties they are read from
+    private final Map<Class<?>, Map<String, String>> propertiesByType = new ConcurrentHashMap<>();
+
+    /**
+     * The projection for {@code fields} and {@code view} on a list of
+     * {@code type}, or {@code null} if neither is given and whole documents
+     * should be returned.
+     */
+    public Projection of(Class<?> type, String fields, String view) {
+        boolean hasFields = fields != null && !fields.isBlank();
+        boolean hasView = view != null && !view.isBlank();
+        if (!hasFields && !hasView) {
+            return null;
+        }
+        Summary summary = SUMMARIES.get(type);
+        Set<String> names = new LinkedHashSet<>();
+        if (hasView) {
+            if (!view.equals(CARD)) {
+                throw new IllegalArgumentException("Unknown view '" + view + "'. Supported views are: " + CARD);
+            }
+            names.addAll(summary.card());
+        }
+        if (hasFields) {
+            for (String name : fields.split(",")) {
+                if (!name.isBlank()) {
+                    names.add(name.strip());
+                }
+            }
+        }
+
+        Map<String, String> available = propertiesOf(type);
+        Set<String> properties = new LinkedHashSet<>();
+        for (String name : names) {
+            if (name.equals(Projection.SNIPPET)) {
+                continue;
+            }
+            String property = available.get(name);
+            if (property == null) {
+                throw new IllegalArgumentException("Unknown field '" + name + "'. Supported fields are: "
+                        + String.join(", ", available.keySet()) + ", " + Projection.SNIPPET);
+            }
+            properties.add(property);
+        }
+        String snippetOf = names.contains(Projection.SNIPPET) ? summary.snippetOf() : null;
+        return new Projection(objectMapper, new ArrayList<>(names), properties, snippetOf);
+    }
+
+    private Map<String, String> propertiesOf(Class<?> type) {
+        return propertiesByType.computeIfAbsent(type, entity -> {
+            Map<String, String> properties = new LinkedHashMap<>();
+            // Only properties backed by a field, which is what Mongo stores
+            for (BeanPropertyDefinition property : objectMapper.getSerializationConfig()
+                    .introspect(objectMapper.constructType(entity)).findProperties()) {
+                if (property.couldSerialize() && property.hasField()) {
+                    properties.put(property.getName(), property.getField().getName());
+                }
+            }
+            return properties;
+        });
+    }
+
+    /**
+     * @param snippetOf the entity's long text, which {@code snippet} is cut from
+     * @param card      the JSON properties of {@code view=card}
+     */
+    private record Summary(String snippetOf, List<String> card) {
+    }
+}
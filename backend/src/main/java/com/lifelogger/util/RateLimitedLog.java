@@ -0,0 +1,47 @@
+package com.lifelogger.util;
+
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes at most one warning per interval and counts the ones in between,
+ * reporting the count with the next warning that gets through. For warnings a
+ * bad client or a load spike can trigger on every request.
+ */
+public class RateLimitedLog {
+
+    private final Logger logger;
+    private final long intervalNanos;
+    private final AtomicLong nextAllowed = new AtomicLong(System.nanoTime());
+    private final LongAdder suppressed = new LongAdder();
+
+    public RateLimitedLog(Logger logger, Duration interval) {
+        this.logger = logger;
+        this.intervalNanos = interval.toNanos();
+    }
+
+    public void warn(String format, Object... arguments) {
+        if (!logger.isWarnEnabled()) {
+            return;
+        }
+        long now = System.nanoTime();
+        long next = nextAllowed.get();
+        if (now - next < 0 || !nextAllowed.compareAndSet(next, now + intervalNanos)) {
+            suppressed.increment();
+            return;
+        }
+
+        long skipped = suppressed.sumThenReset();
+        if (skipped > 0) {
+            Object[] withCount = Arrays.copyOf(arguments, arguments.length + 1);
+            withCount[arguments.length] = skipped;
+            logger.warn(format + " ({} more suppressed)", withCount);
+        } else {
+            logger.warn(format, arguments);
+        }
+    }
+}
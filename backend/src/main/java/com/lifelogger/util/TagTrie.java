@@ -0,0 +1,94 @@
+package com.lifelogger.util;
+
+import com.lifelogger.dto.TagUsage;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Case-insensitive prefix tree over one user's tags and their usage counts.
+ * Lookups walk the prefix and collect the subtree below it, so their cost
+ * depends on the number of matching tags rather than on the dictionary size.
+ * Lookups run concurrently; counting a tag takes the trie exclusively.
+ */
+public class TagTrie {
+
+    private static final Comparator<TagUsage> MOST_USED = Comparator.comparingInt(TagUsage::getTotal).reversed()
+            .thenComparing(TagUsage::getTag);
+
+    private final Node root = new Node();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void add(String tag, String type, int delta) {
+        lock.writeLock().lock();
+        try {
+            Node node = root;
+            for (char c : tag.toLowerCase(Locale.ROOT).toCharArray()) {
+                node = node.children.computeIfAbsent(c, key -> new Node());
+            }
+            if (node.tags == null) {
+                node.tags = new LinkedHashMap<>(2);
+            }
+            TagUsage usage = node.tags.computeIfAbsent(tag, key -> new TagUsage(key, 0, new HashMap<>()));
+            usage.setTotal(usage.getTotal() + delta);
+            usage.getCounts().merge(type, delta, Integer::sum);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The most used tags starting with {@code prefix} (ignoring case), most used first.
+     */
+    public List<TagUsage> search(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            return collect(prefix, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<TagUsage> collect(String prefix, int limit) {
+        Node node = root;
+        for (char c : prefix.toLowerCase(Locale.ROOT).toCharArray()) {
+            node = node.children.get(c);
+            if (node == null) {
+                return List.of();
+            }
+        }
+
+        List<TagUsage> matches = new ArrayList<>();
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(node);
+        while (!pending.isEmpty()) {
+            Node current = pending.pop();
+            if (current.tags != null) {
+                for (TagUsage usage : current.tags.values()) {
+                    if (usage.getTotal() > 0) {
+                        matches.add(new TagUsage(usage.getTag(), usage.getTotal(), new HashMap<>(usage.getCounts())));
+                    }
+                }
+            }
+            current.children.values().forEach(pending::push);
+        }
+
+        matches.sort(MOST_USED);
+        return matches.size() > limit ? matches.subList(0, limit) : matches;
+    }
+
+    private static final class Node {
+
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private Map<String, TagUsage> tags;
+    }
+}
@@ -0,0 +1,129 @@
+package com.lifelogger.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Tokenizes free text into lowercase words and reduces them to stems so that
+ * indexing and querying agree on the same terms ("walking", "walks" -> "walk").
+ */
+public final class TextAnalyzer {
+
+    private TextAnalyzer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                current.append(Character.toLowerCase(c));
+            } else if (c == '\'' || c == '’') {
+                // Drop apostrophes so "don't" and "dont" index the same way
+                continue;
+            } else if (current.length() > 0) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (current.length() > 0) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+
+    public static List<String> stems(List<String> tokens) {
+        List<String> stems = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            stems.add(stem(token));
+        }
+        return stems;
+    }
+
+    /**
+     * Distinct stems plus distinct raw tokens of the text. Stems serve term and
+     * phrase lookups, raw tokens serve prefix lookups.
+     */
+    public static List<String> indexTerms(String text) {
+        List<String> tokens = tokenize(text);
+        Set<String> terms = new LinkedHashSet<>();
+        for (String token : tokens) {
+            terms.add(stem(token));
+        }
+        terms.addAll(tokens);
+        return new ArrayList<>(terms);
+    }
+
+    public static String stem(String token) {
+        String word = token.toLowerCase(Locale.ROOT);
+        if (word.length() <= 3 || !isAlphabetic(word)) {
+            return word;
+        }
+
+        if (word.endsWith("ies") && word.length() > 4) {
+            word = word.substring(0, word.length() - 3) + "y";
+        } else if (word.endsWith("sses")) {
+            word = word.substring(0, word.length() - 2);
+        } else if (word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us") && !word.endsWith("is")) {
+            word = word.substring(0, word.length() - 1);
+        }
+
+        if (word.endsWith("ingly") && word.length() > 7) {
+            word = word.substring(0, word.length() - 5);
+        } else if (word.endsWith("edly") && word.length() > 6) {
+            word = word.substring(0, word.length() - 4);
+        } else if (word.endsWith("ily") && word.length() > 5) {
+            word = word.substring(0, word.length() - 3) + "y";
+        } else if (word.endsWith("ly") && word.length() > 5) {
+            word = word.substring(0, word.length() - 2);
+        }
+
+        if (word.endsWith("ing") && word.length() > 5 && hasVowel(word, word.length() - 3)) {
+            word = undouble(word.substring(0, word.length() - 3));
+        } else if (word.endsWith("ed") && word.length() > 4 && hasVowel(word, word.length() - 2)) {
+            word = undouble(word.substring(0, word.length() - 2));
+        }
+
+        if (word.endsWith("ness") && word.length() > 6) {
+            word = word.substring(0, word.length() - 4);
+        } else if (word.endsWith("ful") && word.length() > 5) {
+            word = word.substring(0, word.length() - 3);
+        }
+
+        return word;
+    }
+
+    private static boolean isAlphabetic(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (!Character.isLetter(word.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasVowel(String word, int end) {
+        for (int i = 0; i < end; i++) {
+            if ("aeiouy".indexOf(word.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String undouble(String word) {
+        int n = word.length();
+        if (n > 2 && word.charAt(n - 1) == word.charAt(n - 2) && "lsz".indexOf(word.charAt(n - 1)) < 0) {
+            return word.substring(0, n - 1);
+        }
+        return word;
+    }
+}
@@ -0,0 +1,48 @@
+package com.lifelogger.util;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+
+/**
+ * Caps the average write rate of the wrapped stream by sleeping whenever the
+ * bytes written so far are ahead of the allowed rate.
+ */
+public class ThrottledOutputStream extends FilterOutputStream {
+
+    private final double bytesPerNano;
+    private final long startNanos = System.nanoTime();
+    private long written;
+
+    public ThrottledOutputStream(OutputStream out, long bytesPerSecond) {
+        super(out);
+        this.bytesPerNano = bytesPerSecond / 1_000_000_000.0;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        written++;
+        throttle();
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        written += len;
+        throttle();
+    }
+
+    private void throttle() throws IOException {
+        long aheadNanos = (long) (written / bytesPerNano) - (System.nanoTime() - startNanos);
+        if (aheadNanos > 1_000_000) {
+            try {
+                Thread.sleep(aheadNanos / 1_000_000, (int) (aheadNanos % 1_000_000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Throttled write interrupted");
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.lifelogger.benchmarks;
+
+import com.lifelogger.dto.AuthResponse;
+import com.lifelogger.dto.LoginRequest;
+import com.lifelogger.dto.RegisterRequest;
+import com.lifelogger.service.AuthService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AuthService#login}, which is dominated by the BCrypt check of the
+ * password (strength 10, as configured in {@code SecurityConfig}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AuthBenchmark {
+
+    private InProcessStore store;
+    private AuthService authService;
+    private LoginRequest login;
+
+    @Setup
+    public void setUp() {
+        store = new InProcessStore();
+        authService = store.bean(AuthService.class);
+        authService.register(new RegisterRequest("benchmark", "benchmark-password", null));
+        login = new LoginRequest("benchmark", "benchmark-password");
+    }
+
+    @TearDown
+    public void tearDown() {
+        store.close();
+    }
+
+    @Benchmark
+    public AuthResponse login() {
+        return authService.login(login);
+    }
+}
@@ -0,0 +1,91 @@
+package com.lifelogger.benchmarks;
+
+import com.lifelogger.model.Journal;
+import com.lifelogger.model.Mood;
+import com.lifelogger.model.Photo;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Repeatable synthetic entries, sized like a typical user's: journals of a few
+ * paragraphs with three tags, photos with all three variants.
+ */
+final class BenchmarkData {
+
+    static final String[] TAGS = { "family", "work", "travel", "health", "friends", "reading", "music", "food",
+            "running", "weekend" };
+
+    private static final String[] WORDS = ("today morning coffee walked park met friend long talk about work "
+            + "plans weekend trip city quiet evening read book chapter dinner cooked pasta felt tired happy "
+            + "grateful rain sun garden project meeting deadline finally finished started learning").split(" ");
+
+    private BenchmarkData() {
+    }
+
+    static List<Journal> journals(String userId, int count) {
+        Random random = new Random(42);
+        LocalDate today = LocalDate.of(2024, 1, 1);
+        List<Journal> journals = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Journal journal = new Journal();
+            journal.setUserId(userId);
+            journal.setDate(today.minusDays(i / 3));
+            journal.setTime(LocalTime.of(8 + (i % 3) * 5, random.nextInt(60)));
+            journal.setContent(text(random, 80 + random.nextInt(120)));
+            journal.setMood(Mood.values()[random.nextInt(Mood.values().length)]);
+            journal.setTags(tags(random));
+            journal.setContext(i % 2 == 0 ? "home" : "work");
+            journal.setCreatedAt(journal.getDate().atTime(journal.getTime()));
+            journal.setUpdatedAt(journal.getCreatedAt());
+            journals.add(journal);
+        }
+        return journals;
+    }
+
+    static List<Photo> photos(String userId, int count) {
+        Random random = new Random(7);
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 12, 0);
+        List<Photo> photos = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String hash = Long.toHexString(random.nextLong()) + Long.toHexString(random.nextLong());
+            String base = "/uploads/photos/" + userId + "/" + hash.substring(0, 2) + "/" + hash.substring(2, 4)
+                    + "/" + hash;
+            Photo photo = new Photo();
+            photo.setUserId(userId);
+            photo.setImageUrl(base + ".jpg");
+            photo.setContentHash(hash);
+            photo.setDateUploaded(now.minusHours(i * 5L));
+            photo.setLocation("Lisbon");
+            photo.setMood(Mood.values()[random.nextInt(Mood.values().length)]);
+            photo.setTags(tags(random));
+            photo.setStory(text(random, 20 + random.nextInt(40)));
+            photo.setTechnicalNotes("f/2.8 1/250s ISO 200");
+            photo.setVariants(Map.of("thumbnail", base + "-thumbnail.jpg", "medium", base + "-medium.jpg",
+                    "large", base + "-large.jpg"));
+            photos.add(photo);
+        }
+        return photos;
+    }
+
+    private static String text(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    private static List<String> tags(Random random) {
+        int first = random.nextInt(TAGS.length);
+        return List.of(TAGS[first], TAGS[(first + 3) % TAGS.length], TAGS[(first + 7) % TAGS.length]);
+    }
+}
@@ -0,0 +1,114 @@
+package com.lifelogger.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Runs the benchmarks and writes JMH's JSON results. Given a baseline results
+ * file from an earlier run, prints the change of every benchmark against it
+ * and exits with status 1 if any got slower by more than the threshold.
+ *
+ * <pre>
+ * mvn -f benchmarks/pom.xml package exec:exec \
+ *     -Dbenchmark.args="--include=Jwt --baseline=baseline.json --threshold=10"
+ * </pre>
+ *
+ * Options: {@code --include=<regex>} (default all), {@code --results=<file>}
+ * (default {@code target/jmh-results.json}), {@code --baseline=<file>},
+ * {@code --threshold=<percent>} (default 10) and {@code --quick} for one short
+ * measurement per benchmark, as a smoke test.
+ */
+public class BenchmarkRunner {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                int equals = arg.indexOf('=');
+                options.put(equals > 0 ? arg.substring(2, equals) : arg.substring(2),
+                        equals > 0 ? arg.substring(equals + 1) : "true");
+            }
+        }
+        String results = options.getOrDefault("results", "target/jmh-results.json");
+        new File(results).getAbsoluteFile().getParentFile().mkdirs();
+
+        ChainedOptionsBuilder jmh = new OptionsBuilder()
+                .include(options.getOrDefault("include", ".*"))
+                .resultFormat(ResultFormatType.JSON)
+                .result(results);
+        if (options.containsKey("quick")) {
+            jmh.warmupIterations(1).warmupTime(TimeValue.seconds(1))
+                    .measurementIterations(1).measurementTime(TimeValue.seconds(1));
+        }
+        new Runner(jmh.build()).run();
+
+        if (options.containsKey("baseline")) {
+            double threshold = Double.parseDouble(options.getOrDefault("threshold", "10"));
+            boolean regressed = compare(scores(new File(options.get("baseline"))), scores(new File(results)),
+                    threshold);
+            System.exit(regressed ? 1 : 0);
+        }
+    }
+
+    /**
+     * Prints each benchmark's change against the baseline and returns whether
+     * any of them regressed by more than {@code threshold} percent.
+     */
+    static boolean compare(Map<String, Score> baseline, Map<String, Score> current, double threshold) {
+        boolean regressed = false;
+        System.out.printf("%n%-70s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null || !before.unit().equals(now.unit())) {
+                System.out.printf("%-70s %14s %14.3f %9s%n", entry.getKey(), "-", now.value(), "new");
+                continue;
+            }
+            double change = (now.value() - before.value()) / before.value() * 100;
+            // Throughput regresses when it drops, every other mode when the time grows
+            double slowdown = now.higherIsBetter() ? -change : change;
+            boolean worse = slowdown > threshold;
+            regressed |= worse;
+            System.out.printf("%-70s %14.3f %14.3f %+8.1f%%%s%n", entry.getKey(), before.value(), now.value(),
+                    change, worse ? "  REGRESSION" : "");
+        }
+        return regressed;
+    }
+
+    // Benchmark name plus parameters, e.g. "JsonBenchmark.writeJournals size=1000"
+    static Map<String, Score> scores(File file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode result : MAPPER.readTree(file)) {
+            StringBuilder key = new StringBuilder(result.get("benchmark").asText()
+                    .replaceFirst("^com\\.lifelogger\\.benchmarks\\.", ""));
+            JsonNode params = result.get("params");
+            if (params != null) {
+                Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> param = fields.next();
+                    key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+                }
+            }
+            JsonNode metric = result.get("primaryMetric");
+            scores.put(key.toString(), new Score(metric.get("score").asDouble(), metric.get("scoreUnit").asText(),
+                    "thrpt".equals(result.get("mode").asText())));
+        }
+        return scores;
+    }
+
+    record Score(double value, String unit, boolean higherIsBetter) {
+    }
+}
@@ -0,0 +1,148 @@
+package com.lifelogger.benchmarks;
+
+import com.lifelogger.repository.JournalRepository;
+import com.lifelogger.repository.logstore.LogStore;
+import com.lifelogger.repository.memory.InMemoryRepository;
+import com.lifelogger.security.CustomUserDetailsService;
+import com.lifelogger.security.JwtTokenUtil;
+import com.lifelogger.service.AuthService;
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.config.EnableMongoAuditing;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The backend's repositories and {@link AuthService}, wired by Spring Boot as
+ * in the application, on one of two storage engines:
+ * <ul>
+ * <li>{@code mongo}: the Mongo repositories against an in-memory MongoDB wire
+ * protocol server in this JVM, or against the server at
+ * {@code BENCHMARK_MONGODB_URI} if that is set. Requests go through the real
+ * driver, so even in-process the benchmarks measure query building, mapping
+ * and (de)serialisation.</li>
+ * <li>{@code logstore}: the in-memory repositories persisted to segment
+ * files in a temporary directory, as with the {@code logstore} profile.</li>
+ * </ul>
+ */
+final class InProcessStore implements AutoCloseable {
+
+    private final MongoServer server;
+    private final Path directory;
+    private final ConfigurableApplicationContext context;
+
+    InProcessStore() {
+        this("mongo");
+    }
+
+    InProcessStore(String engine) {
+        List<String> args = new ArrayList<>(List.of("--logging.level.root=WARN", "--logging.level.com.lifelogger=WARN"));
+        Class<?> config;
+        if (engine.equals("logstore")) {
+            server = null;
+            try {
+                directory = Files.createTempDirectory("logstore-benchmark");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            config = LogStoreConfig.class;
+            args.add("--spring.profiles.active=logstore");
+            args.add("--logstore.dir=" + directory);
+        } else {
+            directory = null;
+            String uri = System.getenv("BENCHMARK_MONGODB_URI");
+            if (uri == null) {
+                server = new MongoServer(new MemoryBackend());
+                InetSocketAddress address = server.bind();
+                uri = "mongodb://" + address.getHostString() + ":" + address.getPort() + "/benchmark";
+            } else {
+                server = null;
+            }
+            config = StoreConfig.class;
+            args.add("--spring.data.mongodb.uri=" + uri);
+        }
+        context = new SpringApplicationBuilder(config)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                // As arguments, since defaults would lose to the backend's application.properties
+                .run(args.toArray(String[]::new));
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    @Override
+    public void close() {
+        if (server == null && directory == null) {
+            // A real server: leave nothing behind for the next run
+            context.getBean(MongoTemplate.class).getDb().drop();
+        }
+        context.close();
+        if (server != null) {
+            server.shutdownNow();
+        }
+        if (directory != null) {
+            FileSystemUtils.deleteRecursively(directory.toFile());
+        }
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration(exclude = { SecurityAutoConfiguration.class, UserDetailsServiceAutoConfiguration.class })
+    @EnableMongoAuditing
+    @EnableMongoRepositories(basePackageClasses = JournalRepository.class)
+    @Import({ AuthService.class, CustomUserDetailsService.class, JwtTokenUtil.class })
+    static class StoreConfig extends SecurityBeans {
+    }
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration(exclude = { SecurityAutoConfiguration.class, UserDetailsServiceAutoConfiguration.class })
+    @ComponentScan(basePackageClasses = { InMemoryRepository.class, LogStore.class })
+    @Import({ AuthService.class, CustomUserDetailsService.class, JwtTokenUtil.class })
+    static class LogStoreConfig extends SecurityBeans {
+    }
+
+    // As in SecurityConfig
+    abstract static class SecurityBeans {
+
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder();
+        }
+
+        @Bean
+        AuthenticationManager authenticationManager(CustomUserDetailsService userDetailsService,
+                                                    PasswordEncoder passwordEncoder) {
+            DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+            provider.setUserDetailsService(userDetailsService);
+            provider.setPasswordEncoder(passwordEncoder);
+            return new ProviderManager(provider);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.lifelogger.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.lifelogger.model.Journal;
+import com.lifelogger.model.Photo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing list responses with an {@code ObjectMapper} configured like the
+ * application's ({@code spring.jackson.*} in {@code application.properties}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JsonBenchmark {
+
+    // A page, the default list cap and a full export-sized list
+    @Param({ "50", "1000", "10000" })
+    int size;
+
+    private ObjectMapper objectMapper;
+    private List<Journal> journals;
+    private List<Photo> photos;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .timeZone(TimeZone.getTimeZone("UTC"))
+                .build();
+        journals = BenchmarkData.journals("benchmark-user", size);
+        photos = BenchmarkData.photos("benchmark-user", size);
+    }
+
+    @Benchmark
+    public byte[] writeJournals() throws IOException {
+        return objectMapper.writeValueAsBytes(journals);
+    }
+
+    @Benchmark
+    public byte[] writePhotos() throws IOException {
+        return objectMapper.writeValueAsBytes(photos);
+    }
+}
@@ -0,0 +1,93 @@
+package com.lifelogger.benchmarks;
+
+import com.lifelogger.model.User;
+import com.lifelogger.security.AuthenticatedUser;
+import com.lifelogger.security.JwtRequestFilter;
+import com.lifelogger.security.JwtTokenUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jakarta.servlet.ServletException;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token handling on every authenticated request: issuing a token, verifying
+ * its signature, the verified-token cache, and the whole
+ * {@link JwtRequestFilter} pass including the security context.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret";
+
+    private JwtTokenUtil jwtTokenUtil;
+    private JwtRequestFilter jwtRequestFilter;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtTokenUtil = new JwtTokenUtil();
+        ReflectionTestUtils.setField(jwtTokenUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtTokenUtil, "expiration", 86_400_000L);
+        ReflectionTestUtils.setField(jwtTokenUtil, "cacheMaxEntries", 10_000);
+        ReflectionTestUtils.invokeMethod(jwtTokenUtil, "init");
+
+        jwtRequestFilter = new JwtRequestFilter();
+        ReflectionTestUtils.setField(jwtRequestFilter, "jwtTokenUtil", jwtTokenUtil);
+
+        user = new User();
+        user.setId("65a1f0c2e4b0a1b2c3d4e5f6");
+        user.setUsername("benchmark");
+        token = jwtTokenUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtTokenUtil.generateToken(user);
+    }
+
+    // Parses and checks the signature every time
+    @Benchmark
+    public String validateToken() {
+        return jwtTokenUtil.getUsernameFromToken(token);
+    }
+
+    // What requests after the first one with a token pay
+    @Benchmark
+    public AuthenticatedUser authenticateCached() {
+        return jwtTokenUtil.getAuthenticatedUser(token);
+    }
+
+    @Benchmark
+    public Object requestFilter() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/journals");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockFilterChain chain = new MockFilterChain();
+        try {
+            jwtRequestFilter.doFilter(request, new MockHttpServletResponse(), chain);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
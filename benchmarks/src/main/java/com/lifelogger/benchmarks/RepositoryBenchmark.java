@@ -0,0 +1,101 @@
+package com.lifelogger.benchmarks;
+
+import com.lifelogger.model.Journal;
+import com.lifelogger.model.Photo;
+import com.lifelogger.repository.JournalRepository;
+import com.lifelogger.repository.PhotoRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The repository methods behind the list, page and filter endpoints, for one
+ * user's {@code entries} journals and photos, and a journal edit, on each
+ * storage {@code engine}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RepositoryBenchmark {
+
+    private static final String USER_ID = "benchmark-user";
+    private static final int PAGE_SIZE = 50;
+
+    @Param({ "1000" })
+    int entries;
+
+    @Param({ "mongo", "logstore" })
+    String engine;
+
+    private InProcessStore store;
+    private JournalRepository journalRepository;
+    private PhotoRepository photoRepository;
+    private Journal journalCursor;
+    private Photo photoCursor;
+
+    @Setup
+    public void setUp() {
+        store = new InProcessStore(engine);
+        journalRepository = store.bean(JournalRepository.class);
+        photoRepository = store.bean(PhotoRepository.class);
+        List<Journal> journals = journalRepository.saveAll(BenchmarkData.journals(USER_ID, entries));
+        List<Photo> photos = photoRepository.saveAll(BenchmarkData.photos(USER_ID, entries));
+        // Start the keyset pages in the middle, as a scrolled client would
+        journalCursor = journals.get(entries / 2);
+        photoCursor = photos.get(entries / 2);
+    }
+
+    @TearDown
+    public void tearDown() {
+        store.close();
+    }
+
+    @Benchmark
+    public List<Journal> journalList() {
+        return journalRepository.findByUserIdAndIsDeletedFalseOrderByDateDescTimeDesc(USER_ID, Limit.of(PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<Journal> journalPage() {
+        return journalRepository.findPageByUserId(USER_ID, journalCursor, null, null, PAGE_SIZE + 1);
+    }
+
+    @Benchmark
+    public List<Journal> journalsByTag() {
+        return journalRepository.findByUserIdAndTagsContainingAndIsDeletedFalse(USER_ID, BenchmarkData.TAGS[0]);
+    }
+
+    // A save of an existing journal, so the data set stays the same size; on
+    // logstore this includes the fsync of the appended record
+    @Benchmark
+    public Journal journalUpdate() {
+        journalCursor.setContent("Edited " + System.nanoTime());
+        return journalRepository.save(journalCursor);
+    }
+
+    @Benchmark
+    public List<Photo> photoList() {
+        return photoRepository.findByUserIdOrderByDateUploadedDesc(USER_ID, Limit.of(PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<Photo> photoPage() {
+        return photoRepository.findPageByUserId(USER_ID, photoCursor, null, null, PAGE_SIZE + 1);
+    }
+}
@@ -273,7 +273,7 @@ function Photos() {
                         >
                             <div className="photo-image-container">
                                 <img
-                                    src={photo.imageUrl}
+                                    src={photo.variants?.thumbnail || photo.imageUrl}
                                     alt={photo.location || 'Photo'}
                                     className="photo-image"
                                 />
@@ -308,7 +308,7 @@ function Photos() {
 
                         <div className="modal-image-container">
                             <img
-                                src={selectedPhoto.imageUrl}
+                                src={selectedPhoto.variants?.large || selectedPhoto.imageUrl}
                                 alt={selectedPhoto.location || 'Photo'}
                                 className="modal-image"
                             />